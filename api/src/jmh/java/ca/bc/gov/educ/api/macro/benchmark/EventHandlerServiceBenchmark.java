@@ -0,0 +1,101 @@
+package ca.bc.gov.educ.api.macro.benchmark;
+
+import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.service.events.EventHandlerService;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The saga participant side, {@link EventHandlerService} against the in memory H2 database, booted with the same "test" profile as the unit tests
+ * (NATS is mocked by the test MockConfiguration, the embedded server listens on a random port).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventHandlerServiceBenchmark {
+
+  private ConfigurableApplicationContext context;
+
+  private EventHandlerService eventHandlerService;
+
+  private Macro existingMacro;
+
+  private UUID replayedSagaId;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    this.context = new SpringApplicationBuilder(MacroApiResourceApplication.class)
+        .profiles("test")
+        .properties("server.port=0", "logging.level.ca.bc.gov.educ.api.macro=INFO")
+        .run();
+    this.eventHandlerService = this.context.getBean(EventHandlerService.class);
+    this.replayedSagaId = UUID.randomUUID();
+    final var response = this.eventHandlerService.handleCreateMacroEvent(this.createMacroEvent(this.replayedSagaId));
+    final var responseEvent = JsonUtil.getJsonObjectFromByteArray(Event.class, response);
+    this.existingMacro = JsonUtil.getJsonObjectFromString(Macro.class, responseEvent.getEventPayload());
+  }
+
+  /**
+   * The mocked publisher records every invocation, clear them so the heap does not grow across iterations.
+   */
+  @TearDown(Level.Iteration)
+  public void clearInvocations() {
+    Mockito.clearInvocations(this.context.getBean(MessagePublisher.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public byte[] handleCreateMacroEvent() throws IOException {
+    return this.eventHandlerService.handleCreateMacroEvent(this.createMacroEvent(UUID.randomUUID()));
+  }
+
+  @Benchmark
+  public byte[] handleCreateMacroEvent_replayed() throws IOException {
+    return this.eventHandlerService.handleCreateMacroEvent(this.createMacroEvent(this.replayedSagaId));
+  }
+
+  @Benchmark
+  public byte[] handleUpdateMacroEvent() throws IOException {
+    final var event = Event.builder()
+        .eventType(EventType.UPDATE_MACRO)
+        .sagaId(UUID.randomUUID())
+        .replyTo("MACRO_UPDATE_SAGA_TOPIC")
+        .eventPayload(JsonUtil.getJsonStringFromObject(this.existingMacro))
+        .build();
+    return this.eventHandlerService.handleUpdateMacroEvent(event);
+  }
+
+  private Event createMacroEvent(final UUID sagaId) throws IOException {
+    final var macro = new Macro();
+    macro.setMacroCode(UUID.randomUUID().toString().substring(0, 8));
+    macro.setMacroText("Surname and given name appear to be entered backwards, If correct, please confirm by sending legal documents.");
+    macro.setMacroTypeCode("MERGE");
+    macro.setBusinessUseTypeCode("PENREG");
+    macro.setCreateUser("user");
+    macro.setUpdateUser("user");
+    return Event.builder()
+        .eventType(EventType.CREATE_MACRO)
+        .sagaId(sagaId)
+        .replyTo("MACRO_CREATE_SAGA_TOPIC")
+        .eventPayload(JsonUtil.getJsonStringFromObject(macro))
+        .build();
+  }
+}
@@ -0,0 +1,96 @@
+package ca.bc.gov.educ.api.macro.benchmark;
+
+import ca.bc.gov.educ.api.macro.constants.EventOutcome;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JsonUtil} against building a new {@link ObjectMapper} per call, which is what JsonUtil used to do.
+ * Run with -prof gc (the benchmark profile does) to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonUtilBenchmark {
+
+  private Event event;
+
+  private byte[] eventBytes;
+
+  private Macro macro;
+
+  private String macroJson;
+
+  @Setup
+  public void setup() throws IOException {
+    final var macro = new Macro();
+    macro.setMacroId(UUID.randomUUID().toString());
+    macro.setBusinessUseTypeCode("PENREG");
+    macro.setMacroTypeCode("MERGE");
+    macro.setMacroCode("hi");
+    macro.setMacroText("Surname and given name appear to be entered backwards, If correct, please confirm by sending legal documents.");
+    macro.setCreateUser("user");
+    macro.setUpdateUser("user");
+    this.event = Event.builder()
+        .eventType(EventType.CREATE_MACRO)
+        .eventOutcome(EventOutcome.MACRO_CREATED)
+        .sagaId(UUID.randomUUID())
+        .replyTo("MACRO_CREATE_SAGA_TOPIC")
+        .eventPayload(JsonUtil.getJsonStringFromObject(macro))
+        .build();
+    this.eventBytes = JsonUtil.getJsonBytesFromObject(this.event);
+    this.macro = macro;
+    this.macroJson = this.event.getEventPayload();
+  }
+
+  @Benchmark
+  public String writeEvent_newMapperPerCall() throws IOException {
+    final var mapper = new ObjectMapper();
+    mapper.registerModule(new JavaTimeModule());
+    mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    return mapper.writeValueAsString(this.event);
+  }
+
+  @Benchmark
+  public String writeEvent_jsonUtil() throws IOException {
+    return JsonUtil.getJsonStringFromObject(this.event);
+  }
+
+  @Benchmark
+  public Event readEvent_newMapperPerCall() throws IOException {
+    return new ObjectMapper().readValue(new String(this.eventBytes), Event.class);
+  }
+
+  @Benchmark
+  public Event readEvent_jsonUtilFromString() throws IOException {
+    return JsonUtil.getJsonObjectFromString(Event.class, new String(this.eventBytes));
+  }
+
+  @Benchmark
+  public Event readEvent_jsonUtilFromBytes() throws IOException {
+    return JsonUtil.getJsonObjectFromByteArray(Event.class, this.eventBytes);
+  }
+
+  @Benchmark
+  public String writeMacro_jsonUtil() throws IOException {
+    return JsonUtil.getJsonStringFromObject(this.macro);
+  }
+
+  @Benchmark
+  public Macro readMacro_jsonUtil() throws IOException {
+    return JsonUtil.getJsonObjectFromString(Macro.class, this.macroJson);
+  }
+}
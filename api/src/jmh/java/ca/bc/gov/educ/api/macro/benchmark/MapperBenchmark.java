@@ -0,0 +1,93 @@
+package ca.bc.gov.educ.api.macro.benchmark;
+
+import ca.bc.gov.educ.api.macro.mapper.SagaMapper;
+import ca.bc.gov.educ.api.macro.mapper.v1.MacroMapper;
+import ca.bc.gov.educ.api.macro.model.MacroEntity;
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.model.SagaEvent;
+import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions used on every REST response and saga step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+  private MacroEntity macroEntity;
+
+  private Macro macro;
+
+  private Saga saga;
+
+  private SagaEvent sagaEvent;
+
+  @Setup
+  public void setup() {
+    this.macroEntity = new MacroEntity();
+    this.macroEntity.setMacroId(UUID.randomUUID());
+    this.macroEntity.setMacroCode("hi");
+    this.macroEntity.setMacroText("Surname and given name appear to be entered backwards, If correct, please confirm by sending legal documents.");
+    this.macroEntity.setMacroTypeCode("MERGE");
+    this.macroEntity.setBusinessUseTypeCode("PENREG");
+    this.macroEntity.setCreateUser("user");
+    this.macroEntity.setUpdateUser("user");
+    this.macroEntity.setCreateDate(LocalDateTime.now());
+    this.macroEntity.setUpdateDate(LocalDateTime.now());
+    this.macro = MacroMapper.mapper.toStructure(this.macroEntity);
+    this.saga = Saga.builder()
+        .sagaId(UUID.randomUUID())
+        .macroId(this.macroEntity.getMacroId())
+        .sagaName("MACRO_CREATE_SAGA")
+        .sagaState("CREATE_MACRO")
+        .payload("{\"macroCode\":\"hi\",\"macroTypeCode\":\"MERGE\",\"businessUseTypeCode\":\"PENREG\"}")
+        .status("IN_PROGRESS")
+        .createUser("user")
+        .updateUser("user")
+        .createDate(LocalDateTime.now())
+        .updateDate(LocalDateTime.now())
+        .retryCount(0)
+        .build();
+    this.sagaEvent = SagaEvent.builder()
+        .sagaEventId(UUID.randomUUID())
+        .saga(this.saga)
+        .sagaEventState("CREATE_MACRO")
+        .sagaEventOutcome("MACRO_CREATED")
+        .sagaStepNumber(2)
+        .sagaEventResponse(this.saga.getPayload())
+        .createUser("user")
+        .updateUser("user")
+        .createDate(LocalDateTime.now())
+        .updateDate(LocalDateTime.now())
+        .build();
+  }
+
+  @Benchmark
+  public Macro macroToStructure() {
+    return MacroMapper.mapper.toStructure(this.macroEntity);
+  }
+
+  @Benchmark
+  public MacroEntity macroToModel() {
+    return MacroMapper.mapper.toModel(this.macro);
+  }
+
+  @Benchmark
+  public ca.bc.gov.educ.api.macro.struct.v1.Saga sagaToStruct() {
+    return SagaMapper.mapper.toStruct(this.saga);
+  }
+
+  @Benchmark
+  public ca.bc.gov.educ.api.macro.struct.v1.SagaEvent sagaEventToStruct() {
+    return SagaMapper.mapper.toEventStruct(this.sagaEvent);
+  }
+}
@@ -0,0 +1,77 @@
+package ca.bc.gov.educ.api.macro.benchmark;
+
+import ca.bc.gov.educ.api.macro.codec.PayloadCodec;
+import ca.bc.gov.educ.api.macro.constants.PayloadCompression;
+import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cpu cost of the {@link PayloadCodec} per payload, for a typical macro and for a macro with a long text.
+ * The storedBytes counter is the size written to the LOB column per encode, compare it between the codecs for the storage and LOB i/o saved,
+ * a LOB under about 4k is stored inline in the row by oracle, so the saving is largest for the payloads pushed back under that size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadCodecBenchmark {
+
+  @Param({"NONE", "DEFLATE"})
+  public PayloadCompression compression;
+
+  @Param({"1", "6"})
+  public int level;
+
+  @Param({"1", "40"})
+  public int macroTextRepeat;
+
+  private PayloadCodec codec;
+
+  private byte[] payload;
+
+  private byte[] stored;
+
+  /**
+   * The size written to the LOB column, reported per operation.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class StoredBytes {
+    public long storedBytes;
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    final var macro = new Macro();
+    macro.setMacroId(UUID.randomUUID().toString());
+    macro.setBusinessUseTypeCode("PENREG");
+    macro.setMacroTypeCode("MERGE");
+    macro.setMacroCode("hi");
+    macro.setMacroText("Surname and given name appear to be entered backwards, If correct, please confirm by sending legal documents. ".repeat(this.macroTextRepeat));
+    macro.setCreateUser("user");
+    macro.setUpdateUser("user");
+    this.payload = JsonUtil.getJsonStringFromObject(macro).getBytes(StandardCharsets.UTF_8);
+    this.codec = new PayloadCodec(this.compression, 0, this.level);
+    this.stored = this.codec.encode(this.payload);
+  }
+
+  @Benchmark
+  public byte[] encode(final StoredBytes counter) {
+    final byte[] encoded = this.codec.encode(this.payload);
+    counter.storedBytes += encoded.length;
+    return encoded;
+  }
+
+  @Benchmark
+  public byte[] decode() {
+    return this.codec.decode(this.stored);
+  }
+}
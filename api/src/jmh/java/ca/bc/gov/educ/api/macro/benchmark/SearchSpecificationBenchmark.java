@@ -0,0 +1,72 @@
+package ca.bc.gov.educ.api.macro.benchmark;
+
+import ca.bc.gov.educ.api.macro.controller.v1.PaginatedController;
+import ca.bc.gov.educ.api.macro.filter.Associations;
+import ca.bc.gov.educ.api.macro.filter.Converters;
+import ca.bc.gov.educ.api.macro.filter.FilterSpecifications;
+import ca.bc.gov.educ.api.macro.filter.SagaFilterSpecs;
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.struct.v1.Search;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the JPA specification for the saga search endpoint from the sort and search criteria json, the same way {@link ca.bc.gov.educ.api.macro.controller.v1.MacroAPIController#findAllSagas} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchSpecificationBenchmark {
+
+  private static final String SORT_CRITERIA_JSON = "{\"createDate\":\"DESC\",\"sagaName\":\"ASC\"}";
+
+  private static final String SEARCH_CRITERIA_JSON = "[{\"condition\":null,\"searchCriteriaList\":["
+      + "{\"key\":\"sagaName\",\"operation\":\"eq\",\"value\":\"MACRO_CREATE_SAGA\",\"valueType\":\"STRING\",\"condition\":\"AND\"},"
+      + "{\"key\":\"status\",\"operation\":\"in\",\"value\":\"IN_PROGRESS,STARTED\",\"valueType\":\"STRING\",\"condition\":\"AND\"},"
+      + "{\"key\":\"retryCount\",\"operation\":\"gte\",\"value\":\"1\",\"valueType\":\"INTEGER\",\"condition\":\"AND\"}]},"
+      + "{\"condition\":\"OR\",\"searchCriteriaList\":["
+      + "{\"key\":\"createDate\",\"operation\":\"gte\",\"value\":\"2021-01-01T00:00:00\",\"valueType\":\"DATE_TIME\",\"condition\":\"AND\"},"
+      + "{\"key\":\"macroId\",\"operation\":\"eq\",\"value\":\"7f000101-7151-1d84-8171-5187006c0000\",\"valueType\":\"UUID\",\"condition\":\"OR\"}]}]";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private PaginatedController paginatedController;
+
+  private SagaFilterSpecs sagaFilterSpecs;
+
+  @Setup
+  public void setup() {
+    final var converters = new Converters();
+    converters.init();
+    this.sagaFilterSpecs = new SagaFilterSpecs(new FilterSpecifications<>(), new FilterSpecifications<>(), new FilterSpecifications<>(),
+        new FilterSpecifications<>(), new FilterSpecifications<>(), new FilterSpecifications<>(), converters);
+    this.paginatedController = new PaginatedController();
+  }
+
+  @Benchmark
+  public Specification<Saga> buildSagaSpecification() throws IOException {
+    final List<Sort.Order> sorts = new ArrayList<>();
+    final Associations associationNames = this.paginatedController.getSortCriteria(SORT_CRITERIA_JSON, this.objectMapper, sorts);
+    final List<Search> searches = this.objectMapper.readValue(SEARCH_CRITERIA_JSON, new TypeReference<>() {
+    });
+    this.paginatedController.getAssociationNamesFromSearchCriterias(associationNames, searches);
+    Specification<Saga> sagaEntitySpecification = null;
+    int i = 0;
+    for (final var search : searches) {
+      sagaEntitySpecification = this.paginatedController.getSpecifications(sagaEntitySpecification, i, search, associationNames, this.sagaFilterSpecs);
+      i++;
+    }
+    return sagaEntitySpecification;
+  }
+}
@@ -0,0 +1,101 @@
+package ca.bc.gov.educ.api.macro.benchmark;
+
+import ca.bc.gov.educ.api.macro.model.TimeOrderedUUIDStrategy;
+import org.hibernate.id.uuid.CustomVersionOneStrategy;
+import org.hibernate.id.uuid.StandardRandomStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into a table with a BINARY(16) primary key, as MACRO_SAGA and the other tables are, per id generation strategy and number of pods.
+ * Every iteration starts from a table already holding a million rows. The pods of the CustomVersionOneStrategy are simulated with their own leading
+ * bytes, which hibernate takes from the ip address and the start time of the jvm, so each of them inserts at its own place in the index.
+ * The in memory H2 b-tree stands in for the oracle index here, the block splits and the buffer cache churn of oracle come on top of this.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UUIDStrategyBenchmark {
+
+  private static final int EXISTING_ROWS = 1_000_000;
+
+  private static final int BATCH_SIZE = 100;
+
+  @Param({"CUSTOM_VERSION_ONE", "RANDOM", "TIME_ORDERED"})
+  public String strategy;
+
+  @Param({"1", "4"})
+  public int pods;
+
+  private long[] podMostSigBits;
+
+  private int nextPod;
+
+  private Connection connection;
+
+  private PreparedStatement insert;
+
+  @Setup(Level.Iteration)
+  public void setup() throws SQLException {
+    final long mostSigBits = new CustomVersionOneStrategy().getMostSignificantBits();
+    this.podMostSigBits = new long[this.pods];
+    this.podMostSigBits[0] = mostSigBits;
+    for (int i = 1; i < this.pods; i++) {
+      this.podMostSigBits[i] = (ThreadLocalRandom.current().nextLong() & ~0xF000L) | (mostSigBits & 0xF000L);
+    }
+    this.connection = DriverManager.getConnection("jdbc:h2:mem:uuid_benchmark");
+    try (final var statement = this.connection.createStatement()) {
+      statement.execute("CREATE TABLE MACRO_SAGA (SAGA_ID BINARY(16) PRIMARY KEY, SAGA_NAME VARCHAR(50))");
+    }
+    this.insert = this.connection.prepareStatement("INSERT INTO MACRO_SAGA (SAGA_ID, SAGA_NAME) VALUES (?, 'MACRO_CREATE_SAGA')");
+    for (int i = 0; i < EXISTING_ROWS / BATCH_SIZE; i++) {
+      this.insertBatch();
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws SQLException {
+    this.insert.close();
+    try (final var statement = this.connection.createStatement()) {
+      statement.execute("DROP TABLE MACRO_SAGA");
+    }
+    this.connection.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public int[] insertBatch() throws SQLException {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      this.insert.setBytes(1, bytes(this.generate()));
+      this.insert.addBatch();
+    }
+    return this.insert.executeBatch();
+  }
+
+  @Benchmark
+  public UUID generate() {
+    return switch (this.strategy) {
+      case "CUSTOM_VERSION_ONE" -> {
+        this.nextPod = (this.nextPod + 1) % this.pods;
+        yield new UUID(this.podMostSigBits[this.nextPod], CustomVersionOneStrategy.generateLeastSignificantBits(System.currentTimeMillis()));
+      }
+      case "RANDOM" -> StandardRandomStrategy.INSTANCE.generateUUID(null);
+      default -> TimeOrderedUUIDStrategy.generate();
+    };
+  }
+
+  private static byte[] bytes(final UUID uuid) {
+    return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+  }
+}
@@ -0,0 +1,58 @@
+package ca.bc.gov.educ.api.macro.orchestrator.base;
+
+import ca.bc.gov.educ.api.macro.constants.EventOutcome;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.orchestrator.CreateMacroOrchestrator;
+import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step lookups done by {@link BaseOrchestrator} for every saga message, served from the transition table compiled once the saga is defined.
+ * Run with -prof gc to check that the lookups allocate nothing.
+ * Lives in the orchestrator base package so the protected methods can be called directly, the orchestrator has no collaborators as none of them are touched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrchestratorBenchmark {
+
+  private BaseOrchestrator<Macro> orchestrator;
+
+  private Macro macro;
+
+  private Saga saga;
+
+  @Setup
+  public void setup() {
+    this.orchestrator = new CreateMacroOrchestrator(null, null, null, null, null);
+    this.macro = new Macro();
+    this.saga = Saga.builder().sagaState(EventType.CREATE_MACRO.toString()).build();
+  }
+
+  @Benchmark
+  public Optional<SagaEventState<Macro>> findNextSagaEventState_firstStep() {
+    return this.orchestrator.findNextSagaEventState(EventType.INITIATED, EventOutcome.INITIATE_SUCCESS, this.macro);
+  }
+
+  @Benchmark
+  public Optional<SagaEventState<Macro>> findNextSagaEventState_lastStep() {
+    return this.orchestrator.findNextSagaEventState(EventType.NOTIFY_MACRO_CREATE, EventOutcome.NOTIFIED, this.macro);
+  }
+
+  @Benchmark
+  public boolean isNotProcessedEvent() {
+    return this.orchestrator.isNotProcessedEvent(EventType.NOTIFY_MACRO_CREATE, this.saga);
+  }
+
+  @Benchmark
+  public Optional<SagaEventState<Macro>> findNextSagaEventState_undefinedOutcome() {
+    return this.orchestrator.findNextSagaEventState(EventType.CREATE_MACRO, EventOutcome.NOTIFIED, this.macro);
+  }
+}
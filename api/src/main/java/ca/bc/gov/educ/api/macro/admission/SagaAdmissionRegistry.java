@@ -0,0 +1,104 @@
+package ca.bc.gov.educ.api.macro.admission;
+
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.service.SagaService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * In memory registry of the macros which have a saga started from this pod.
+ * It is only a fast path, the MACRO_SAGA_ADMISSION primary key is what rejects a second saga for the same macro across pods. Entries are released when
+ * the saga completes, the release is broadcast over NATS as the saga may complete on another pod. That broadcast can be lost, and a saga can be force
+ * stopped outside of the api, so a macro found in the registry is only rejected once the database confirms a saga in flight holds its admission.
+ */
+@Component
+@Slf4j
+public class SagaAdmissionRegistry {
+  /**
+   * The Message publisher.
+   */
+  @Getter(PRIVATE)
+  private final MessagePublisher messagePublisher;
+  /**
+   * The Saga service.
+   */
+  @Getter(PRIVATE)
+  private final SagaService sagaService;
+  /**
+   * The macros with a saga in flight, the expiry is only a safety net in case a release message is lost, the database still guards after it.
+   */
+  private final Cache<UUID, Boolean> activeMacros;
+
+  /**
+   * Instantiates a new Saga admission registry.
+   *
+   * @param messagePublisher        the message publisher
+   * @param sagaService             the saga service
+   * @param expireAfterWriteMinutes the expiry of an entry
+   */
+  @Autowired
+  public SagaAdmissionRegistry(final MessagePublisher messagePublisher, final SagaService sagaService,
+                               @Value("${macro.saga.admission.expire.after.write.minutes}") final long expireAfterWriteMinutes) {
+    this.messagePublisher = messagePublisher;
+    this.sagaService = sagaService;
+    this.activeMacros = CacheBuilder.newBuilder().expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes)).build();
+  }
+
+  /**
+   * Try to admit a saga for the macro on this pod. When the macro is already in the registry, the database is asked whether a saga in flight still
+   * holds its admission, if not the entry is stale and the saga is admitted, the insert of its admission still guards against the other pods.
+   *
+   * @param macroId the macro id
+   * @return false if a saga in flight holds the admission of the macro
+   */
+  public boolean tryAdmit(final UUID macroId) {
+    if (this.activeMacros.asMap().putIfAbsent(macroId, Boolean.TRUE) == null) {
+      return true;
+    }
+    if (this.getSagaService().isAdmissionHeldBySagaInFlight(macroId)) {
+      return false;
+    }
+    log.info("saga admission of macro :: {} was not released on this pod, the saga holding it is no longer in flight", macroId);
+    this.activeMacros.put(macroId, Boolean.TRUE);
+    return true;
+  }
+
+  /**
+   * Release the macro on this pod.
+   *
+   * @param macroId the macro id, nothing is done when it is null
+   */
+  public void release(final UUID macroId) {
+    if (macroId != null) {
+      this.activeMacros.invalidate(macroId);
+    }
+  }
+
+  /**
+   * Release the macro once the saga completion has committed, and tell the other pods to do the same.
+   *
+   * @param event the saga admission released event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onSagaAdmissionReleased(final SagaAdmissionReleasedEvent event) {
+    this.release(event.getMacroId());
+    try {
+      this.getMessagePublisher().dispatchMessage(TopicsEnum.MACRO_SAGA_ADMISSION_RELEASE_TOPIC.toString(), event.getMacroId().toString().getBytes(StandardCharsets.UTF_8));
+    } catch (final Exception e) {
+      log.error("Exception while broadcasting saga admission release for macro :: {}", event.getMacroId(), e);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package ca.bc.gov.educ.api.macro.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * The type Saga admission released event, published in process when a saga holding a macro completes.
+ */
+@Getter
+@AllArgsConstructor
+public class SagaAdmissionReleasedEvent {
+  /**
+   * The id of the macro which is free for a new saga.
+   */
+  private final UUID macroId;
+}
@@ -0,0 +1,203 @@
+package ca.bc.gov.educ.api.macro.cache;
+
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.model.MacroEntity;
+import ca.bc.gov.educ.api.macro.repository.MacroRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Read through, size bounded cache of the macro catalog.
+ * Entries are dropped after a macro create/update commits, and the change is broadcast over NATS so that every pod drops its entries as well.
+ */
+@Component
+@Slf4j
+public class MacroCatalogCache {
+  /**
+   * The separator used for building composite keys.
+   */
+  private static final String KEY_SEPARATOR = "|";
+  /**
+   * The Macro repository.
+   */
+  @Getter(PRIVATE)
+  private final MacroRepository macroRepository;
+  /**
+   * The Message publisher.
+   */
+  @Getter(PRIVATE)
+  private final MessagePublisher messagePublisher;
+  /**
+   * The Entity manager factory, whose second level cache regions of the macros are dropped along with the entries here.
+   */
+  @Getter(PRIVATE)
+  private final EntityManagerFactory entityManagerFactory;
+  /**
+   * The macros keyed by business use type code and macro type code.
+   */
+  private final Cache<String, List<MacroEntity>> macrosByTypeCodes;
+  /**
+   * The macros keyed by macro id.
+   */
+  private final Cache<UUID, MacroEntity> macrosById;
+  /**
+   * Incremented on every invalidation, so that a load which raced with an invalidation is not put back into the cache.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Instantiates a new Macro catalog cache.
+   *
+   * @param macroRepository         the macro repository
+   * @param messagePublisher        the message publisher
+   * @param entityManagerFactory    the entity manager factory
+   * @param maximumSize             the maximum number of entries per cache
+   * @param expireAfterWriteMinutes the safety net expiry, in case an invalidation message is lost
+   */
+  @Autowired
+  public MacroCatalogCache(final MacroRepository macroRepository, final MessagePublisher messagePublisher, final EntityManagerFactory entityManagerFactory,
+                           @Value("${macro.catalog.cache.maximum.size}") final long maximumSize,
+                           @Value("${macro.catalog.cache.expire.after.write.minutes}") final long expireAfterWriteMinutes) {
+    this.macroRepository = macroRepository;
+    this.messagePublisher = messagePublisher;
+    this.entityManagerFactory = entityManagerFactory;
+    this.macrosByTypeCodes = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes)).build();
+    this.macrosById = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes)).build();
+  }
+
+  /**
+   * Populate the cache with the whole catalog once the application is ready.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    val currentGeneration = this.generation.get();
+    val macros = this.getMacroRepository().findAll();
+    if (currentGeneration != this.generation.get()) {
+      return;
+    }
+    macros.forEach(macro -> this.macrosById.put(macro.getMacroId(), macro));
+    macros.stream().collect(Collectors.groupingBy(MacroEntity::getBusinessUseTypeCode))
+      .forEach((businessUseTypeCode, entities) -> this.macrosByTypeCodes.put(key(businessUseTypeCode), List.copyOf(entities)));
+    macros.stream().collect(Collectors.groupingBy(macro -> key(macro.getBusinessUseTypeCode(), macro.getMacroTypeCode())))
+      .forEach((key, entities) -> this.macrosByTypeCodes.put(key, List.copyOf(entities)));
+    log.info("macro catalog cache populated with {} macros", macros.size());
+  }
+
+  /**
+   * Find macros by business use type code.
+   *
+   * @param businessUseTypeCode the business use type code
+   * @return the list
+   */
+  public List<MacroEntity> findMacrosByBusinessUseTypeCode(final String businessUseTypeCode) {
+    return this.getOrLoad(key(businessUseTypeCode), () -> this.getMacroRepository().findAllByBusinessUseTypeCode(businessUseTypeCode));
+  }
+
+  /**
+   * Find macros by business use type code and macro type code.
+   *
+   * @param businessUseTypeCode the business use type code
+   * @param macroTypeCode       the macro type code
+   * @return the list
+   */
+  public List<MacroEntity> findMacrosByBusinessUseTypeCodeAndMacroTypeCode(final String businessUseTypeCode, final String macroTypeCode) {
+    return this.getOrLoad(key(businessUseTypeCode, macroTypeCode), () -> this.getMacroRepository().findAllByBusinessUseTypeCodeAndMacroTypeCode(businessUseTypeCode, macroTypeCode));
+  }
+
+  /**
+   * Find macros by business use type codes.
+   *
+   * @param businessUseTypeCodes the business use type codes
+   * @return the list
+   */
+  public List<MacroEntity> findMacrosByBusinessUseTypeCodeIn(final Collection<String> businessUseTypeCodes) {
+    val key = "IN" + KEY_SEPARATOR + new TreeSet<>(businessUseTypeCodes);
+    return this.getOrLoad(key, () -> this.getMacroRepository().findAllByBusinessUseTypeCodeIn(businessUseTypeCodes));
+  }
+
+  /**
+   * Gets macro by id.
+   *
+   * @param macroId the macro id
+   * @return the macro
+   */
+  public Optional<MacroEntity> getMacro(final UUID macroId) {
+    val cached = this.macrosById.getIfPresent(macroId);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    val currentGeneration = this.generation.get();
+    val result = this.getMacroRepository().findById(macroId);
+    if (result.isPresent() && currentGeneration == this.generation.get()) {
+      this.macrosById.put(macroId, result.get());
+    }
+    return result;
+  }
+
+  /**
+   * Drop the local entries once a macro create or update has committed, and tell the other pods to do the same.
+   *
+   * @param event the macro catalog changed event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMacroCatalogChanged(final MacroCatalogChangedEvent event) {
+    this.invalidateAll();
+    val payload = event.getMacroId() == null ? new byte[0] : event.getMacroId().toString().getBytes(StandardCharsets.UTF_8);
+    try {
+      this.getMessagePublisher().dispatchMessage(TopicsEnum.MACRO_CATALOG_INVALIDATION_TOPIC.toString(), payload);
+    } catch (final Exception e) {
+      log.error("Exception while broadcasting macro catalog invalidation for macro :: {}", event.getMacroId(), e);
+    }
+  }
+
+  /**
+   * Drop every local entry, the next read goes to the database. The second level cache of the macros, if enabled, is dropped as well: hibernate
+   * only drops it on the writes of this pod, a change made by another pod reaches this one through here.
+   */
+  public void invalidateAll() {
+    this.generation.incrementAndGet();
+    this.macrosByTypeCodes.invalidateAll();
+    this.macrosById.invalidateAll();
+    val secondLevelCache = this.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+    secondLevelCache.evictEntityData(MacroEntity.class);
+    secondLevelCache.evictQueryRegion(MacroEntity.QUERY_CACHE_REGION);
+  }
+
+  private List<MacroEntity> getOrLoad(final String key, final Supplier<List<MacroEntity>> loader) {
+    val cached = this.macrosByTypeCodes.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    val currentGeneration = this.generation.get();
+    final List<MacroEntity> result = List.copyOf(loader.get());
+    if (currentGeneration == this.generation.get()) {
+      this.macrosByTypeCodes.put(key, result);
+    }
+    return result;
+  }
+
+  private static String key(final String... codes) {
+    return String.join(KEY_SEPARATOR, codes);
+  }
+}
@@ -0,0 +1,18 @@
+package ca.bc.gov.educ.api.macro.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * The type Macro catalog changed event, published in process whenever a macro is created or updated.
+ */
+@Getter
+@AllArgsConstructor
+public class MacroCatalogChangedEvent {
+  /**
+   * The id of the macro which was created or updated.
+   */
+  private final UUID macroId;
+}
@@ -0,0 +1,134 @@
+package ca.bc.gov.educ.api.macro.codec;
+
+import ca.bc.gov.educ.api.macro.constants.PayloadCompression;
+import ca.bc.gov.educ.api.macro.exception.MacroAPIRuntimeException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes the payload LOBs of the saga, saga event and macro event tables.
+ * A compressed payload starts with a format header byte below 0x09, which no json text starts with, so a payload without a header is raw json,
+ * as every row written before the codec is. Payloads under the threshold, or which do not get smaller, are stored raw.
+ * Format 0x02 is kept for an LZ4 block format.
+ */
+@Component
+@Slf4j
+public class PayloadCodec {
+
+  /**
+   * The header byte of a deflated payload.
+   */
+  public static final byte DEFLATE_FORMAT = 0x01;
+
+  /**
+   * The compression of the payloads written.
+   */
+  @Getter
+  private final PayloadCompression compression;
+
+  /**
+   * The size from which a payload is compressed.
+   */
+  @Getter
+  private final int thresholdInBytes;
+
+  /**
+   * The deflate level, 1 to 9.
+   */
+  @Getter
+  private final int level;
+
+  /**
+   * Instantiates a new Payload codec.
+   *
+   * @param compression      the compression
+   * @param thresholdInBytes the threshold in bytes
+   * @param level            the deflate level
+   */
+  @Autowired
+  public PayloadCodec(@Value("${macro.payload.compression}") final PayloadCompression compression,
+                      @Value("${macro.payload.compression.threshold.bytes}") final int thresholdInBytes,
+                      @Value("${macro.payload.compression.level}") final int level) {
+    this.compression = compression;
+    this.thresholdInBytes = thresholdInBytes;
+    this.level = level;
+  }
+
+  /**
+   * Encode the payload for storage.
+   *
+   * @param payload the raw payload
+   * @return the stored payload
+   */
+  public byte[] encode(final byte[] payload) {
+    if (payload == null || this.compression == PayloadCompression.NONE || payload.length < this.thresholdInBytes) {
+      return payload;
+    }
+    final byte[] deflated = this.deflate(payload);
+    return deflated.length < payload.length ? deflated : payload;
+  }
+
+  /**
+   * Decode the stored payload.
+   *
+   * @param stored the stored payload
+   * @return the raw payload
+   */
+  public byte[] decode(final byte[] stored) {
+    if (stored == null || stored.length == 0) {
+      return stored;
+    }
+    if (stored[0] == DEFLATE_FORMAT) {
+      return inflate(stored);
+    }
+    return stored;
+  }
+
+  private byte[] deflate(final byte[] payload) {
+    final Deflater deflater = new Deflater(this.level);
+    try {
+      deflater.setInput(payload);
+      deflater.finish();
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+      out.write(DEFLATE_FORMAT);
+      final byte[] buffer = new byte[Math.min(payload.length, 8192)];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(final byte[] stored) {
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(stored, 1, stored.length - 1);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+      final byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        final int inflated = inflater.inflate(buffer);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new DataFormatException("truncated deflate payload");
+        }
+        out.write(buffer, 0, inflated);
+      }
+      return out.toByteArray();
+    } catch (final DataFormatException e) {
+      log.error("could not inflate payload starting with :: {}", Arrays.toString(Arrays.copyOf(stored, Math.min(stored.length, 16))), e);
+      throw new MacroAPIRuntimeException(e.getMessage());
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package ca.bc.gov.educ.api.macro.codec;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Applies the {@link PayloadCodec} to a payload LOB column, hibernate gets it from the spring context so it is configured like the codec.
+ */
+@Converter
+public class PayloadCodecConverter implements AttributeConverter<byte[], byte[]> {
+
+  /**
+   * The Payload codec.
+   */
+  private final PayloadCodec payloadCodec;
+
+  /**
+   * Instantiates a new Payload codec converter.
+   *
+   * @param payloadCodec the payload codec
+   */
+  @Autowired
+  public PayloadCodecConverter(final PayloadCodec payloadCodec) {
+    this.payloadCodec = payloadCodec;
+  }
+
+  @Override
+  public byte[] convertToDatabaseColumn(final byte[] attribute) {
+    return this.payloadCodec.encode(attribute);
+  }
+
+  @Override
+  public byte[] convertToEntityAttribute(final byte[] dbData) {
+    return this.payloadCodec.decode(dbData);
+  }
+}
@@ -2,14 +2,13 @@ package ca.bc.gov.educ.api.macro.config;
 
 import ca.bc.gov.educ.api.macro.util.ThreadFactoryBuilder;
 import lombok.val;
-import org.jboss.threads.EnhancedQueueExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
-import java.time.Duration;
 import java.util.concurrent.Executor;
 
 /**
@@ -22,29 +21,37 @@ public class AsyncConfiguration {
   /**
    * Thread pool task executor executor.
    *
+   * @param executorFactory the executor factory
+   * @param poolSize        the pool size in PLATFORM mode
    * @return the executor
    */
   @Bean(name = "subscriberExecutor")
-  public Executor threadPoolTaskExecutor() {
-    return new EnhancedQueueExecutor.Builder().setThreadFactory(new ThreadFactoryBuilder().withNameFormat("message-subscriber-%d").get())
-        .setCorePoolSize(10)
-        .setMaximumPoolSize(10)
-        .setKeepAliveTime(Duration.ofSeconds(60))
-        .build();
+  public Executor threadPoolTaskExecutor(final ExecutorFactory executorFactory, @Value("${executor.subscriber.pool.size}") final int poolSize) {
+    return executorFactory.boundedExecutor("subscriberExecutor", "message-subscriber-%d", poolSize);
   }
 
   /**
    * Controller task executor executor.
    *
+   * @param executorFactory the executor factory
+   * @param poolSize        the pool size in PLATFORM mode
    * @return the executor
    */
   @Bean(name = "taskExecutor")
-  public Executor controllerTaskExecutor() {
-    return new EnhancedQueueExecutor.Builder().setThreadFactory(new ThreadFactoryBuilder().withNameFormat("async-executor-%d").get())
-      .setCorePoolSize(10)
-      .setMaximumPoolSize(10)
-      .setKeepAliveTime(Duration.ofSeconds(60))
-      .build();
+  public Executor controllerTaskExecutor(final ExecutorFactory executorFactory, @Value("${executor.task.pool.size}") final int poolSize) {
+    return executorFactory.boundedExecutor("taskExecutor", "async-executor-%d", poolSize);
+  }
+
+  /**
+   * Outbox relay executor, the event handlers hand the responses they just committed to it.
+   *
+   * @param executorFactory the executor factory
+   * @param poolSize        the pool size in PLATFORM mode
+   * @return the executor
+   */
+  @Bean(name = "outboxRelayExecutor")
+  public Executor outboxRelayExecutor(final ExecutorFactory executorFactory, @Value("${executor.outbox.relay.pool.size}") final int poolSize) {
+    return executorFactory.boundedExecutor("outboxRelayExecutor", "outbox-relay-%d", poolSize);
   }
 
   @Bean
@@ -0,0 +1,128 @@
+package ca.bc.gov.educ.api.macro.config;
+
+import ca.bc.gov.educ.api.macro.constants.ExecutorMode;
+import ca.bc.gov.educ.api.macro.util.BoundedExecutor;
+import ca.bc.gov.educ.api.macro.util.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.jboss.threads.EnhancedQueueExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Builds the executors of the api for the configured {@link ExecutorMode}.
+ * In VIRTUAL mode every task gets its own virtual thread when the runtime supports them, and the number of tasks running at the same time across all
+ * the bounded executors is bounded by the database connection pool size, as nearly every task needs a connection. Without virtual threads, on java 17,
+ * VIRTUAL mode falls back to fixed pools of platform threads, so that the tasks waiting for a permit do not each hold on to a platform thread.
+ */
+@Component
+@Slf4j
+public class ExecutorFactory {
+
+  /**
+   * The Meter registry.
+   */
+  @Getter(PRIVATE)
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * The Executor mode.
+   */
+  @Getter
+  private final ExecutorMode executorMode;
+
+  /**
+   * The max number of tasks running at the same time across the bounded executors in VIRTUAL mode.
+   */
+  @Getter
+  private final int maxConcurrency;
+
+  /**
+   * The permits shared by the bounded executors in VIRTUAL mode, one per database connection.
+   */
+  @Getter(PRIVATE)
+  private final Semaphore connectionPermits;
+
+  /**
+   * Instantiates a new Executor factory.
+   *
+   * @param meterRegistry  the meter registry
+   * @param executorMode   the executor mode
+   * @param maxConcurrency the hikari maximum pool size
+   */
+  @Autowired
+  public ExecutorFactory(final MeterRegistry meterRegistry, @Value("${executor.mode}") final ExecutorMode executorMode,
+                         @Value("${spring.datasource.hikari.maximum-pool-size}") final int maxConcurrency) {
+    this.meterRegistry = meterRegistry;
+    this.executorMode = executorMode;
+    this.maxConcurrency = maxConcurrency;
+    this.connectionPermits = new Semaphore(maxConcurrency);
+    log.info("executors run in {} mode", executorMode);
+  }
+
+  /**
+   * A metered executor, a fixed pool of poolSize threads in PLATFORM mode, a thread per task in VIRTUAL mode, bounded together with the other bounded
+   * executors by the connection pool size.
+   *
+   * @param name       the executor name
+   * @param nameFormat the thread name format
+   * @param poolSize   the pool size in PLATFORM mode
+   * @return the executor
+   */
+  public BoundedExecutor boundedExecutor(final String name, final String nameFormat, final int poolSize) {
+    if (this.getExecutorMode() == ExecutorMode.VIRTUAL) {
+      val delegate = this.virtualThreadPerTaskExecutor(nameFormat).orElseGet(() -> this.fixedExecutor(nameFormat, this.getMaxConcurrency(), this.getMaxConcurrency()));
+      return new BoundedExecutor(name, delegate, this.getConnectionPermits(), this.getMeterRegistry());
+    }
+    return new BoundedExecutor(name, this.fixedExecutor(nameFormat, poolSize, poolSize), poolSize, this.getMeterRegistry());
+  }
+
+  /**
+   * The executor of the NATS connection, not bounded as the NATS dispatchers hold on to their thread.
+   *
+   * @param nameFormat      the thread name format
+   * @param corePoolSize    the core pool size in PLATFORM mode
+   * @param maximumPoolSize the maximum pool size in PLATFORM mode
+   * @return the executor service
+   */
+  public ExecutorService natsExecutor(final String nameFormat, final int corePoolSize, final int maximumPoolSize) {
+    if (this.getExecutorMode() == ExecutorMode.VIRTUAL) {
+      return this.virtualThreadPerTaskExecutor(nameFormat).orElseGet(() -> this.fixedExecutor(nameFormat, corePoolSize, maximumPoolSize));
+    }
+    return this.fixedExecutor(nameFormat, corePoolSize, maximumPoolSize);
+  }
+
+  private ExecutorService fixedExecutor(final String nameFormat, final int corePoolSize, final int maximumPoolSize) {
+    return new EnhancedQueueExecutor.Builder().setThreadFactory(new ThreadFactoryBuilder().withNameFormat(nameFormat).get())
+        .setCorePoolSize(corePoolSize)
+        .setMaximumPoolSize(maximumPoolSize)
+        .setKeepAliveTime(Duration.ofSeconds(60))
+        .build();
+  }
+
+  /**
+   * Executors.newVirtualThreadPerTaskExecutor is looked up at runtime so the api still builds for java 17, where it is empty.
+   *
+   * @param nameFormat the thread name format of the fallback pool
+   * @return the executor service
+   */
+  private Optional<ExecutorService> virtualThreadPerTaskExecutor(final String nameFormat) {
+    try {
+      return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+    } catch (final ReflectiveOperationException e) {
+      log.warn("virtual threads are not available on this runtime, using a fixed thread pool for {}", nameFormat);
+      return Optional.empty();
+    }
+  }
+}
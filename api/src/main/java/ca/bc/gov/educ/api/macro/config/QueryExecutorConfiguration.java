@@ -0,0 +1,26 @@
+package ca.bc.gov.educ.api.macro.config;
+
+import ca.bc.gov.educ.api.macro.util.BoundedExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The executor of the saga search queries, kept apart from the async executors so that it is there in every profile and a burst of searches only
+ * queues behind other searches, never behind message handling or on the common fork join pool.
+ */
+@Configuration
+public class QueryExecutorConfiguration {
+
+  /**
+   * Query executor.
+   *
+   * @param executorFactory the executor factory
+   * @param poolSize        the pool size in PLATFORM mode
+   * @return the executor
+   */
+  @Bean(name = "queryExecutor", destroyMethod = "shutdown")
+  public BoundedExecutor queryExecutor(final ExecutorFactory executorFactory, @Value("${executor.query.pool.size}") final int poolSize) {
+    return executorFactory.boundedExecutor("queryExecutor", "saga-query-%d", poolSize);
+  }
+}
@@ -0,0 +1,75 @@
+package ca.bc.gov.educ.api.macro.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * The data source of the api when a read replica is configured, in place of the one of spring boot. The read only transactions, the saga searches
+ * and the other GET endpoints which are read only, use the replica pool, everything else the primary pool.
+ * The primary pool is set up from the spring.datasource properties as spring boot does, the replica pool from the spring.datasource.replica ones.
+ * The pools are not beans of their own, so that the health of the api does not depend on the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "macro.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+  /**
+   * The replica routing data source.
+   *
+   * @param dataSourceProperties the spring.datasource properties
+   * @param environment          the environment
+   * @param meterRegistry        the meter registry
+   * @param lagQuery             the query run on the replica to find its lag in seconds
+   * @param maxLagSeconds        the lag in seconds above which the read only transactions go to the primary
+   * @return the replica routing data source
+   */
+  @Bean(destroyMethod = "close")
+  public ReplicaRoutingDataSource replicaRoutingDataSource(final DataSourceProperties dataSourceProperties, final Environment environment, final MeterRegistry meterRegistry,
+                                                           @Value("${macro.datasource.replica.lag.query}") final String lagQuery,
+                                                           @Value("${macro.datasource.replica.max.lag.seconds}") final long maxLagSeconds) {
+    val binder = Binder.get(environment);
+    val replicaProperties = binder.bind("spring.datasource.replica", DataSourceProperties.class)
+      .orElseThrow(() -> new IllegalStateException("spring.datasource.replica is not configured"));
+    if (StringUtils.isBlank(replicaProperties.getUrl())) {
+      throw new IllegalStateException("spring.datasource.replica.url is not configured");
+    }
+    val primary = pool(dataSourceProperties, binder, "spring.datasource.hikari", "macro-primary", meterRegistry);
+    val replica = pool(replicaProperties, binder, "spring.datasource.replica.hikari", "macro-replica", meterRegistry);
+    return new ReplicaRoutingDataSource(primary, replica, lagQuery, maxLagSeconds, meterRegistry);
+  }
+
+  /**
+   * The data source of jpa, flyway and shedlock, the connection is fetched on the first statement of the transaction, once it is known to be read only.
+   *
+   * @param replicaRoutingDataSource the replica routing data source
+   * @return the data source
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+  private static HikariDataSource pool(final DataSourceProperties properties, final Binder binder, final String hikariPrefix, final String poolName, final MeterRegistry meterRegistry) {
+    val pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+    pool.setPoolName(poolName);
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    return pool;
+  }
+}
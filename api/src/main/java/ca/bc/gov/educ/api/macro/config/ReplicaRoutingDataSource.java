@@ -0,0 +1,156 @@
+package ca.bc.gov.educ.api.macro.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Hands out the connections of the replica pool to the read only transactions and the connections of the primary pool to everything else.
+ * The replica is only used while the last lag check found it within the max lag, and until the next check once getting one of its connections
+ * failed, the read only transactions go to the primary meanwhile. The replica is not used before the first check.
+ * It is meant to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so that the connection is only fetched
+ * once the transaction has been marked read only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+  /**
+   * The Primary pool.
+   */
+  @Getter(PRIVATE)
+  private final HikariDataSource primary;
+  /**
+   * The Replica pool.
+   */
+  @Getter(PRIVATE)
+  private final HikariDataSource replica;
+  /**
+   * The query run on the replica to find its lag, it returns the lag in seconds.
+   */
+  @Getter(PRIVATE)
+  private final String lagQuery;
+  /**
+   * The lag in seconds above which the read only transactions go to the primary.
+   */
+  @Getter(PRIVATE)
+  private final long maxLagSeconds;
+  /**
+   * The connections of the read write transactions.
+   */
+  private final Counter primaryConnections;
+  /**
+   * The connections of the read only transactions on the replica.
+   */
+  private final Counter replicaConnections;
+  /**
+   * The connections of the read only transactions which went to the primary as the replica was lagging or unavailable.
+   */
+  private final Counter fallbackConnections;
+  /**
+   * The lag of the replica found by the last check in seconds, NaN if the check failed.
+   */
+  private volatile double lagSeconds = Double.NaN;
+  /**
+   * Whether the read only transactions go to the replica.
+   */
+  private volatile boolean replicaRoutable;
+
+  /**
+   * Instantiates a new Replica routing data source.
+   *
+   * @param primary       the primary pool
+   * @param replica       the replica pool
+   * @param lagQuery      the lag query
+   * @param maxLagSeconds the max lag seconds
+   * @param meterRegistry the meter registry
+   */
+  public ReplicaRoutingDataSource(final HikariDataSource primary, final HikariDataSource replica, final String lagQuery, final long maxLagSeconds, final MeterRegistry meterRegistry) {
+    this.primary = primary;
+    this.replica = replica;
+    this.lagQuery = lagQuery;
+    this.maxLagSeconds = maxLagSeconds;
+    this.primaryConnections = connectionCounter(meterRegistry, "primary", false);
+    this.replicaConnections = connectionCounter(meterRegistry, "replica", true);
+    this.fallbackConnections = connectionCounter(meterRegistry, "primary", true);
+    Gauge.builder("macro.datasource.replica.lag", this, dataSource -> dataSource.lagSeconds).baseUnit("seconds")
+      .description("The lag of the replica found by the last check, NaN if the check failed").register(meterRegistry);
+    Gauge.builder("macro.datasource.replica.routable", this, dataSource -> dataSource.replicaRoutable ? 1 : 0)
+      .description("Whether the read only transactions go to the replica").register(meterRegistry);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      this.primaryConnections.increment();
+      return this.getPrimary().getConnection();
+    }
+    if (this.replicaRoutable) {
+      try {
+        val connection = this.getReplica().getConnection();
+        this.replicaConnections.increment();
+        return connection;
+      } catch (final SQLException e) {
+        log.warn("Could not get a connection of the replica, the read only transactions go to the primary until the next lag check", e);
+        this.replicaRoutable = false;
+      }
+    }
+    this.fallbackConnections.increment();
+    return this.getPrimary().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("the pools are set up with their own credentials");
+  }
+
+  /**
+   * Run the lag query on the replica, the read only transactions go to the replica if it returns a lag within the max lag, to the primary otherwise.
+   */
+  public void checkReplicaLag() {
+    double lag;
+    try (val connection = this.getReplica().getConnection(); val statement = connection.createStatement()) {
+      statement.setQueryTimeout((int) Math.max(1, this.getMaxLagSeconds()));
+      try (val resultSet = statement.executeQuery(this.getLagQuery())) {
+        lag = resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+        if (resultSet.wasNull()) {
+          lag = Double.NaN;
+        }
+      }
+    } catch (final SQLException e) {
+      log.warn("Replica lag check failed :: {}", e.getMessage());
+      lag = Double.NaN;
+    }
+    this.lagSeconds = lag;
+    final boolean routable = !Double.isNaN(lag) && lag <= this.getMaxLagSeconds();
+    if (routable != this.replicaRoutable) {
+      log.info("Replica lag is {} seconds, max is {} seconds, the read only transactions now go to the {}", lag, this.getMaxLagSeconds(), routable ? "replica" : "primary");
+    }
+    this.replicaRoutable = routable;
+  }
+
+  /**
+   * Close both pools.
+   */
+  @Override
+  public void close() {
+    this.getReplica().close();
+    this.getPrimary().close();
+  }
+
+  private static Counter connectionCounter(final MeterRegistry meterRegistry, final String pool, final boolean readOnly) {
+    return Counter.builder("macro.datasource.connections").tag("pool", pool).tag("read.only", String.valueOf(readOnly))
+      .description("The connections handed out, by pool and by whether the transaction was read only").register(meterRegistry);
+  }
+}
@@ -4,6 +4,7 @@ import ca.bc.gov.educ.api.macro.helpers.LogHelper;
 import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.slf4j.MDC;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.AsyncHandlerInterceptor;
@@ -23,9 +24,25 @@ public class RequestResponseInterceptor implements AsyncHandlerInterceptor {
       final long startTime = Instant.now().toEpochMilli();
       request.setAttribute("startTime", startTime);
     }
+    val correlationID = request.getHeader(ApplicationProperties.CORRELATION_ID);
+    if (correlationID != null) {
+      MDC.put(ApplicationProperties.CORRELATION_ID, correlationID);
+    }
     return true;
   }
 
+  /**
+   * The request thread is released while the async handler runs, its correlation id was copied to the executor running the handler.
+   *
+   * @param request  the request
+   * @param response the response
+   * @param handler  the handler
+   */
+  @Override
+  public void afterConcurrentHandlingStarted(@NonNull final HttpServletRequest request, @NonNull final HttpServletResponse response, @NonNull final Object handler) {
+    MDC.remove(ApplicationProperties.CORRELATION_ID);
+  }
+
   /**
    * After completion.
    *
@@ -41,6 +58,7 @@ public class RequestResponseInterceptor implements AsyncHandlerInterceptor {
     if (correlationID != null) {
       response.setHeader(ApplicationProperties.CORRELATION_ID, request.getHeader(ApplicationProperties.CORRELATION_ID));
     }
+    MDC.remove(ApplicationProperties.CORRELATION_ID);
   }
 
 
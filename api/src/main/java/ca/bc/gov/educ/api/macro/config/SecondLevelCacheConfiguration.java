@@ -0,0 +1,36 @@
+package ca.bc.gov.educ.api.macro.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.val;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The metrics of the hibernate second level cache. The hits, misses and puts of every region as hibernate counts them are bound by spring boot from
+ * the statistics of the session factory, the evictions for size or expiry are only known to the cache provider, so the jcache statistics of every
+ * region are bound here as well.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+  /**
+   * The jcache metrics of the second level cache regions, none when the second level cache is disabled.
+   *
+   * @param entityManagerFactory the entity manager factory
+   * @return the meter binder
+   */
+  @Bean
+  public MeterBinder secondLevelCacheMetrics(final EntityManagerFactory entityManagerFactory) {
+    return registry -> {
+      val regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+      if (regionFactory instanceof JCacheRegionFactory jCacheRegionFactory && jCacheRegionFactory.getCacheManager() != null) {
+        val cacheManager = jCacheRegionFactory.getCacheManager();
+        cacheManager.getCacheNames().forEach(cacheName -> JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName)));
+      }
+    };
+  }
+}
@@ -13,6 +13,10 @@ public enum EventOutcome {
    * Macro created event outcome.
    */
   MACRO_CREATED,
+  /**
+   * Macro already exists event outcome, another macro has the same business use type code, macro type code and macro code.
+   */
+  MACRO_ALREADY_EXISTS,
   /**
    * Macro updated event outcome.
    */
@@ -21,6 +25,10 @@ public enum EventOutcome {
    * Macro not found event outcome.
    */
   MACRO_NOT_FOUND,
+  /**
+   * Macro version conflict event outcome, the macro has been updated since the version of the update was read.
+   */
+  MACRO_VERSION_CONFLICT,
   /**
    * notified event outcome.
    */
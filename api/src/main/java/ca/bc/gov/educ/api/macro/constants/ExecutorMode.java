@@ -0,0 +1,16 @@
+package ca.bc.gov.educ.api.macro.constants;
+
+/**
+ * The enum Executor mode, how the subscriber, task and NATS executors run their work.
+ */
+public enum ExecutorMode {
+  /**
+   * Fixed size platform thread pools.
+   */
+  PLATFORM,
+  /**
+   * A virtual thread per task, fixed size platform thread pools when the runtime has no virtual threads, the tasks of all the executors together are
+   * bounded by the database connection pool size.
+   */
+  VIRTUAL
+}
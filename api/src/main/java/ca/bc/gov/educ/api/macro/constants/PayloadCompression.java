@@ -0,0 +1,15 @@
+package ca.bc.gov.educ.api.macro.constants;
+
+/**
+ * The compression of the payload LOBs written by this api, rows of every format are read whatever the configured one is.
+ */
+public enum PayloadCompression {
+  /**
+   * Payloads are written as the raw json.
+   */
+  NONE,
+  /**
+   * Payloads above the threshold are written deflated behind the {@link ca.bc.gov.educ.api.macro.codec.PayloadCodec#DEFLATE_FORMAT} header byte.
+   */
+  DEFLATE
+}
@@ -22,5 +22,14 @@ public enum TopicsEnum {
   /**
    * Macro update saga topic topics enum.
    */
-  MACRO_UPDATE_SAGA_TOPIC
+  MACRO_UPDATE_SAGA_TOPIC,
+  // Broadcast - every pod receives it
+  /**
+   * Macro catalog invalidation topic topics enum.
+   */
+  MACRO_CATALOG_INVALIDATION_TOPIC,
+  /**
+   * Macro saga admission release topic topics enum.
+   */
+  MACRO_SAGA_ADMISSION_RELEASE_TOPIC
 }
@@ -2,12 +2,16 @@ package ca.bc.gov.educ.api.macro.controller.v1;
 
 import ca.bc.gov.educ.api.macro.endpoint.v1.MacroAPIEndpoint;
 import ca.bc.gov.educ.api.macro.exception.InvalidParameterException;
+import ca.bc.gov.educ.api.macro.filter.Associations;
 import ca.bc.gov.educ.api.macro.filter.SagaFilterSpecs;
+import ca.bc.gov.educ.api.macro.filter.SagaKeysetCursor;
 import ca.bc.gov.educ.api.macro.struct.v1.Saga;
 import ca.bc.gov.educ.api.macro.mapper.SagaMapper;
 import ca.bc.gov.educ.api.macro.service.SagaService;
 import ca.bc.gov.educ.api.macro.struct.v1.SagaEvent;
+import ca.bc.gov.educ.api.macro.struct.v1.SagaSlice;
 import ca.bc.gov.educ.api.macro.struct.v1.Search;
+import ca.bc.gov.educ.api.macro.util.RequestUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -70,7 +74,7 @@ public class MacroAPIController extends PaginatedController implements MacroAPIE
   public ResponseEntity<Saga> readSaga(final UUID sagaID) {
     return this.getSagaService().findSagaById(sagaID)
       .map(sagaMapper::toStruct)
-      .map(ResponseEntity::ok)
+      .map(saga -> ResponseEntity.ok().eTag(String.valueOf(saga.getVersion())).body(saga))
       .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
   }
 
@@ -87,24 +91,70 @@ public class MacroAPIController extends PaginatedController implements MacroAPIE
   public CompletableFuture<Page<Saga>> findAllSagas(final Integer pageNumber, final Integer pageSize, final String sortCriteriaJson, final String searchCriteriaListJson) {
     final ObjectMapper objectMapper = new ObjectMapper();
     final List<Sort.Order> sorts = new ArrayList<>();
-    Specification<ca.bc.gov.educ.api.macro.model.Saga> sagaEntitySpecification = null;
+    final Specification<ca.bc.gov.educ.api.macro.model.Saga> sagaEntitySpecification;
     try {
       final var associationNames = this.getSortCriteria(sortCriteriaJson, objectMapper, sorts);
-      if (StringUtils.isNotBlank(searchCriteriaListJson)) {
-        final List<Search> searches = objectMapper.readValue(searchCriteriaListJson, new TypeReference<>() {
-        });
-        this.getAssociationNamesFromSearchCriterias(associationNames, searches);
-        int i = 0;
-        for (final var search : searches) {
-          sagaEntitySpecification = this.getSpecifications(sagaEntitySpecification, i, search, associationNames, this.getSagaFilterSpecs());
-          i++;
-        }
+      sagaEntitySpecification = this.getSagaSpecification(searchCriteriaListJson, objectMapper, associationNames);
+    } catch (final JsonProcessingException e) {
+      throw new InvalidParameterException(e.getMessage());
+    }
+    return this.getSagaService().findAll(sagaEntitySpecification, pageNumber, pageSize, sorts).thenApply(sagas -> sagas.map(sagaMapper::toStruct));
+  }
 
-      }
+  /**
+   * Find the slice of sagas after the cursor.
+   *
+   * @param pageSize               the slice size
+   * @param cursor                 the cursor
+   * @param searchCriteriaListJson the search criteria list json
+   * @param includeTotal           whether to include the cached total
+   * @return the completable future
+   */
+  @Override
+  public CompletableFuture<SagaSlice> findSagaSlice(final Integer pageSize, final String cursor, final String searchCriteriaListJson, final boolean includeTotal) {
+    if (pageSize == null || pageSize < 1) {
+      throw new InvalidParameterException("pageSize");
+    }
+    final Specification<ca.bc.gov.educ.api.macro.model.Saga> sagaEntitySpecification;
+    try {
+      sagaEntitySpecification = this.getSagaSpecification(searchCriteriaListJson, new ObjectMapper(), new Associations());
     } catch (final JsonProcessingException e) {
       throw new InvalidParameterException(e.getMessage());
     }
-    return this.getSagaService().findAll(sagaEntitySpecification, pageNumber, pageSize, sorts).thenApplyAsync(sagas -> sagas.map(sagaMapper::toStruct));
+    final SagaKeysetCursor keysetCursor = StringUtils.isBlank(cursor) ? null : SagaKeysetCursor.decode(cursor);
+    final CompletableFuture<Long> total = includeTotal ? this.getSagaService().countCached(sagaEntitySpecification, StringUtils.defaultString(searchCriteriaListJson))
+      : CompletableFuture.completedFuture(null);
+    return this.getSagaService().findSlice(sagaEntitySpecification, keysetCursor, pageSize).thenCombine(total, (sagas, totalElements) -> SagaSlice.builder()
+      .content(sagas.map(sagaMapper::toStruct).getContent())
+      .size(pageSize)
+      .hasNext(sagas.hasNext())
+      .nextCursor(sagas.hasNext() ? SagaKeysetCursor.of(sagas.getContent().get(sagas.getNumberOfElements() - 1)).encode() : null)
+      .totalElements(totalElements)
+      .build());
+  }
+
+  /**
+   * Build the saga specification of the search criteria list json.
+   *
+   * @param searchCriteriaListJson the search criteria list json
+   * @param objectMapper           the object mapper
+   * @param associationNames       the association names
+   * @return the specification, null without search criteria
+   * @throws JsonProcessingException the json processing exception
+   */
+  private Specification<ca.bc.gov.educ.api.macro.model.Saga> getSagaSpecification(final String searchCriteriaListJson, final ObjectMapper objectMapper, final Associations associationNames) throws JsonProcessingException {
+    Specification<ca.bc.gov.educ.api.macro.model.Saga> sagaEntitySpecification = null;
+    if (StringUtils.isNotBlank(searchCriteriaListJson)) {
+      final List<Search> searches = objectMapper.readValue(searchCriteriaListJson, new TypeReference<>() {
+      });
+      this.getAssociationNamesFromSearchCriterias(associationNames, searches);
+      int i = 0;
+      for (final var search : searches) {
+        sagaEntitySpecification = this.getSpecifications(sagaEntitySpecification, i, search, associationNames, this.getSagaFilterSpecs());
+        i++;
+      }
+    }
+    return sagaEntitySpecification;
   }
 
   /**
@@ -122,29 +172,35 @@ public class MacroAPIController extends PaginatedController implements MacroAPIE
   }
 
   /**
-   * Update saga
+   * Update the payload of the saga with one conditional UPDATE statement, on the version of the If-Match header, else on the update date of the saga
+   * as before, else on its version. When nothing was updated the saga is read to tell a missing saga from a conflict, otherwise the updated row
+   * is read back and returned with its new version as the ETag.
    *
-   * @param saga - the saga
+   * @param saga    - the saga
+   * @param sagaId  - the saga id
+   * @param ifMatch - the If-Match header
    * @return - the updated saga
    */
   @Override
   @Transactional
-  public ResponseEntity<Saga> updateSaga(final Saga saga, final UUID sagaId) {
-    final var sagaOptional = this.getSagaService().findSagaById(sagaId);
-    if (sagaOptional.isPresent()) {
-      val sagaFromDB = sagaOptional.get();
-      if (!sagaMapper.toStruct(sagaFromDB).getUpdateDate().equals(saga.getUpdateDate())) {
-        log.error("Updating saga failed. The saga has already been updated by another process :: " + saga.getSagaId());
-        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+  public ResponseEntity<Saga> updateSaga(final Saga saga, final UUID sagaId, final String ifMatch) {
+    final Long ifMatchVersion = RequestUtil.getVersionFromIfMatch(ifMatch);
+    final Long version = ifMatchVersion != null || saga.getUpdateDate() != null ? ifMatchVersion : saga.getVersion();
+    if (version == null && saga.getUpdateDate() == null) {
+      return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+    }
+    final LocalDateTime updateDate = LocalDateTime.now();
+    final boolean updated = version != null ? this.getSagaService().updateSagaPayload(sagaId, saga.getPayload(), updateDate, version)
+      : this.getSagaService().updateSagaPayloadIfNotUpdatedSince(sagaId, saga.getPayload(), updateDate, LocalDateTime.parse(saga.getUpdateDate()));
+    if (!updated) {
+      if (!this.getSagaService().sagaExists(sagaId)) {
+        log.error("Error attempting to get saga. Saga id does not exist :: " + sagaId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
       }
-      sagaFromDB.setPayload(saga.getPayload());
-      sagaFromDB.setUpdateDate(LocalDateTime.now());
-      this.getSagaService().updateSagaRecord(sagaFromDB);
-      return ResponseEntity.ok(sagaMapper.toStruct(sagaFromDB));
-    } else {
-      log.error("Error attempting to get saga. Saga id does not exist :: " + saga.getSagaId());
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+      log.error("Updating saga failed. The saga has already been updated by another process :: " + sagaId);
+      return ResponseEntity.status(ifMatchVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
     }
+    return this.readSaga(sagaId);
   }
 
 }
@@ -1,5 +1,7 @@
 package ca.bc.gov.educ.api.macro.controller.v1;
 
+import ca.bc.gov.educ.api.macro.admission.SagaAdmissionRegistry;
+import ca.bc.gov.educ.api.macro.cache.MacroCatalogCache;
 import ca.bc.gov.educ.api.macro.constants.BusinessUseTypeCodes;
 import ca.bc.gov.educ.api.macro.constants.SagaEnum;
 import ca.bc.gov.educ.api.macro.endpoint.v1.PenMacroEndpoint;
@@ -10,22 +12,26 @@ import ca.bc.gov.educ.api.macro.exception.errors.ApiError;
 import ca.bc.gov.educ.api.macro.mapper.v1.MacroMapper;
 import ca.bc.gov.educ.api.macro.model.MacroEntity;
 import ca.bc.gov.educ.api.macro.orchestrator.base.Orchestrator;
-import ca.bc.gov.educ.api.macro.service.MacroService;
-import ca.bc.gov.educ.api.macro.service.SagaService;
+import ca.bc.gov.educ.api.macro.service.MacroBulkService;
 import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import ca.bc.gov.educ.api.macro.struct.v1.MacroBulkImportResult;
 import ca.bc.gov.educ.api.macro.util.JsonUtil;
 import ca.bc.gov.educ.api.macro.util.RequestUtil;
 import ca.bc.gov.educ.api.macro.validator.MacroPayloadValidator;
-import ca.bc.gov.educ.api.macro.constants.SagaStatusEnum;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,21 +45,24 @@ public class PenMacroController implements PenMacroEndpoint {
 
   private static final MacroMapper mapper = MacroMapper.mapper;
   @Getter(PRIVATE)
-  private final MacroService macroService;
+  private final MacroCatalogCache macroCatalogCache;
   @Getter(PRIVATE)
   private final MacroPayloadValidator macroPayloadValidator;
   @Getter(PRIVATE)
-  private final SagaService sagaService;
+  private final SagaAdmissionRegistry sagaAdmissionRegistry;
+  @Getter(PRIVATE)
+  private final MacroBulkService macroBulkService;
   @Getter(PRIVATE)
   private final Map<String, Orchestrator> orchestratorMap = new HashMap<>();
 
   @Autowired
-  public PenMacroController(final MacroService macroService, final MacroPayloadValidator macroPayloadValidator,
-                             final SagaService sagaService, final List<Orchestrator> orchestrators) {
-    this.macroService = macroService;
+  public PenMacroController(final MacroCatalogCache macroCatalogCache, final MacroPayloadValidator macroPayloadValidator,
+                             final SagaAdmissionRegistry sagaAdmissionRegistry, final MacroBulkService macroBulkService, final List<Orchestrator> orchestrators) {
+    this.macroCatalogCache = macroCatalogCache;
     this.macroPayloadValidator = macroPayloadValidator;
+    this.macroBulkService = macroBulkService;
 
-    this.sagaService = sagaService;
+    this.sagaAdmissionRegistry = sagaAdmissionRegistry;
     orchestrators.forEach(orchestrator -> this.orchestratorMap.put(orchestrator.getSagaName(), orchestrator));
     log.info("'{}' Saga Orchestrators are loaded.", String.join(",", this.orchestratorMap.keySet()));
   }
@@ -63,23 +72,23 @@ public class PenMacroController implements PenMacroEndpoint {
     List<MacroEntity> macroEntries = List.of();
     if (StringUtils.isNotBlank(businessUseTypeCode) && this.getBusinessUseTypeCodes().contains(businessUseTypeCode)) {
       if(StringUtils.isNotBlank(macroTypeCode)) {
-        macroEntries = getMacroService().findMacrosByBusinessUseTypeCodeAndMacroTypeCode(businessUseTypeCode, macroTypeCode);
+        macroEntries = getMacroCatalogCache().findMacrosByBusinessUseTypeCodeAndMacroTypeCode(businessUseTypeCode, macroTypeCode);
       } else {
-        macroEntries =  getMacroService().findMacrosByBusinessUseTypeCode(businessUseTypeCode);
+        macroEntries =  getMacroCatalogCache().findMacrosByBusinessUseTypeCode(businessUseTypeCode);
       }
     } else if (!StringUtils.isNotBlank(businessUseTypeCode) && StringUtils.isNotBlank(macroTypeCode)) {
-      macroEntries = getMacroService().findMacrosByBusinessUseTypeCodeIn(this.getBusinessUseTypeCodes());
+      macroEntries = getMacroCatalogCache().findMacrosByBusinessUseTypeCodeIn(this.getBusinessUseTypeCodes());
     }
     return macroEntries.stream().map(mapper::toStructure).collect(Collectors.toList());
   }
 
   @Override
-  public Macro findMacroById(UUID macroId) {
-    val result = getMacroService().getMacro(macroId);
+  public ResponseEntity<Macro> findMacroById(UUID macroId) {
+    val result = getMacroCatalogCache().getMacro(macroId);
     if (result.isPresent()) {
       final var businessUseTypeCode = result.get().getBusinessUseTypeCode();
       if(this.getBusinessUseTypeCodes().contains(businessUseTypeCode)) {
-        return mapper.toStructure(result.get());
+        return ResponseEntity.ok().eTag(String.valueOf(result.get().getVersion())).body(mapper.toStructure(result.get()));
       }
     }
     throw new EntityNotFoundException(Macro.class, "macroId", macroId.toString());
@@ -93,12 +102,26 @@ public class PenMacroController implements PenMacroEndpoint {
   }
 
   @Override
-  public ResponseEntity<String> updateMacro(Macro macro) {
+  public ResponseEntity<String> updateMacro(Macro macro, String ifMatch) {
+    val ifMatchVersion = RequestUtil.getVersionFromIfMatch(ifMatch);
+    if (ifMatchVersion != null) {
+      macro.setVersion(ifMatchVersion); // the update saga updates the macro only if it is still at this version
+    }
     validatePayload(macro, false);
     RequestUtil.setAuditColumnsForUpdate(macro);
     return this.processMacroSaga(SagaEnum.MACRO_UPDATE_SAGA, macro);
   }
 
+  @Override
+  public MacroBulkImportResult importMacros(InputStream macros) throws IOException {
+    return getMacroBulkService().importMacros(macros, this.getBusinessUseTypeCodes());
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> exportMacros() {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(getMacroBulkService()::exportMacros);
+  }
+
   private void validatePayload(Macro penRequestMacro, boolean isCreateOperation) {
     val validationResult = getMacroPayloadValidator().validatePayload(penRequestMacro, isCreateOperation, this.getBusinessUseTypeCodes());
     if (!validationResult.isEmpty()) {
@@ -110,45 +133,37 @@ public class PenMacroController implements PenMacroEndpoint {
 
   /**
    * Process saga.
+   * A saga for a macro is admitted by this pod's registry first, which checks the database before rejecting it, then by the MACRO_SAGA_ADMISSION key
+   * when the saga record is inserted, either one rejecting it means a saga is already in flight for the macro.
    *
    * @param sagaName the saga name
    * @param sagaData the saga data
    * @return the response entity
    */
   private ResponseEntity<String> processMacroSaga(final SagaEnum sagaName, final Macro sagaData) {
-    try {
-      UUID macroId = null;
-      if(StringUtils.isNotBlank(sagaData.getMacroId())) {
-        macroId = UUID.fromString(sagaData.getMacroId());
-        final var sagaInProgress = this.getSagaService().findAllByMacroIdAndStatusIn(macroId, sagaName.toString(), this.getStatusesFilter());
-        if (!sagaInProgress.isEmpty()) {
-          return ResponseEntity.status(HttpStatus.CONFLICT).build();
-        }
+    UUID macroId = null;
+    if(StringUtils.isNotBlank(sagaData.getMacroId())) {
+      macroId = UUID.fromString(sagaData.getMacroId());
+      if (!this.getSagaAdmissionRegistry().tryAdmit(macroId)) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
       }
-
+    }
+    try {
       final String payload = JsonUtil.getJsonStringFromObject(sagaData);
       final var saga = this.getOrchestratorMap()
         .get(sagaName.toString())
         .startSaga(payload, macroId, sagaData.getCreateUser());
       return ResponseEntity.ok(saga.getSagaId().toString());
+    } catch (final DataIntegrityViolationException e) {
+      this.getSagaAdmissionRegistry().release(macroId);
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
     } catch (final Exception e) {
+      this.getSagaAdmissionRegistry().release(macroId);
       Thread.currentThread().interrupt();
       throw new SagaRuntimeException(e.getMessage());
     }
   }
 
-  /**
-   * Gets statuses filter.
-   *
-   * @return the statuses filter
-   */
-  private List<String> getStatusesFilter() {
-    final var statuses = new ArrayList<String>();
-    statuses.add(SagaStatusEnum.IN_PROGRESS.toString());
-    statuses.add(SagaStatusEnum.STARTED.toString());
-    return statuses;
-  }
-
   /**
    * Gets business use type codes.
    *
@@ -2,6 +2,7 @@ package ca.bc.gov.educ.api.macro.endpoint.v1;
 
 import ca.bc.gov.educ.api.macro.struct.v1.Saga;
 import ca.bc.gov.educ.api.macro.struct.v1.SagaEvent;
+import ca.bc.gov.educ.api.macro.struct.v1.SagaSlice;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
@@ -63,6 +65,29 @@ public interface MacroAPIEndpoint {
                                                implementation = ca.bc.gov.educ.api.macro.struct.v1.Search.class))
                                              @RequestParam(name = "searchCriteriaList", required = false) String searchCriteriaListJson);
 
+  /**
+   * Find the Sagas for given search criteria slice by slice, newest first, with a cursor instead of a page number.
+   * Unlike the paginated endpoint there is no offset and no count query, so every slice costs the same however deep it is.
+   *
+   * @param pageSize               the slice size
+   * @param cursor                 the nextCursor of the previous slice, blank for the first slice
+   * @param searchCriteriaListJson the search list , the JSON string ( of Array or List of {@link ca.bc.gov.educ.api.macro.struct.v1.Search})
+   * @param includeTotal           whether to include the number of sagas matching the search, counted at most once per cache expiry
+   * @return the completable future SagaSlice
+   */
+  @GetMapping("/saga/slice")
+  @PreAuthorize("hasAuthority('SCOPE_MACRO_READ_SAGA')")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK"), @ApiResponse(responseCode = "400", description = "BAD REQUEST."), @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR.")})
+  @Transactional(readOnly = true)
+  @Tag(name = "Endpoint to page through the Sagas by cursor, with filter.", description = "This API endpoint pages by (createDate, sagaId) keyset instead of offset, for constant latency on deep pages.")
+  CompletableFuture<SagaSlice> findSagaSlice(@RequestParam(name = "pageSize", defaultValue = "10") Integer pageSize,
+                                             @RequestParam(name = "cursor", required = false) String cursor,
+                                             @ArraySchema(schema = @Schema(name = "searchCriteriaList",
+                                               description = "searchCriteriaList if provided should be a JSON string of Search Array",
+                                               implementation = ca.bc.gov.educ.api.macro.struct.v1.Search.class))
+                                             @RequestParam(name = "searchCriteriaList", required = false) String searchCriteriaListJson,
+                                             @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal);
+
   @GetMapping("/saga/{sagaId}/saga-events")
   @PreAuthorize("hasAuthority('SCOPE_MACRO_READ_SAGA')")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK."), @ApiResponse(responseCode = "404", description = "Not Found.")})
@@ -72,8 +97,9 @@ public interface MacroAPIEndpoint {
 
   @PutMapping("/saga/{sagaId}")
   @PreAuthorize("hasAuthority('SCOPE_MACRO_WRITE_SAGA')")
-  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK."), @ApiResponse(responseCode = "404", description = "Not Found."), @ApiResponse(responseCode = "409", description = "Conflict.")})
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK."), @ApiResponse(responseCode = "404", description = "Not Found."), @ApiResponse(responseCode = "409", description = "Conflict."),
+      @ApiResponse(responseCode = "412", description = "Precondition Failed."), @ApiResponse(responseCode = "428", description = "Precondition Required.")})
   @Transactional
   @Tag(name = "Endpoint to update saga by its ID.", description = "Endpoint to update saga by its ID.")
-  ResponseEntity<Saga> updateSaga(@RequestBody Saga saga, @PathVariable UUID sagaId);
+  ResponseEntity<Saga> updateSaga(@RequestBody Saga saga, @PathVariable UUID sagaId, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 }
@@ -1,13 +1,19 @@
 package ca.bc.gov.educ.api.macro.endpoint.v1;
 
 import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import ca.bc.gov.educ.api.macro.struct.v1.MacroBulkImportResult;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,7 +30,7 @@ public interface PenMacroEndpoint {
   @GetMapping(MACRO_ID)
   @PreAuthorize("hasAuthority('SCOPE_READ_PEN_MACRO')")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK"), @ApiResponse(responseCode = "404", description = "NOT FOUND")})
-  Macro findMacroById(@PathVariable UUID macroId);
+  ResponseEntity<Macro> findMacroById(@PathVariable UUID macroId);
 
   @PostMapping("/create-macro")
   @PreAuthorize("hasAuthority('SCOPE_WRITE_PEN_MACRO')")
@@ -34,5 +40,15 @@ public interface PenMacroEndpoint {
   @PostMapping("/update-macro")
   @PreAuthorize("hasAuthority('SCOPE_WRITE_PEN_MACRO')")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK")})
-  ResponseEntity<String> updateMacro(@Validated @RequestBody Macro macro);
+  ResponseEntity<String> updateMacro(@Validated @RequestBody Macro macro, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+  @PostMapping(value = "/bulk-import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  @PreAuthorize("hasAuthority('SCOPE_WRITE_PEN_MACRO')")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK")})
+  MacroBulkImportResult importMacros(InputStream macros) throws IOException;
+
+  @GetMapping(value = "/bulk-export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasAuthority('SCOPE_READ_PEN_MACRO')")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "OK")})
+  ResponseEntity<StreamingResponseBody> exportMacros();
 }
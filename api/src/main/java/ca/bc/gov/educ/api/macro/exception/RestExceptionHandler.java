@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -15,8 +16,11 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.TimeoutException;
+
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 /**
  * The type Rest exception handler.
@@ -135,4 +139,18 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     return this.buildResponseEntity(ex.getError());
   }
 
+  /**
+   * Handles the search queries cancelled at their deadline.
+   *
+   * @param ex the TimeoutException or QueryTimeoutException
+   * @return the ApiError object
+   */
+  @ExceptionHandler({TimeoutException.class, QueryTimeoutException.class})
+  protected ResponseEntity<Object> handleQueryTimeout(final Exception ex) {
+    final ApiError apiError = new ApiError(SERVICE_UNAVAILABLE);
+    apiError.setMessage("The query did not complete before its deadline, narrow the search criteria or try again later.");
+    log.warn("{} ", apiError.getMessage(), ex);
+    return this.buildResponseEntity(apiError);
+  }
+
 }
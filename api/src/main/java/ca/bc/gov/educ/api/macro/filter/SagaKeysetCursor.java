@@ -0,0 +1,88 @@
+package ca.bc.gov.educ.api.macro.filter;
+
+import ca.bc.gov.educ.api.macro.exception.InvalidParameterException;
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.model.SagaSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * The position of the last saga of a slice when paging the sagas newest first by (createDate, sagaId), sent to the client as an opaque string.
+ * The next slice is read with a seek predicate on the same columns instead of an offset, so a deep slice costs the same as the first one.
+ */
+@Getter
+@AllArgsConstructor
+public class SagaKeysetCursor {
+
+  /**
+   * The order the sagas are paged in, newest first, the saga id breaks the ties of sagas created at the same time.
+   */
+  public static final Sort SORT = Sort.by(Sort.Order.desc("createDate"), Sort.Order.desc("sagaId"));
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * The create date of the last saga of the slice.
+   */
+  private final LocalDateTime createDate;
+
+  /**
+   * The saga id of the last saga of the slice.
+   */
+  private final UUID sagaId;
+
+  /**
+   * The cursor positioned on the saga.
+   *
+   * @param saga the saga
+   * @return the saga keyset cursor
+   */
+  public static SagaKeysetCursor of(final SagaSummary saga) {
+    return new SagaKeysetCursor(saga.getCreateDate(), saga.getSagaId());
+  }
+
+  /**
+   * Decode the cursor sent by the client.
+   *
+   * @param cursor the encoded cursor
+   * @return the saga keyset cursor
+   * @throws InvalidParameterException if the cursor was not produced by {@link #encode()}
+   */
+  public static SagaKeysetCursor decode(final String cursor) {
+    try {
+      final String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      return new SagaKeysetCursor(LocalDateTime.parse(StringUtils.substringBefore(value, SEPARATOR)), UUID.fromString(StringUtils.substringAfter(value, SEPARATOR)));
+    } catch (final IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidParameterException("cursor");
+    }
+  }
+
+  /**
+   * Encode the cursor for the client.
+   *
+   * @return the encoded cursor
+   */
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString((this.createDate + SEPARATOR + this.sagaId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The sagas after the cursor in {@link #SORT} order, createDate &lt; :createDate or (createDate = :createDate and sagaId &lt; :sagaId).
+   *
+   * @return the specification
+   */
+  public Specification<Saga> after() {
+    return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+      criteriaBuilder.lessThan(root.<LocalDateTime>get("createDate"), this.createDate),
+      criteriaBuilder.and(criteriaBuilder.equal(root.get("createDate"), this.createDate), criteriaBuilder.lessThan(root.<UUID>get("sagaId"), this.sagaId)));
+  }
+}
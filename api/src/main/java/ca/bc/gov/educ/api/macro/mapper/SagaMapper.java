@@ -1,5 +1,6 @@
 package ca.bc.gov.educ.api.macro.mapper;
 
+import ca.bc.gov.educ.api.macro.model.SagaSummary;
 import ca.bc.gov.educ.api.macro.struct.v1.Saga;
 import ca.bc.gov.educ.api.macro.struct.v1.SagaEvent;
 import org.mapstruct.Mapper;
@@ -25,6 +26,15 @@ public interface SagaMapper {
    */
   Saga toStruct(ca.bc.gov.educ.api.macro.model.Saga saga);
 
+  /**
+   * To struct saga, without the payload.
+   *
+   * @param sagaSummary the saga summary
+   * @return the saga struct
+   */
+  @Mapping(target = "payload", ignore = true)
+  Saga toStruct(SagaSummary sagaSummary);
+
 
   /**
    * To model saga.
@@ -0,0 +1,295 @@
+package ca.bc.gov.educ.api.macro.messaging;
+
+import ca.bc.gov.educ.api.macro.config.ExecutorFactory;
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.orchestrator.base.EventHandler;
+import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import ca.bc.gov.educ.api.macro.util.ThreadFactoryBuilder;
+import io.nats.client.Connection;
+import io.nats.client.JetStreamApiException;
+import io.nats.client.JetStreamSubscription;
+import io.nats.client.Message;
+import io.nats.client.PullSubscribeOptions;
+import io.nats.client.api.AckPolicy;
+import io.nats.client.api.ConsumerConfiguration;
+import io.nats.client.api.RetentionPolicy;
+import io.nats.client.api.StorageType;
+import io.nats.client.api.StreamConfiguration;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Consumes the saga topics from JetStream durable pull consumers when nats.jetstream.enabled is true, in place of the core NATS queue subscriptions
+ * of the {@link MessageSubscriber}. The consumers are shared by the pods, as the queue groups are.
+ * MACRO_API_TOPIC stays on core NATS, a stream capturing it would answer the request/reply callers with its PubAck and drop their reply inbox.
+ * A message is acked once its handler has committed, so a message that arrives while no pod is running, or whose handler fails, is delivered again
+ * within seconds instead of waiting for the replay of the uncompleted sagas. A failed message is nak'ed after a backoff which doubles with every
+ * delivery, and no more than the configured number of messages per topic are in flight in the api.
+ */
+@Component
+@ConditionalOnProperty(name = "nats.jetstream.enabled", havingValue = "true")
+@Slf4j
+public class JetStreamSubscriber implements Closeable {
+
+  /**
+   * The max time a pull request waits for messages.
+   */
+  private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(1);
+
+  /**
+   * The Connection.
+   */
+  @Getter(PRIVATE)
+  private final Connection connection;
+
+  /**
+   * The Application properties.
+   */
+  @Getter(PRIVATE)
+  private final ApplicationProperties properties;
+
+  /**
+   * The handlers by the topic they consume.
+   */
+  @Getter(PRIVATE)
+  private final Map<String, TopicHandler> topicHandlers = new LinkedHashMap<>();
+
+  /**
+   * The executor running the fetch loop of every topic, the loops hold on to their thread.
+   */
+  @Getter(PRIVATE)
+  private final ExecutorService consumerExecutor;
+
+  /**
+   * The scheduler of the delayed naks of the failed messages.
+   */
+  @Getter(PRIVATE)
+  private final ScheduledExecutorService redeliveryScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().withNameFormat("jetstream-nak-%d").withDaemon(true).get());
+
+  /**
+   * Whether the fetch loops keep running.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * Instantiates a new Jet stream subscriber.
+   *
+   * @param connection      the connection
+   * @param properties      the application properties
+   * @param eventHandlers   the event handlers
+   * @param executorFactory the executor factory
+   */
+  @Autowired
+  public JetStreamSubscriber(final Connection connection, final ApplicationProperties properties, final List<EventHandler> eventHandlers, final ExecutorFactory executorFactory) {
+    this.connection = connection;
+    this.properties = properties;
+    eventHandlers.forEach(handler -> this.topicHandlers.put(handler.getTopicToSubscribe(), handler::handleEvent));
+    this.consumerExecutor = executorFactory.natsExecutor("jetstream-consumer-%d", this.topicHandlers.size(), this.topicHandlers.size());
+  }
+
+  /**
+   * Create the stream if it does not exist, or take MACRO_API_TOPIC out of it, and start a durable pull consumer per topic.
+   *
+   * @throws IOException           the io exception
+   * @throws JetStreamApiException if the server rejects the stream or a consumer
+   */
+  @PostConstruct
+  public void subscribe() throws IOException, JetStreamApiException {
+    this.createOrUpdateStream();
+    val jetStream = this.getConnection().jetStream();
+    for (val entry : this.getTopicHandlers().entrySet()) {
+      val topic = entry.getKey();
+      val durable = topic.replace("_", "-");
+      val consumerConfiguration = ConsumerConfiguration.builder()
+          .durable(durable)
+          .filterSubject(topic)
+          .ackPolicy(AckPolicy.Explicit)
+          .ackWait(Duration.ofSeconds(this.getProperties().getJetStreamAckWaitSeconds()))
+          .maxDeliver(this.getProperties().getJetStreamMaxDeliver())
+          .maxAckPending(this.getProperties().getJetStreamMaxInFlight())
+          .build();
+      val subscription = jetStream.subscribe(topic, PullSubscribeOptions.builder()
+          .stream(this.getProperties().getJetStreamStreamName())
+          .durable(durable)
+          .configuration(consumerConfiguration)
+          .build());
+      this.getConsumerExecutor().execute(() -> this.consume(topic, subscription, entry.getValue()));
+      log.info("consuming topic :: {} from JetStream stream :: {} with durable consumer :: {}", topic, this.getProperties().getJetStreamStreamName(), durable);
+    }
+  }
+
+  private void createOrUpdateStream() throws IOException, JetStreamApiException {
+    val jetStreamManagement = this.getConnection().jetStreamManagement();
+    val streamName = this.getProperties().getJetStreamStreamName();
+    if (!jetStreamManagement.getStreamNames().contains(streamName)) {
+      jetStreamManagement.addStream(StreamConfiguration.builder()
+          .name(streamName)
+          .subjects(this.getTopicHandlers().keySet())
+          .retentionPolicy(RetentionPolicy.WorkQueue)
+          .storageType(StorageType.File)
+          .build());
+      log.info("created JetStream stream :: {} for subjects :: {}", streamName, this.getTopicHandlers().keySet());
+      return;
+    }
+    val configuration = jetStreamManagement.getStreamInfo(streamName).getConfiguration();
+    if (configuration.getSubjects().contains(TopicsEnum.MACRO_API_TOPIC.toString())) {
+      jetStreamManagement.updateStream(StreamConfiguration.builder(configuration).subjects(this.getTopicHandlers().keySet()).build());
+      log.info("removed {} from JetStream stream :: {}, it is consumed from core NATS", TopicsEnum.MACRO_API_TOPIC, streamName);
+    }
+  }
+
+  /**
+   * Fetch the messages of the topic until the api shuts down, a pull request is only sent when a message can be put in flight.
+   *
+   * @param topic        the topic
+   * @param subscription the subscription
+   * @param topicHandler the handler of the topic
+   */
+  private void consume(final String topic, final JetStreamSubscription subscription, final TopicHandler topicHandler) {
+    val inFlight = new Semaphore(this.getProperties().getJetStreamMaxInFlight());
+    while (this.running) {
+      try {
+        inFlight.acquire();
+        int permits = 1;
+        int handedOff = 0;
+        try {
+          while (permits < this.getProperties().getJetStreamFetchBatchSize() && inFlight.tryAcquire()) {
+            permits++;
+          }
+          final List<Message> messages = subscription.fetch(permits, FETCH_TIMEOUT);
+          for (val message : messages) {
+            val handled = this.handle(message, topicHandler);
+            handedOff++;
+            handled.whenComplete((result, e) -> inFlight.release());
+          }
+        } finally {
+          // the permits of the messages not fetched, or not handed off as fetch or handle threw, go back, the others once their message is done.
+          inFlight.release(permits - handedOff);
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final Exception e) {
+        log.error("Exception while fetching messages of topic :: {}", topic, e);
+      }
+    }
+  }
+
+  /**
+   * Handle the message, it is acked once the handler has committed, nak'ed after a backoff if the handler failed, and terminated if it is not an event.
+   *
+   * @param message      the message
+   * @param topicHandler the handler of the topic
+   * @return the future, completed once the message is acked, nak'ed or terminated
+   */
+  CompletableFuture<Void> handle(final Message message, final TopicHandler topicHandler) {
+    final Event event;
+    try {
+      event = JsonUtil.getJsonObjectFromByteArray(Event.class, message.getData());
+    } catch (final IOException e) {
+      log.error("terminating message of subject :: {} which is not an event", message.getSubject(), e);
+      message.term();
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> handled;
+    try {
+      handled = topicHandler.handle(event);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      handled = CompletableFuture.failedFuture(e);
+    } catch (final Exception e) {
+      handled = CompletableFuture.failedFuture(e);
+    }
+    if (handled == null) {
+      handled = CompletableFuture.completedFuture(null);
+    }
+    return handled.handle((result, e) -> e).thenCompose(e -> {
+      if (e == null) {
+        message.ack();
+        return CompletableFuture.completedFuture(null);
+      }
+      return this.nakAfterBackoff(message, event, e);
+    });
+  }
+
+  /**
+   * Nak the message once the backoff of its delivery is over, so the server delivers it again.
+   *
+   * @return the future, completed once the message is nak'ed
+   */
+  private CompletableFuture<Void> nakAfterBackoff(final Message message, final Event event, final Throwable e) {
+    val deliveredCount = message.isJetStream() ? message.metaData().deliveredCount() : 1;
+    val backoffMillis = this.backoffMillis(deliveredCount);
+    if (deliveredCount >= this.getProperties().getJetStreamMaxDeliver()) {
+      log.error("event :: {} of saga :: {} failed on its last delivery :: {}, it is left to the replay of the uncompleted sagas", event.getEventType(), event.getSagaId(), deliveredCount, e);
+    } else {
+      log.warn("event :: {} of saga :: {} failed on delivery :: {}, delivering it again in {} ms", event.getEventType(), event.getSagaId(), deliveredCount, backoffMillis, e);
+    }
+    val nak = new CompletableFuture<Void>();
+    this.getRedeliveryScheduler().schedule(() -> {
+      message.nak();
+      nak.complete(null);
+    }, backoffMillis, TimeUnit.MILLISECONDS);
+    return nak;
+  }
+
+  /**
+   * The backoff before the next delivery, the initial backoff doubled for every delivery so far, capped at the max backoff.
+   *
+   * @param deliveredCount the number of deliveries so far
+   * @return the backoff in millis
+   */
+  long backoffMillis(final long deliveredCount) {
+    val initial = this.getProperties().getJetStreamRedeliveryBackoffInitialMillis();
+    val max = this.getProperties().getJetStreamRedeliveryBackoffMaxMillis();
+    val doublings = Math.min(Math.max(deliveredCount - 1, 0), 30);
+    return Math.min(initial << doublings, max);
+  }
+
+  @Override
+  public void close() {
+    this.running = false;
+    this.getConsumerExecutor().shutdown();
+    this.getRedeliveryScheduler().shutdown();
+  }
+
+  /**
+   * The handler of the events of a topic.
+   */
+  @FunctionalInterface
+  interface TopicHandler {
+    /**
+     * Handle the event.
+     *
+     * @param event the event
+     * @return the future, completed once the event is handled and its changes are committed
+     * @throws InterruptedException the interrupted exception
+     * @throws IOException          the io exception
+     * @throws TimeoutException     the timeout exception
+     */
+    CompletableFuture<Void> handle(Event event) throws InterruptedException, IOException, TimeoutException;
+  }
+}
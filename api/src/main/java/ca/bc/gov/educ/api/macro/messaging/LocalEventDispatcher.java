@@ -0,0 +1,156 @@
+package ca.bc.gov.educ.api.macro.messaging;
+
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.orchestrator.base.EventHandler;
+import ca.bc.gov.educ.api.macro.service.events.EventHandlerDelegatorService;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.struct.v1.NotificationEvent;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Hands the events for the topics this api consumes itself straight to their in-process handler, without going through NATS.
+ * MACRO_API_TOPIC goes to the {@link EventHandlerDelegatorService} and the saga topics to their orchestrator, the event is handed to the subscriber
+ * executor the {@link MessageSubscriber} hands the NATS messages to, so the caller never runs the handler on its own thread, and the duplicate checks
+ * of the handlers and the saga replay work as they do for a NATS message. An event the executor rejects goes over NATS.
+ * Notification events are always sent over NATS, as other services subscribe to them.
+ */
+@Component
+@Slf4j
+public class LocalEventDispatcher implements SmartInitializingSingleton {
+
+  /**
+   * The Event handler delegator service provider, looked up once the context is ready as the delegator depends on the orchestrators through the outbox.
+   */
+  @Getter(PRIVATE)
+  private final ObjectProvider<EventHandlerDelegatorService> eventHandlerDelegatorServiceProvider;
+
+  /**
+   * The Event handlers provider.
+   */
+  @Getter(PRIVATE)
+  private final ObjectProvider<EventHandler> eventHandlersProvider;
+
+  /**
+   * The Subscriber executor provider, there is none when async is disabled and the events are then handled on the calling thread.
+   */
+  @Getter(PRIVATE)
+  private final ObjectProvider<Executor> subscriberExecutorProvider;
+
+  /**
+   * The Event handler delegator service.
+   */
+  private EventHandlerDelegatorService eventHandlerDelegatorService;
+
+  /**
+   * The Subscriber executor.
+   */
+  private Executor subscriberExecutor = Runnable::run;
+
+  /**
+   * The orchestrators by the topic they subscribe to.
+   */
+  private Map<String, EventHandler> sagaHandlers = Map.of();
+
+  /**
+   * Whether events for local topics are dispatched in process.
+   */
+  @Value("${messaging.local.dispatch.enabled}")
+  @Setter
+  @Getter
+  boolean enabled;
+
+  /**
+   * Instantiates a new Local event dispatcher.
+   *
+   * @param eventHandlerDelegatorServiceProvider the event handler delegator service provider
+   * @param eventHandlersProvider                the event handlers provider
+   * @param subscriberExecutorProvider           the subscriber executor provider
+   */
+  @Autowired
+  public LocalEventDispatcher(final ObjectProvider<EventHandlerDelegatorService> eventHandlerDelegatorServiceProvider, final ObjectProvider<EventHandler> eventHandlersProvider,
+                              @Qualifier("subscriberExecutor") final ObjectProvider<Executor> subscriberExecutorProvider) {
+    this.eventHandlerDelegatorServiceProvider = eventHandlerDelegatorServiceProvider;
+    this.eventHandlersProvider = eventHandlersProvider;
+    this.subscriberExecutorProvider = subscriberExecutorProvider;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    this.eventHandlerDelegatorService = this.getEventHandlerDelegatorServiceProvider().getIfAvailable();
+    this.subscriberExecutor = this.getSubscriberExecutorProvider().getIfAvailable(() -> Runnable::run);
+    this.sagaHandlers = this.getEventHandlersProvider().orderedStream().collect(Collectors.toUnmodifiableMap(EventHandler::getTopicToSubscribe, handler -> handler));
+  }
+
+  /**
+   * Whether the events of the topic are handled in process.
+   *
+   * @param topicName the topic name
+   * @return the boolean
+   */
+  public boolean isLocal(final String topicName) {
+    return this.isEnabled() && topicName != null
+        && ((this.eventHandlerDelegatorService != null && TopicsEnum.MACRO_API_TOPIC.toString().equals(topicName)) || this.sagaHandlers.containsKey(topicName));
+  }
+
+  /**
+   * Dispatch the event to the in-process handler of the topic on the subscriber executor. The handler gets its own copy of the event,
+   * as it would from a NATS message.
+   *
+   * @param topicName the topic name
+   * @param event     the event
+   * @return true if the event was dispatched, false if the topic is not handled in process or the executor rejected it and the event has to go over NATS
+   */
+  public boolean dispatch(final String topicName, final Event event) {
+    if (event instanceof NotificationEvent || !this.isLocal(topicName)) {
+      return false;
+    }
+    val copy = new Event();
+    BeanUtils.copyProperties(event, copy);
+    log.debug("dispatching event :: {} of saga :: {} to topic :: {} in process", copy.getEventType(), copy.getSagaId(), topicName);
+    try {
+      this.subscriberExecutor.execute(() -> this.handle(topicName, copy));
+    } catch (final RejectedExecutionException e) {
+      log.warn("subscriber executor rejected event of saga :: {}, sending it over NATS", copy.getSagaId());
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Handle the event on the calling thread, which is a thread of the subscriber executor.
+   *
+   * @param topicName the topic name
+   * @param event     the event
+   */
+  private void handle(final String topicName, final Event event) {
+    try {
+      if (TopicsEnum.MACRO_API_TOPIC.toString().equals(topicName)) {
+        this.eventHandlerDelegatorService.processEvent(event, null);
+      } else {
+        this.sagaHandlers.get(topicName).processEvent(event);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("interrupted while handling event of saga :: {} in process", event.getSagaId(), e);
+    } catch (final Exception e) {
+      log.error("Exception while handling event of saga :: {} in process", event.getSagaId(), e);
+    }
+  }
+}
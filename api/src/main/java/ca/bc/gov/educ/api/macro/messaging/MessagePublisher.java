@@ -1,35 +1,121 @@
 package ca.bc.gov.educ.api.macro.messaging;
 
+import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
+import ca.bc.gov.educ.api.macro.util.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.nats.client.Connection;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static lombok.AccessLevel.PRIVATE;
 
 /**
  * The type Message publisher.
+ * The publish and request latencies, the outstanding requests and the request timeouts are reported to micrometer, tagged with the subject, so a slow
+ * downstream service shows up before it holds on to the threads of the api. In coalescing mode the published messages are held and written to the
+ * connection together, once nats.publish.coalescing.max.messages are held or after nats.publish.coalescing.max.delay.millis, whichever comes first.
  */
 @Component
 @Slf4j
 public class MessagePublisher {
 
+  /**
+   * The subject tag of the reply inboxes, one tag for all of them so the number of meters stays bounded.
+   */
+  private static final String INBOX_PREFIX = "_INBOX";
+
 
   /**
    * The Connection.
    */
   private final Connection connection;
 
+  /**
+   * The Meter registry.
+   */
+  @Getter(PRIVATE)
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * The timeout of {@link #requestMessage(String, byte[])}.
+   */
+  @Getter
+  private final Duration requestTimeout;
+
+  /**
+   * The max number of messages held in coalescing mode, 0 when the messages are published as they come.
+   */
+  @Getter
+  private final int coalescingMaxMessages;
+
+  /**
+   * The messages held in coalescing mode.
+   */
+  private final Deque<PendingMessage> pendingMessages = new ConcurrentLinkedDeque<>();
+
+  /**
+   * The number of messages held in coalescing mode.
+   */
+  private final AtomicInteger pendingCount = new AtomicInteger();
+
+  /**
+   * The scheduler writing the held messages once the max delay is over, null when the messages are published as they come.
+   */
+  private final ScheduledExecutorService coalescingScheduler;
+
+  /**
+   * The outstanding requests by subject.
+   */
+  private final Map<String, AtomicInteger> outstandingRequests = new ConcurrentHashMap<>();
+
   /**
    * Instantiates a new Message publisher.
    *
-   * @param con the con
+   * @param con                   the con
+   * @param meterRegistry         the meter registry
+   * @param applicationProperties the application properties
    */
   @Autowired
-  public MessagePublisher(final Connection con) {
+  public MessagePublisher(final Connection con, final MeterRegistry meterRegistry, final ApplicationProperties applicationProperties) {
     this.connection = con;
+    this.meterRegistry = meterRegistry;
+    this.requestTimeout = Duration.ofSeconds(applicationProperties.getRequestTimeoutSeconds());
+    if (applicationProperties.isPublishCoalescingEnabled()) {
+      this.coalescingMaxMessages = applicationProperties.getPublishCoalescingMaxMessages();
+      this.coalescingScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().withNameFormat("nats-coalescing-%d").withDaemon(true).get());
+      val maxDelay = applicationProperties.getPublishCoalescingMaxDelayMillis();
+      this.coalescingScheduler.scheduleWithFixedDelay(this::writePendingMessagesOnSchedule, maxDelay, maxDelay, TimeUnit.MILLISECONDS);
+      log.info("publishing in coalescing mode, up to {} messages or {} ms", this.coalescingMaxMessages, maxDelay);
+    } else {
+      this.coalescingMaxMessages = 0;
+      this.coalescingScheduler = null;
+    }
+    Gauge.builder("macro.nats.publish.pending", this.pendingCount, AtomicInteger::get).register(meterRegistry);
   }
 
   /**
@@ -39,17 +125,168 @@ public class MessagePublisher {
    * @param message the message
    */
   public void dispatchMessage(final String subject, final byte[] message) {
-    this.connection.publish(subject, message);
+    if (this.coalescingScheduler == null) {
+      this.publish(subject, message);
+      return;
+    }
+    this.pendingMessages.add(new PendingMessage(subject, message));
+    if (this.pendingCount.incrementAndGet() >= this.getCoalescingMaxMessages()) {
+      this.writePendingMessages();
+    }
   }
 
+  /**
+   * Flush the messages published so far, returns once the server has received them.
+   *
+   * @param timeout the timeout
+   * @throws TimeoutException     if the server does not answer within the timeout
+   * @throws InterruptedException the interrupted exception
+   */
+  public void flush(final Duration timeout) throws TimeoutException, InterruptedException {
+    this.writePendingMessages();
+    this.connection.flush(timeout);
+  }
+
+  /**
+   * Request on the subject and wait for the response, up to {@link #getRequestTimeout()}.
+   *
+   * @param subject the subject
+   * @param message the message
+   * @return the response, empty if the response has no data
+   * @throws InterruptedException the interrupted exception
+   */
   public Optional<String> requestMessage(final String subject, final byte[] message) throws InterruptedException {
-    log.info("requesting from NATS on topic :: {} with payload :: {}", subject, new String(message));
-    val response = this.connection.request(subject, message, Duration.ofSeconds(30)).getData();
-    if (response == null || response.length == 0) {
-      return Optional.empty();
-    }
-    val responseValue = new String(response);
-    log.info("got response from NATS :: {}", responseValue);
-    return Optional.of(responseValue);
+    try {
+      return this.requestMessageAsync(subject, message, this.getRequestTimeout()).join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        log.warn("no response from NATS on topic :: {} within {}", subject, this.getRequestTimeout());
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Request on the subject without blocking the calling thread.
+   *
+   * @param subject the subject
+   * @param message the message
+   * @param timeout the time to wait for the response
+   * @return the future of the response, empty if the response has no data, failed with a {@link TimeoutException} if there was no response in time
+   */
+  public CompletableFuture<Optional<String>> requestMessageAsync(final String subject, final byte[] message, final Duration timeout) {
+    val tag = subjectTag(subject);
+    log.debug("requesting from NATS on topic :: {} with {} bytes", subject, message.length);
+    if (log.isTraceEnabled()) {
+      log.trace("request payload :: {}", new String(message, StandardCharsets.UTF_8));
+    }
+    val outstanding = this.outstandingRequests.computeIfAbsent(tag, key -> {
+      val count = new AtomicInteger();
+      Gauge.builder("macro.nats.request.outstanding", count, AtomicInteger::get).tag("subject", key).register(this.getMeterRegistry());
+      return count;
+    });
+    outstanding.incrementAndGet();
+    val sample = Timer.start(this.getMeterRegistry());
+    // orTimeout completes the future of the connection itself, which then drops the pending response.
+    return this.connection.request(subject, message).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).handle((response, e) -> {
+      outstanding.decrementAndGet();
+      val outcome = e == null ? "success" : (e instanceof TimeoutException ? "timeout" : "failure");
+      sample.stop(Timer.builder("macro.nats.request").tag("subject", tag).tag("outcome", outcome).publishPercentileHistogram().register(this.getMeterRegistry()));
+      if (e instanceof TimeoutException) {
+        Counter.builder("macro.nats.request.timeouts").tag("subject", tag).register(this.getMeterRegistry()).increment();
+      }
+      if (e != null) {
+        throw e instanceof CompletionException || e instanceof CancellationException ? (RuntimeException) e : new CompletionException(e);
+      }
+      val data = response.getData();
+      if (data == null || data.length == 0) {
+        return Optional.<String>empty();
+      }
+      val responseValue = new String(data, StandardCharsets.UTF_8);
+      log.debug("got response from NATS on topic :: {} with {} bytes", subject, data.length);
+      return Optional.of(responseValue);
+    });
+  }
+
+  /**
+   * Write the messages held in coalescing mode, run by the coalescing scheduler. Any exception is logged, as an exception thrown out of the task
+   * would cancel its next runs and leave the messages held for good.
+   */
+  private void writePendingMessagesOnSchedule() {
+    try {
+      this.writePendingMessages();
+    } catch (final RuntimeException e) {
+      log.error("could not write the {} coalesced messages held, retrying after the max delay", this.pendingCount.get(), e);
+    }
+  }
+
+  /**
+   * Write the messages held in coalescing mode to the connection and hand them to its writer. A message the connection does not take as it is closed
+   * or reconnecting is held again at the head of the queue, with the ones after it, until the next write. A message the connection rejects for any
+   * other reason is dropped, so that it does not hold back the others.
+   */
+  private void writePendingMessages() {
+    int written = 0;
+    PendingMessage pendingMessage;
+    while ((pendingMessage = this.pendingMessages.poll()) != null) {
+      this.pendingCount.decrementAndGet();
+      try {
+        this.publish(pendingMessage.getSubject(), pendingMessage.getMessage());
+        written++;
+      } catch (final IllegalStateException e) {
+        this.pendingMessages.offerFirst(pendingMessage);
+        this.pendingCount.incrementAndGet();
+        log.warn("could not write the coalesced message on topic :: {}, holding it until the next write :: {}", pendingMessage.getSubject(), e.getMessage());
+        break;
+      } catch (final RuntimeException e) {
+        log.error("dropping the coalesced message on topic :: {} the connection rejected", pendingMessage.getSubject(), e);
+      }
+    }
+    if (written > 0) {
+      try {
+        this.connection.flushBuffer();
+      } catch (final IOException e) {
+        log.warn("could not flush the buffer of {} coalesced messages, the connection writes them once it is connected again", written, e);
+      }
+    }
+  }
+
+  private void publish(final String subject, final byte[] message) {
+    val tag = subjectTag(subject);
+    val sample = Timer.start(this.getMeterRegistry());
+    try {
+      this.connection.publish(subject, message);
+    } catch (final RuntimeException e) {
+      Counter.builder("macro.nats.publish.failures").tag("subject", tag).register(this.getMeterRegistry()).increment();
+      throw e;
+    } finally {
+      sample.stop(Timer.builder("macro.nats.publish").tag("subject", tag).publishPercentileHistogram().register(this.getMeterRegistry()));
+    }
+  }
+
+  private static String subjectTag(final String subject) {
+    return subject != null && subject.startsWith(INBOX_PREFIX) ? INBOX_PREFIX : String.valueOf(subject);
+  }
+
+  /**
+   * Write the messages still held and stop the coalescing scheduler.
+   */
+  @PreDestroy
+  public void close() {
+    if (this.coalescingScheduler != null) {
+      this.coalescingScheduler.shutdown();
+      this.writePendingMessages();
+    }
+  }
+
+  /**
+   * A message held in coalescing mode.
+   */
+  @Getter
+  @AllArgsConstructor
+  private static class PendingMessage {
+    private final String subject;
+    private final byte[] message;
   }
 }
@@ -1,8 +1,11 @@
 package ca.bc.gov.educ.api.macro.messaging;
 
+import ca.bc.gov.educ.api.macro.admission.SagaAdmissionRegistry;
+import ca.bc.gov.educ.api.macro.cache.MacroCatalogCache;
 import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
 import ca.bc.gov.educ.api.macro.helpers.LogHelper;
 import ca.bc.gov.educ.api.macro.orchestrator.base.EventHandler;
+import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
 import ca.bc.gov.educ.api.macro.service.events.EventHandlerDelegatorService;
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
 import ca.bc.gov.educ.api.macro.util.JsonUtil;
@@ -15,9 +18,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static lombok.AccessLevel.PRIVATE;
 
@@ -39,10 +44,24 @@ public class MessageSubscriber {
    */
   @Getter(PRIVATE)
   private final EventHandlerDelegatorService eventHandlerDelegatorService;
+  /**
+   * The Macro catalog cache.
+   */
+  @Getter(PRIVATE)
+  private final MacroCatalogCache macroCatalogCache;
+  /**
+   * The Saga admission registry.
+   */
+  @Getter(PRIVATE)
+  private final SagaAdmissionRegistry sagaAdmissionRegistry;
   /**
    * The Connection.
    */
   private final Connection connection;
+  /**
+   * Whether the saga topics are consumed by the {@link JetStreamSubscriber} instead.
+   */
+  private final boolean jetStreamEnabled;
 
   /**
    * Instantiates a new Message subscriber.
@@ -50,14 +69,23 @@ public class MessageSubscriber {
    * @param con                          the con
    * @param eventHandlerDelegatorService the event handler delegator service
    * @param eventHandlers                the event handlers
+   * @param macroCatalogCache            the macro catalog cache
+   * @param sagaAdmissionRegistry        the saga admission registry
+   * @param applicationProperties        the application properties
    */
   @Autowired
-  public MessageSubscriber(final Connection con, final EventHandlerDelegatorService eventHandlerDelegatorService, final List<EventHandler> eventHandlers) {
+  public MessageSubscriber(final Connection con, final EventHandlerDelegatorService eventHandlerDelegatorService, final List<EventHandler> eventHandlers,
+                           final MacroCatalogCache macroCatalogCache, final SagaAdmissionRegistry sagaAdmissionRegistry, final ApplicationProperties applicationProperties) {
     this.eventHandlerDelegatorService = eventHandlerDelegatorService;
+    this.macroCatalogCache = macroCatalogCache;
+    this.sagaAdmissionRegistry = sagaAdmissionRegistry;
     this.connection = con;
+    this.jetStreamEnabled = applicationProperties.isJetStreamEnabled();
     eventHandlers.forEach(handler -> {
       this.handlerMap.put(handler.getTopicToSubscribe(), handler);
-      this.subscribeForSAGA(handler.getTopicToSubscribe(), handler);
+      if (!this.jetStreamEnabled) {
+        this.subscribeForSAGA(handler.getTopicToSubscribe(), handler);
+      }
     });
   }
 
@@ -72,9 +100,13 @@ public class MessageSubscriber {
       if (message != null) {
         log.info("Message received subject :: {},  replyTo :: {}, subscriptionID :: {}", message.getSubject(), message.getReplyTo(), message.getSID());
         try {
-          final var eventString = new String(message.getData());
-          final var event = JsonUtil.getJsonObjectFromString(Event.class, eventString);
-          eventHandler.handleEvent(event);
+          final var event = JsonUtil.getJsonObjectFromByteArray(Event.class, message.getData());
+          // the step runs on the subscriber executor, its exception fails the future and is not thrown here.
+          eventHandler.handleEvent(event).whenComplete((result, e) -> {
+            if (e != null) {
+              log.error("Exception while handling event :: {} of subject :: {}", event, message.getSubject(), e);
+            }
+          });
         } catch (final Exception e) {
           log.error("Exception ", e);
         }
@@ -96,13 +128,48 @@ public class MessageSubscriber {
   }
 
   /**
-   * Subscribe the topic on messages for API
+   * Subscribe the topic on messages for API. It stays on core NATS when JetStream is enabled, so the request/reply callers get the reply on their inbox.
    */
   @PostConstruct
   public void subscribe() {
     final String queue = TopicsEnum.MACRO_API_TOPIC.toString().replace("_", "-");
     final var dispatcher = this.connection.createDispatcher(this.onMessage());
     dispatcher.subscribe(TopicsEnum.MACRO_API_TOPIC.toString(), queue);
+    this.subscribeForCatalogInvalidation();
+    this.subscribeForSagaAdmissionRelease();
+  }
+
+  /**
+   * Subscribe the topic on macro catalog invalidation messages.
+   * No queue group is used here, every pod must receive the message to drop its own cache entries.
+   */
+  private void subscribeForCatalogInvalidation() {
+    final var dispatcher = this.connection.createDispatcher((Message message) -> {
+      if (message != null) {
+        if (log.isDebugEnabled()) {
+          log.debug("macro catalog invalidation received for macro :: {}", new String(message.getData(), StandardCharsets.UTF_8));
+        }
+        this.macroCatalogCache.invalidateAll();
+      }
+    });
+    dispatcher.subscribe(TopicsEnum.MACRO_CATALOG_INVALIDATION_TOPIC.toString());
+  }
+
+  /**
+   * Subscribe the topic on saga admission release messages.
+   * No queue group is used here, the pod which admitted the saga is not necessarily the one which completed it.
+   */
+  private void subscribeForSagaAdmissionRelease() {
+    final var dispatcher = this.connection.createDispatcher((Message message) -> {
+      if (message != null) {
+        try {
+          this.sagaAdmissionRegistry.release(UUID.fromString(new String(message.getData(), StandardCharsets.UTF_8)));
+        } catch (final IllegalArgumentException e) {
+          log.error("Invalid macro id in saga admission release message", e);
+        }
+      }
+    });
+    dispatcher.subscribe(TopicsEnum.MACRO_SAGA_ADMISSION_RELEASE_TOPIC.toString());
   }
 
   /**
@@ -115,9 +182,8 @@ public class MessageSubscriber {
       if (message != null) {
         log.info("Message received is :: {} ", message);
         try {
-          final var eventString = new String(message.getData());
-          LogHelper.logMessagingEventDetails(eventString);
-          final var event = JsonUtil.getJsonObjectFromString(Event.class, eventString);
+          LogHelper.logMessagingEventDetails(new String(message.getData(), StandardCharsets.UTF_8));
+          final var event = JsonUtil.getJsonObjectFromByteArray(Event.class, message.getData());
           this.eventHandlerDelegatorService.handleEvent(event, message);
           log.debug("Event is :: {}", event);
         } catch (final Exception e) {
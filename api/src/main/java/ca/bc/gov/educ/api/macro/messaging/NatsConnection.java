@@ -1,13 +1,12 @@
 package ca.bc.gov.educ.api.macro.messaging;
 
+import ca.bc.gov.educ.api.macro.config.ExecutorFactory;
 import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.nats.client.Connection;
 import io.nats.client.ConnectionListener;
 import io.nats.client.Nats;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.jboss.threads.EnhancedQueueExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
@@ -15,6 +14,7 @@ import org.springframework.stereotype.Component;
 import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 /**
  * The type Nats connection.
@@ -32,12 +32,14 @@ public class NatsConnection implements Closeable {
    * Instantiates a new Nats connection.
    *
    * @param applicationProperties the application properties
+   * @param executorFactory       the executor factory
    * @throws IOException          the io exception
    * @throws InterruptedException the interrupted exception
    */
   @Autowired
-  public NatsConnection(final ApplicationProperties applicationProperties) throws IOException, InterruptedException {
-    this.natsCon = this.connectToNats(applicationProperties.getServer(), applicationProperties.getMaxReconnect(), applicationProperties.getConnectionName());
+  public NatsConnection(final ApplicationProperties applicationProperties, final ExecutorFactory executorFactory) throws IOException, InterruptedException {
+    this.natsCon = this.connectToNats(applicationProperties.getServer(), applicationProperties.getMaxReconnect(), applicationProperties.getConnectionName(),
+        executorFactory.natsExecutor("core-nats-%d", applicationProperties.getNatsExecutorCorePoolSize(), applicationProperties.getNatsExecutorMaxPoolSize()));
   }
 
   /**
@@ -56,20 +58,19 @@ public class NatsConnection implements Closeable {
    * @param serverUrl      the server url
    * @param maxReconnect   the max reconnect
    * @param connectionName the connection name
+   * @param executor       the executor of the connection
    * @return the connection
    * @throws IOException          the io exception
    * @throws InterruptedException the interrupted exception
    */
-  private Connection connectToNats(final String serverUrl, final int maxReconnect, final String connectionName) throws IOException, InterruptedException {
+  private Connection connectToNats(final String serverUrl, final int maxReconnect, final String connectionName, final ExecutorService executor) throws IOException, InterruptedException {
     final io.nats.client.Options natsOptions = new io.nats.client.Options.Builder()
         .connectionListener(this::connectionListener)
         .maxPingsOut(5)
         .pingInterval(Duration.ofSeconds(2))
         .connectionName(connectionName)
         .connectionTimeout(Duration.ofSeconds(5))
-        .executor(new EnhancedQueueExecutor.Builder()
-            .setThreadFactory(new ThreadFactoryBuilder().setNameFormat("core-nats-%d").build())
-            .setCorePoolSize(10).setMaximumPoolSize(50).setKeepAliveTime(Duration.ofSeconds(60)).build())
+        .executor(executor)
         .maxReconnects(maxReconnect)
         .reconnectWait(Duration.ofSeconds(2))
         .servers(new String[]{serverUrl})
@@ -1,6 +1,8 @@
 package ca.bc.gov.educ.api.macro.model;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import jakarta.persistence.*;
@@ -10,14 +12,28 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * The macro, kept in the second level cache region of the macros when the second level cache is enabled.
+ */
 @Data
 @Entity
-@Table(name = "MACRO")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MacroEntity.CACHE_REGION)
+@Table(name = "MACRO", uniqueConstraints = {@UniqueConstraint(name = "MACRO_BUSINESS_USE_TYPE_CODE_MACRO_TYPE_CODE_MACRO_CODE_UK", columnNames = {"BUSINESS_USE_TYPE_CODE", "MACRO_TYPE_CODE", "MACRO_CODE"})})
 public class MacroEntity {
+  /**
+   * The second level cache region of the macros.
+   */
+  public static final String CACHE_REGION = "macro";
+  /**
+   * The query cache region of the macro finder queries.
+   */
+  public static final String QUERY_CACHE_REGION = "macro-query";
+
   @Id
   @GeneratedValue(generator = "UUID")
   @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator", parameters = {
-          @org.hibernate.annotations.Parameter(name = "uuid_gen_strategy_class", value = "org.hibernate.id.uuid.CustomVersionOneStrategy")})
+          @org.hibernate.annotations.Parameter(name = "uuid_gen_strategy_class", value = "ca.bc.gov.educ.api.macro.model.TimeOrderedUUIDStrategy")})
   @Column(name = "MACRO_ID", unique = true, updatable = false, columnDefinition = "BINARY(16)")
   UUID macroId;
 
@@ -46,4 +62,8 @@ public class MacroEntity {
   @PastOrPresent
   @Column(name = "UPDATE_DATE")
   LocalDateTime updateDate;
+
+  @Version
+  @Column(name = "VERSION")
+  Long version;
 }
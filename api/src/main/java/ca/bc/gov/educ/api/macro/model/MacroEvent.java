@@ -1,5 +1,6 @@
 package ca.bc.gov.educ.api.macro.model;
 
+import ca.bc.gov.educ.api.macro.codec.PayloadCodecConverter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -54,7 +55,7 @@ public class MacroEvent {
   @Id
   @GeneratedValue(generator = "UUID")
   @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator", parameters = {
-      @Parameter(name = "uuid_gen_strategy_class", value = "org.hibernate.id.uuid.CustomVersionOneStrategy")})
+      @Parameter(name = "uuid_gen_strategy_class", value = "ca.bc.gov.educ.api.macro.model.TimeOrderedUUIDStrategy")})
   @Column(name = "EVENT_ID", unique = true, updatable = false, columnDefinition = "BINARY(16)")
   private UUID eventId;
   /**
@@ -62,6 +63,7 @@ public class MacroEvent {
    */
   @NotNull(message = "eventPayload cannot be null")
   @Lob
+  @Convert(converter = PayloadCodecConverter.class)
   @Column(name = "EVENT_PAYLOAD")
   private byte[] eventPayloadBytes;
   /**
@@ -1,9 +1,12 @@
 package ca.bc.gov.educ.api.macro.model;
 
+import ca.bc.gov.educ.api.macro.codec.PayloadCodecConverter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
 
@@ -32,7 +35,7 @@ public class Saga {
   @Id
   @GeneratedValue(generator = "UUID")
   @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator", parameters = {
-      @org.hibernate.annotations.Parameter(name = "uuid_gen_strategy_class", value = "org.hibernate.id.uuid.CustomVersionOneStrategy")})
+      @org.hibernate.annotations.Parameter(name = "uuid_gen_strategy_class", value = "ca.bc.gov.educ.api.macro.model.TimeOrderedUUIDStrategy")})
   @Column(name = "SAGA_ID", unique = true, updatable = false, columnDefinition = "BINARY(16)")
   UUID sagaId;
 
@@ -61,6 +64,10 @@ public class Saga {
    */
   @NotNull(message = "payload cannot be null")
   @Lob
+  @Basic(fetch = FetchType.LAZY)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @Convert(converter = PayloadCodecConverter.class)
   @Column(name = "PAYLOAD")
   byte[] payloadBytes;
 
@@ -104,6 +111,25 @@ public class Saga {
   @Column(name = "RETRY_COUNT")
   private Integer retryCount;
 
+  /**
+   * The Version, incremented by every update, which is conditional on it.
+   */
+  @Version
+  @Column(name = "VERSION")
+  Long version;
+
+  /**
+   * The replay batch which holds the lease on the saga, only written by the replay scheduler with its own update statements.
+   */
+  @Column(name = "REPLAY_OWNER", insertable = false, updatable = false)
+  String replayOwner;
+
+  /**
+   * Until when the saga is leased to its replay owner, no other pod replays it before then.
+   */
+  @Column(name = "REPLAY_LEASE_EXPIRES_AT", insertable = false, updatable = false)
+  LocalDateTime replayLeaseExpiresAt;
+
   /**
    * Gets payload.
    *
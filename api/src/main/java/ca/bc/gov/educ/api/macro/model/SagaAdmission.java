@@ -0,0 +1,69 @@
+package ca.bc.gov.educ.api.macro.model;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The type Saga admission, one row per macro which has a saga in flight.
+ * The primary key on the macro id is what stops two pods from starting a saga for the same macro. The key is the macro alone, not the macro and the
+ * saga name as the in flight check before it was, so a create and an update saga of the same macro no longer run together.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "MACRO_SAGA_ADMISSION")
+public class SagaAdmission implements Persistable<UUID> {
+  /**
+   * The Macro id.
+   */
+  @Id
+  @Column(name = "MACRO_ID", unique = true, updatable = false, columnDefinition = "BINARY(16)")
+  UUID macroId;
+
+  /**
+   * The Saga id holding the macro.
+   */
+  @Column(name = "SAGA_ID", nullable = false, updatable = false, columnDefinition = "BINARY(16)")
+  UUID sagaId;
+
+  /**
+   * The Create date.
+   */
+  @Column(name = "CREATE_DATE", updatable = false)
+  LocalDateTime createDate;
+
+  /**
+   * The id is assigned, so the row is marked new until it is persisted or loaded, otherwise save would merge over the existing row instead of failing on the key.
+   */
+  @Transient
+  @Builder.Default
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  boolean newAdmission = true;
+
+  @Override
+  public UUID getId() {
+    return this.macroId;
+  }
+
+  @Override
+  public boolean isNew() {
+    return this.newAdmission;
+  }
+
+  /**
+   * Mark not new.
+   */
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.newAdmission = false;
+  }
+}
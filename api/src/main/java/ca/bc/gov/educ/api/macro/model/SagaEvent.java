@@ -1,5 +1,6 @@
 package ca.bc.gov.educ.api.macro.model;
 
+import ca.bc.gov.educ.api.macro.codec.PayloadCodecConverter;
 import lombok.*;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
@@ -30,7 +31,7 @@ public class SagaEvent {
   @Id
   @GeneratedValue(generator = "UUID")
   @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator", parameters = {
-      @org.hibernate.annotations.Parameter(name = "uuid_gen_strategy_class", value = "org.hibernate.id.uuid.CustomVersionOneStrategy")})
+      @org.hibernate.annotations.Parameter(name = "uuid_gen_strategy_class", value = "ca.bc.gov.educ.api.macro.model.TimeOrderedUUIDStrategy")})
   @Column(name = "SAGA_EVENT_ID", unique = true, updatable = false, columnDefinition = "BINARY(16)")
   UUID sagaEventId;
 
@@ -69,6 +70,10 @@ public class SagaEvent {
    * The Saga event response.
    */
   @Lob
+  @Basic(fetch = FetchType.LAZY)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @Convert(converter = PayloadCodecConverter.class)
   @Column(name = "SAGA_EVENT_RESPONSE")
   byte[] sagaEventResponseBytes;
 
@@ -0,0 +1,61 @@
+package ca.bc.gov.educ.api.macro.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns of a {@link Saga} without its payload, read by the saga list queries so that no PAYLOAD LOB is fetched for a list view.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SagaSummary {
+  /**
+   * The Saga id.
+   */
+  private final UUID sagaId;
+  /**
+   * The Saga name.
+   */
+  private final String sagaName;
+  /**
+   * The Saga state.
+   */
+  private final String sagaState;
+  /**
+   * The Macro id.
+   */
+  private final UUID macroId;
+  /**
+   * The Status.
+   */
+  private final String status;
+  /**
+   * The Create user.
+   */
+  private final String createUser;
+  /**
+   * The Update user.
+   */
+  private final String updateUser;
+  /**
+   * The Create date.
+   */
+  private final LocalDateTime createDate;
+  /**
+   * The Update date.
+   */
+  private final LocalDateTime updateDate;
+  /**
+   * The Retry count.
+   */
+  private final Integer retryCount;
+  /**
+   * The Version.
+   */
+  private final Long version;
+}
@@ -3,12 +3,14 @@ package ca.bc.gov.educ.api.macro.orchestrator;
 import ca.bc.gov.educ.api.macro.constants.BusinessUseTypeCodes;
 import ca.bc.gov.educ.api.macro.constants.EventType;
 import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.messaging.LocalEventDispatcher;
 import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
 import ca.bc.gov.educ.api.macro.model.SagaEvent;
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
 import ca.bc.gov.educ.api.macro.struct.v1.MacroEditNotificationEvent;
 import ca.bc.gov.educ.api.macro.model.Saga;
 import ca.bc.gov.educ.api.macro.orchestrator.base.BaseOrchestrator;
+import ca.bc.gov.educ.api.macro.orchestrator.base.SagaMetrics;
 import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
 import ca.bc.gov.educ.api.macro.service.SagaService;
 import ca.bc.gov.educ.api.macro.struct.v1.Macro;
@@ -34,13 +36,15 @@ public abstract class BaseMacroOrchestrator extends BaseOrchestrator<Macro> {
    *
    * @param sagaService      the saga service
    * @param messagePublisher the message publisher
+   * @param localEventDispatcher the local event dispatcher
+   * @param sagaMetrics      the saga metrics
    * @param properties       the application properties
    * @param sagaName         the saga name
    * @param topicToSubscribe the topic to subscribe
    */
-  public BaseMacroOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final ApplicationProperties properties,
-                               final String sagaName, final String topicToSubscribe) {
-    super(sagaService, messagePublisher, Macro.class, sagaName, topicToSubscribe);
+  public BaseMacroOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final LocalEventDispatcher localEventDispatcher,
+                               final SagaMetrics sagaMetrics, final ApplicationProperties properties, final String sagaName, final String topicToSubscribe) {
+    super(sagaService, messagePublisher, localEventDispatcher, sagaMetrics, Macro.class, sagaName, topicToSubscribe);
     this.properties = properties;
   }
 
@@ -2,8 +2,10 @@ package ca.bc.gov.educ.api.macro.orchestrator;
 
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
 import ca.bc.gov.educ.api.macro.struct.v1.Macro;
+import ca.bc.gov.educ.api.macro.messaging.LocalEventDispatcher;
 import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
 import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.orchestrator.base.SagaMetrics;
 import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
 import ca.bc.gov.educ.api.macro.service.SagaService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -27,10 +29,13 @@ public class CreateMacroOrchestrator extends BaseMacroOrchestrator {
    *
    * @param sagaService      the saga service
    * @param messagePublisher the message publisher
+   * @param localEventDispatcher the local event dispatcher
+   * @param sagaMetrics      the saga metrics
    * @param properties       the application properties
    */
-  public CreateMacroOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final ApplicationProperties properties) {
-    super(sagaService, messagePublisher, properties, MACRO_CREATE_SAGA.toString(), MACRO_CREATE_SAGA_TOPIC.toString());
+  public CreateMacroOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final LocalEventDispatcher localEventDispatcher, final SagaMetrics sagaMetrics,
+                                 final ApplicationProperties properties) {
+    super(sagaService, messagePublisher, localEventDispatcher, sagaMetrics, properties, MACRO_CREATE_SAGA.toString(), MACRO_CREATE_SAGA_TOPIC.toString());
   }
 
   /**
@@ -41,6 +46,8 @@ public class CreateMacroOrchestrator extends BaseMacroOrchestrator {
     this.stepBuilder()
         .begin(CREATE_MACRO, this::createMacro)
         .step(CREATE_MACRO, MACRO_CREATED, NOTIFY_MACRO_CREATE, this::sendMacroCreateEmail)
+        .or()
+        .end(CREATE_MACRO, MACRO_ALREADY_EXISTS)
         .end(NOTIFY_MACRO_CREATE, NOTIFIED);
   }
 
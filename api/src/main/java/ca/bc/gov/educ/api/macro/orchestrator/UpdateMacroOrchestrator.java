@@ -5,8 +5,10 @@ import ca.bc.gov.educ.api.macro.constants.EventType;
 import ca.bc.gov.educ.api.macro.constants.SagaEnum;
 import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.messaging.LocalEventDispatcher;
 import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
 import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.orchestrator.base.SagaMetrics;
 import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
 import ca.bc.gov.educ.api.macro.service.SagaService;
 import ca.bc.gov.educ.api.macro.struct.v1.Macro;
@@ -26,14 +28,18 @@ public class UpdateMacroOrchestrator extends BaseMacroOrchestrator {
    *
    * @param sagaService      the saga service
    * @param messagePublisher the message publisher
+   * @param localEventDispatcher the local event dispatcher
+   * @param sagaMetrics      the saga metrics
    * @param properties       the application properties
    */
-  public UpdateMacroOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final ApplicationProperties properties) {
-    super(sagaService, messagePublisher, properties, SagaEnum.MACRO_UPDATE_SAGA.toString(), TopicsEnum.MACRO_UPDATE_SAGA_TOPIC.toString());
+  public UpdateMacroOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final LocalEventDispatcher localEventDispatcher, final SagaMetrics sagaMetrics,
+                                 final ApplicationProperties properties) {
+    super(sagaService, messagePublisher, localEventDispatcher, sagaMetrics, properties, SagaEnum.MACRO_UPDATE_SAGA.toString(), TopicsEnum.MACRO_UPDATE_SAGA_TOPIC.toString());
   }
 
   /**
    * Populate steps to execute map.
+   * The saga ends without a notification email when the macro was not updated, as it was changed since the version of the saga or is gone.
    */
   @Override
   public void populateStepsToExecuteMap() {
@@ -41,6 +47,8 @@ public class UpdateMacroOrchestrator extends BaseMacroOrchestrator {
         .begin(EventType.UPDATE_MACRO, this::updateMacro)
         .step(EventType.UPDATE_MACRO, EventOutcome.MACRO_UPDATED, EventType.NOTIFY_MACRO_UPDATE, this::sendMacroUpdateEmail)
         .end(EventType.NOTIFY_MACRO_UPDATE, EventOutcome.NOTIFIED);
+    this.registerStepToExecute(EventType.UPDATE_MACRO, EventOutcome.MACRO_VERSION_CONFLICT, sagaData -> true, EventType.MARK_SAGA_COMPLETE, this::markMacroNotUpdated);
+    this.registerStepToExecute(EventType.UPDATE_MACRO, EventOutcome.MACRO_NOT_FOUND, sagaData -> true, EventType.MARK_SAGA_COMPLETE, this::markMacroNotUpdated);
   }
 
   /**
@@ -67,4 +75,15 @@ public class UpdateMacroOrchestrator extends BaseMacroOrchestrator {
   protected void sendMacroUpdateEmail(final Event event, final Saga saga, final Macro macroSagaData) throws JsonProcessingException {
     this.sendMacroEditEmail(event, saga, macroSagaData, EventType.NOTIFY_MACRO_UPDATE);
   }
+
+  /**
+   * mark the saga complete, the outcome of the update is the payload of the completion message, so the caller knows the macro was not updated
+   *
+   * @param event                          the event
+   * @param saga                           the saga
+   * @param macroSagaData                  the macro saga data
+   */
+  protected void markMacroNotUpdated(final Event event, final Saga saga, final Macro macroSagaData) {
+    this.markSagaComplete(event, saga, macroSagaData, event.getEventOutcome().toString());
+  }
 }
@@ -2,6 +2,7 @@ package ca.bc.gov.educ.api.macro.orchestrator.base;
 
 import ca.bc.gov.educ.api.macro.constants.EventOutcome;
 import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.messaging.LocalEventDispatcher;
 import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
 import ca.bc.gov.educ.api.macro.model.SagaEvent;
 import ca.bc.gov.educ.api.macro.service.SagaService;
@@ -19,10 +20,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.validation.constraints.NotNull;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static ca.bc.gov.educ.api.macro.constants.SagaStatusEnum.COMPLETED;
 import static lombok.AccessLevel.PROTECTED;
@@ -51,6 +55,19 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    * The Next steps to execute.
    */
   protected final Map<EventType, List<SagaEventState<T>>> nextStepsToExecute = new LinkedHashMap<>();
+  /**
+   * The steps of {@link #nextStepsToExecute} frozen once the saga is defined, indexed by the ordinal of the current event type and of its outcome.
+   * The states of a pair are in the order they were registered in, each wrapped once in the optional returned for it.
+   */
+  private final Optional<SagaEventState<T>>[][][] transitionTable;
+  /**
+   * The position of every event type in the saga definition, indexed by the ordinal of the event type, -1 for the event types the saga does not define.
+   */
+  private final int[] stepOrdinals;
+  /**
+   * The position of every event type in the saga definition by the name of the event type, for the saga state stored in the database.
+   */
+  private final Map<String, Integer> stepOrdinalsBySagaState;
   /**
    * The Saga service.
    */
@@ -61,6 +78,16 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    */
   @Getter(PROTECTED)
   private final MessagePublisher messagePublisher;
+  /**
+   * The Local event dispatcher.
+   */
+  @Getter(PROTECTED)
+  private final LocalEventDispatcher localEventDispatcher;
+  /**
+   * The Saga metrics.
+   */
+  @Getter(PROTECTED)
+  private final SagaMetrics sagaMetrics;
   /**
    * The Saga name.
    */
@@ -82,19 +109,44 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    *
    * @param sagaService      the saga service
    * @param messagePublisher the message publisher
+   * @param localEventDispatcher the local event dispatcher
+   * @param sagaMetrics      the saga metrics
    * @param clazz            the clazz
    * @param sagaName         the saga name
    * @param topicToSubscribe the topic to subscribe
    */
-  protected BaseOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher,
-                             final Class<T> clazz, final String sagaName,
+  protected BaseOrchestrator(final SagaService sagaService, final MessagePublisher messagePublisher, final LocalEventDispatcher localEventDispatcher,
+                             final SagaMetrics sagaMetrics, final Class<T> clazz, final String sagaName,
                              final String topicToSubscribe) {
     this.sagaService = sagaService;
     this.messagePublisher = messagePublisher;
+    this.localEventDispatcher = localEventDispatcher;
+    this.sagaMetrics = sagaMetrics;
     this.clazz = clazz;
     this.sagaName = sagaName;
     this.topicToSubscribe = topicToSubscribe;
     this.populateStepsToExecuteMap();
+    this.transitionTable = this.compileTransitionTable();
+    val definedEventTypes = new ArrayList<>(this.nextStepsToExecute.keySet());
+    this.stepOrdinals = Arrays.stream(EventType.values()).mapToInt(definedEventTypes::indexOf).toArray();
+    this.stepOrdinalsBySagaState = Arrays.stream(EventType.values()).collect(Collectors.toUnmodifiableMap(EventType::toString, eventType -> this.stepOrdinals[eventType.ordinal()]));
+  }
+
+  /**
+   * Freeze the steps of the saga definition into a table indexed by event type and outcome ordinals.
+   *
+   * @return the transition table
+   */
+  @SuppressWarnings("unchecked")
+  private Optional<SagaEventState<T>>[][][] compileTransitionTable() {
+    final Optional<SagaEventState<T>>[][][] table = new Optional[EventType.values().length][EventOutcome.values().length][];
+    this.nextStepsToExecute.forEach((eventType, eventStates) -> {
+      for (val outcome : EventOutcome.values()) {
+        final Optional<SagaEventState<T>>[] outcomeStates = eventStates.stream().filter(eventState -> eventState.getCurrentEventOutcome() == outcome).map(Optional::of).toArray(Optional[]::new);
+        table[eventType.ordinal()][outcome.ordinal()] = outcomeStates.length == 0 ? null : outcomeStates;
+      }
+    });
+    return table;
   }
 
   /**
@@ -247,15 +299,14 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    *
    * @param currentEventType current event.
    * @param saga             the model object.
-   * @param eventTypes       event types stored in the hashmap
    * @return true or false based on whether the current event with outcome received from the queue is already processed or not.
    */
-  protected boolean isNotProcessedEvent(final EventType currentEventType, final Saga saga, final Set<EventType> eventTypes) {
-    final EventType eventTypeInDB = EventType.valueOf(saga.getSagaState());
-    final List<EventType> events = new LinkedList<>(eventTypes);
-    final int dbEventIndex = events.indexOf(eventTypeInDB);
-    final int currentEventIndex = events.indexOf(currentEventType);
-    return currentEventIndex >= dbEventIndex;
+  protected boolean isNotProcessedEvent(final EventType currentEventType, final Saga saga) {
+    final Integer dbEventIndex = this.stepOrdinalsBySagaState.get(saga.getSagaState());
+    if (dbEventIndex == null) {
+      throw new IllegalArgumentException("No event type " + saga.getSagaState() + " for saga :: " + saga.getSagaId());
+    }
+    return this.stepOrdinals[currentEventType.ordinal()] >= dbEventIndex;
   }
 
   /**
@@ -322,6 +373,9 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
     saga.setStatus(COMPLETED.toString());
     saga.setUpdateDate(LocalDateTime.now());
     this.getSagaService().updateAttachedSagaWithEvents(saga, sagaEvent);
+    if (saga.getCreateDate() != null) {
+      this.getSagaMetrics().recordSagaCompleted(this.getSagaName(), event.getEventOutcome(), Duration.between(saga.getCreateDate(), saga.getUpdateDate()));
+    }
 
   }
 
@@ -332,17 +386,20 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    * @return step number that was calculated.
    */
   private int calculateStep(final Saga saga) {
-    val sagaStates = this.getSagaService().findAllSagaStates(saga);
-    return (sagaStates.size() + 1);
+    return this.getSagaService().findLastSagaStepNumber(saga) + 1;
   }
 
   /**
    * convenient method to post message to topic, to be used by child classes.
+   * The events for a topic this api consumes itself are handed to the in-process handler when local dispatch is enabled, NATS is used otherwise.
    *
    * @param topicName topic name where the message will be posted.
    * @param nextEvent the next event object.
    */
   protected void postMessageToTopic(final String topicName, final Event nextEvent) {
+    if (this.getLocalEventDispatcher() != null && this.getLocalEventDispatcher().dispatch(topicName, nextEvent)) {
+      return;
+    }
     final var eventStringOptional = JsonUtil.getJsonString(nextEvent);
     if (eventStringOptional.isPresent()) {
       this.getMessagePublisher().dispatchMessage(topicName, eventStringOptional.get().getBytes());
@@ -351,21 +408,11 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
     }
   }
 
-  /**
-   * it finds the last event that was processed successfully for this saga.
-   *
-   * @param eventStates event states corresponding to the Saga.
-   * @return {@link SagaEvent} if found else null.
-   */
-  protected Optional<SagaEvent> findTheLastEventOccurred(final List<SagaEvent> eventStates) {
-    final int step = eventStates.stream().map(SagaEvent::getSagaStepNumber).mapToInt(x -> x).max().orElse(0);
-    return eventStates.stream().filter(element -> element.getSagaStepNumber() == step).findFirst();
-  }
-
   /**
    * this method is called from the cron job , which will replay the saga process based on its current state.
    *
-   * @param saga the model object.
+   * @param sagaToReplay the model object.
+   * @return the future which completes once the replay is done, so that the caller can bound the replays in flight.
    * @throws IOException          if there is connectivity problem
    * @throws InterruptedException if thread is interrupted.
    * @throws TimeoutException     if connection to messaging system times out.
@@ -373,40 +420,39 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
   @Override
   @Transactional
   @Async("taskExecutor")
-  public void replaySaga(final Saga saga) throws IOException, InterruptedException, TimeoutException {
-    final var eventStates = this.getSagaService().findAllSagaStates(saga);
+  public CompletableFuture<Void> replaySaga(final Saga sagaToReplay) throws IOException, InterruptedException, TimeoutException {
+    // the saga of the replay scan is detached and its payload is loaded lazily, so it is read again in this transaction.
+    final var saga = this.getSagaService().findDetachedSagaById(sagaToReplay.getSagaId()).orElse(sagaToReplay);
+    final var lastEventState = this.getSagaService().findLastSagaState(saga);
     final var t = JsonUtil.getJsonObjectFromString(this.clazz, saga.getPayload());
-    if (eventStates.isEmpty()) { //process did not start last time, lets start from beginning.
+    if (lastEventState.isEmpty()) { //process did not start last time, lets start from beginning.
       this.replayFromBeginning(saga, t);
     } else {
-      this.replayFromLastEvent(saga, eventStates, t);
+      this.replayFromLastEvent(saga, lastEventState.get(), t);
     }
+    return CompletableFuture.completedFuture(null);
   }
 
   /**
    * This method will restart the saga process from where it was left the last time. which could occur due to various reasons
    *
-   * @param saga        the model object.
-   * @param eventStates the event states corresponding to the saga
-   * @param t           the payload string as an object
+   * @param saga      the model object.
+   * @param sagaEvent the last event state of the saga
+   * @param t         the payload string as an object
    * @throws InterruptedException if thread is interrupted.
    * @throws TimeoutException     if connection to messaging system times out.
    * @throws IOException          if there is connectivity problem
    */
-  private void replayFromLastEvent(final Saga saga, final List<SagaEvent> eventStates, final T t) throws InterruptedException, TimeoutException, IOException {
-    val sagaEventOptional = this.findTheLastEventOccurred(eventStates);
-    if (sagaEventOptional.isPresent()) {
-      val sagaEvent = sagaEventOptional.get();
-      log.trace(sagaEventOptional.toString());
-      final EventType currentEvent = EventType.valueOf(sagaEvent.getSagaEventState());
-      final EventOutcome eventOutcome = EventOutcome.valueOf(sagaEvent.getSagaEventOutcome());
-      final Event event = Event.builder()
-          .eventOutcome(eventOutcome)
-          .eventType(currentEvent)
-          .eventPayload(sagaEvent.getSagaEventResponse())
-          .build();
-      this.findAndInvokeNextStep(saga, t, currentEvent, eventOutcome, event);
-    }
+  private void replayFromLastEvent(final Saga saga, final SagaEvent sagaEvent, final T t) throws InterruptedException, TimeoutException, IOException {
+    log.trace("replaying from last event state :: {}", sagaEvent);
+    final EventType currentEvent = EventType.valueOf(sagaEvent.getSagaEventState());
+    final EventOutcome eventOutcome = EventOutcome.valueOf(sagaEvent.getSagaEventOutcome());
+    final Event event = Event.builder()
+        .eventOutcome(eventOutcome)
+        .eventType(currentEvent)
+        .eventPayload(sagaEvent.getSagaEventResponse())
+        .build();
+    this.findAndInvokeNextStep(saga, t, currentEvent, eventOutcome, event);
   }
 
   /**
@@ -450,6 +496,7 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    * this method is called if there is a new message on this specific topic which this service is listening.
    *
    * @param event the event
+   * @return the future, completed once the transaction of the step is committed
    * @throws InterruptedException if thread is interrupted.
    * @throws IOException          if there is connectivity problem
    * @throws TimeoutException     if connection to messaging system times out.
@@ -457,15 +504,30 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
   @Override
   @Async("subscriberExecutor")
   @Transactional
-  public void handleEvent(@NotNull final Event event) throws InterruptedException, IOException, TimeoutException {
+  public CompletableFuture<Void> handleEvent(@NotNull final Event event) throws InterruptedException, IOException, TimeoutException {
+    return this.processEvent(event);
+  }
+
+  /**
+   * Process the event on the calling thread, for callers which already run on the subscriber executor.
+   *
+   * @param event the event
+   * @return the future, completed once the transaction of the step is committed
+   * @throws InterruptedException if thread is interrupted.
+   * @throws IOException          if there is connectivity problem
+   * @throws TimeoutException     if connection to messaging system times out.
+   */
+  @Override
+  @Transactional
+  public CompletableFuture<Void> processEvent(@NotNull final Event event) throws InterruptedException, IOException, TimeoutException {
     log.info("executing saga event {}", event);
     if (this.sagaEventExecutionNotRequired(event)) {
       log.trace("Execution is not required for this message returning EVENT is :: {}", event);
-      return;
+      return CompletableFuture.completedFuture(null);
     }
     this.broadcastSagaInitiatedMessage(event);
 
-    final var sagaOptional = this.getSagaService().findSagaById(event.getSagaId()); // system expects a saga record to be present here.
+    final var sagaOptional = this.getSagaService().findDetachedSagaById(event.getSagaId()); // system expects a saga record to be present here.
     if (sagaOptional.isPresent()) {
       val saga = sagaOptional.get();
       if (!COMPLETED.toString().equalsIgnoreCase(sagaOptional.get().getStatus())) {//possible duplicate message or force stop scenario check
@@ -483,6 +545,7 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
     } else {
       log.error("Saga process without DB record is not expected. {}", event);
     }
+    return CompletableFuture.completedFuture(null);
   }
 
   /**
@@ -539,7 +602,7 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
   }
 
   /**
-   * this method finds the next event that needs to be executed.
+   * this method finds the next event that needs to be executed, a lookup in the transition table which allocates nothing.
    *
    * @param currentEvent current event
    * @param eventOutcome event outcome.
@@ -547,10 +610,15 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    * @return {@link Optional<SagaEventState>}
    */
   protected Optional<SagaEventState<T>> findNextSagaEventState(final EventType currentEvent, final EventOutcome eventOutcome, final T sagaData) {
-    val sagaEventStates = this.nextStepsToExecute.get(currentEvent);
-    return sagaEventStates == null ? Optional.empty() : sagaEventStates.stream().filter(el ->
-        el.getCurrentEventOutcome() == eventOutcome && el.nextStepPredicate.test(sagaData)
-    ).findFirst();
+    final Optional<SagaEventState<T>>[] sagaEventStates = this.transitionTable[currentEvent.ordinal()][eventOutcome.ordinal()];
+    if (sagaEventStates != null) {
+      for (final Optional<SagaEventState<T>> sagaEventState : sagaEventStates) {
+        if (sagaEventState.get().getNextStepPredicate().test(sagaData)) {
+          return sagaEventState;
+        }
+      }
+    }
+    return Optional.empty();
   }
 
   /**
@@ -566,8 +634,11 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    */
   protected void process(@NotNull final Event event, final Saga saga, final T sagaData, final SagaEventState<T> sagaEventState) throws InterruptedException, TimeoutException, IOException {
     if (!saga.getSagaState().equalsIgnoreCase(COMPLETED.toString())
-        && this.isNotProcessedEvent(event.getEventType(), saga, this.nextStepsToExecute.keySet())) {
+        && this.isNotProcessedEvent(event.getEventType(), saga)) {
       log.info(SYSTEM_IS_GOING_TO_EXECUTE_NEXT_EVENT_FOR_CURRENT_EVENT, sagaEventState.getNextEventType(), event, saga.getSagaId());
+      if (event.getEventType() != EventType.INITIATED && saga.getUpdateDate() != null) { // the saga was last updated by the step this event replies to.
+        this.getSagaMetrics().recordReplyWait(this.getSagaName(), event.getEventType(), event.getEventOutcome(), Duration.between(saga.getUpdateDate(), LocalDateTime.now()));
+      }
       this.invokeNextEvent(event, saga, sagaData, sagaEventState);
     } else {
       log.info("ignoring this message as we have already processed it or it is completed. {}", event.toString()); // it is expected to receive duplicate message in saga pattern, system should be designed to handle duplicates.
@@ -587,7 +658,14 @@ public abstract class BaseOrchestrator<T> implements EventHandler, Orchestrator
    */
   protected void invokeNextEvent(final Event event, final Saga saga, final T sagaData, final SagaEventState<T> sagaEventState) throws InterruptedException, TimeoutException, IOException {
     final SagaStep<T> stepToExecute = sagaEventState.getStepToExecute();
-    stepToExecute.apply(event, saga, sagaData);
+    final long startTime = System.nanoTime();
+    boolean failed = true;
+    try {
+      stepToExecute.apply(event, saga, sagaData);
+      failed = false;
+    } finally {
+      this.getSagaMetrics().recordStep(this.getSagaName(), sagaEventState.getNextEventType(), event.getEventOutcome(), System.nanoTime() - startTime, failed);
+    }
   }
 
   /**
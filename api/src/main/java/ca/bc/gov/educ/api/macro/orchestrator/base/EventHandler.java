@@ -3,6 +3,7 @@ package ca.bc.gov.educ.api.macro.orchestrator.base;
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 
@@ -14,11 +15,23 @@ public interface EventHandler {
    * On event.
    *
    * @param event the event
+   * @return the future, completed once the event is handled and its changes are committed
    * @throws InterruptedException the interrupted exception
    * @throws IOException          the io exception
    * @throws TimeoutException     the timeout exception
    */
-  void handleEvent(Event event) throws InterruptedException, IOException, TimeoutException;
+  CompletableFuture<Void> handleEvent(Event event) throws InterruptedException, IOException, TimeoutException;
+
+  /**
+   * On event, on the calling thread.
+   *
+   * @param event the event
+   * @return the future, completed once the event is handled and its changes are committed
+   * @throws InterruptedException the interrupted exception
+   * @throws IOException          the io exception
+   * @throws TimeoutException     the timeout exception
+   */
+  CompletableFuture<Void> processEvent(Event event) throws InterruptedException, IOException, TimeoutException;
 
   /**
    * Get message topic to subscribe the handler to MessageSubscriber
@@ -4,6 +4,7 @@ import ca.bc.gov.educ.api.macro.model.Saga;
 
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -35,9 +36,10 @@ public interface Orchestrator {
    * Replay saga.
    *
    * @param saga the saga
+   * @return the future which completes once the replay is done
    * @throws IOException          the io exception
    * @throws InterruptedException the interrupted exception
    * @throws TimeoutException     the timeout exception
    */
-  void replaySaga(Saga saga) throws IOException, InterruptedException, TimeoutException;
+  CompletableFuture<Void> replaySaga(Saga saga) throws IOException, InterruptedException, TimeoutException;
 }
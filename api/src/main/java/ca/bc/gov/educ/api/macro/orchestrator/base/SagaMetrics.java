@@ -0,0 +1,152 @@
+package ca.bc.gov.educ.api.macro.orchestrator.base;
+
+import ca.bc.gov.educ.api.macro.constants.EventOutcome;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.constants.SagaStatusEnum;
+import ca.bc.gov.educ.api.macro.repository.SagaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Reports the lifecycle of the sagas to micrometer, tagged with the saga name and, where it applies, the event type and outcome:
+ * the time a step takes, the time the saga waited for the reply to a step, the time from the start to the completion of a saga, the replays with
+ * the retry count of the saga, and the number of sagas in flight per status.
+ */
+@Component
+@Slf4j
+public class SagaMetrics {
+
+  /**
+   * The statuses of the sagas which are not done yet.
+   */
+  private static final List<SagaStatusEnum> IN_FLIGHT_STATUSES = List.of(SagaStatusEnum.STARTED, SagaStatusEnum.IN_PROGRESS);
+
+  /**
+   * The Meter registry.
+   */
+  @Getter(PRIVATE)
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * The Saga repository.
+   */
+  @Getter(PRIVATE)
+  private final SagaRepository sagaRepository;
+
+  /**
+   * The number of sagas in flight per status, as of the last refresh.
+   */
+  private final Map<SagaStatusEnum, AtomicLong> inFlightSagas = new EnumMap<>(SagaStatusEnum.class);
+
+  /**
+   * Instantiates a new Saga metrics.
+   *
+   * @param meterRegistry  the meter registry
+   * @param sagaRepository the saga repository
+   */
+  @Autowired
+  public SagaMetrics(final MeterRegistry meterRegistry, final SagaRepository sagaRepository) {
+    this.meterRegistry = meterRegistry;
+    this.sagaRepository = sagaRepository;
+    IN_FLIGHT_STATUSES.forEach(status -> {
+      val count = new AtomicLong();
+      this.inFlightSagas.put(status, count);
+      Gauge.builder("macro.saga.in.flight", count, AtomicLong::get).tag("status", status.toString()).register(meterRegistry);
+    });
+  }
+
+  /**
+   * Record the execution of a step.
+   *
+   * @param sagaName     the saga name
+   * @param stepEvent    the event type of the step
+   * @param eventOutcome the outcome of the event which triggered the step
+   * @param nanos        the execution time in nanos
+   * @param failed       whether the step threw
+   */
+  public void recordStep(final String sagaName, final EventType stepEvent, final EventOutcome eventOutcome, final long nanos, final boolean failed) {
+    Timer.builder("macro.saga.step")
+        .tag("saga", sagaName)
+        .tag("event_type", String.valueOf(stepEvent))
+        .tag("outcome", String.valueOf(eventOutcome))
+        .tag("result", failed ? "failure" : "success")
+        .publishPercentileHistogram()
+        .register(this.getMeterRegistry())
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Record the time the saga waited for the reply to a step, from the update of the saga by the step to the arrival of the reply.
+   *
+   * @param sagaName     the saga name
+   * @param eventType    the event type of the reply
+   * @param eventOutcome the outcome of the reply
+   * @param wait         the wait
+   */
+  public void recordReplyWait(final String sagaName, final EventType eventType, final EventOutcome eventOutcome, final Duration wait) {
+    Timer.builder("macro.saga.step.reply.wait")
+        .tag("saga", sagaName)
+        .tag("event_type", String.valueOf(eventType))
+        .tag("outcome", String.valueOf(eventOutcome))
+        .publishPercentileHistogram()
+        .register(this.getMeterRegistry())
+        .record(wait.isNegative() ? Duration.ZERO : wait);
+  }
+
+  /**
+   * Record the completion of a saga.
+   *
+   * @param sagaName     the saga name
+   * @param eventOutcome the outcome of the last event of the saga
+   * @param duration     the time from the creation to the completion of the saga
+   */
+  public void recordSagaCompleted(final String sagaName, final EventOutcome eventOutcome, final Duration duration) {
+    Timer.builder("macro.saga.duration")
+        .tag("saga", sagaName)
+        .tag("outcome", String.valueOf(eventOutcome))
+        .publishPercentileHistogram()
+        .register(this.getMeterRegistry())
+        .record(duration.isNegative() ? Duration.ZERO : duration);
+  }
+
+  /**
+   * Record the replay of an uncompleted saga.
+   *
+   * @param sagaName   the saga name
+   * @param retryCount the retry count of the saga, including this replay
+   */
+  public void recordReplay(final String sagaName, final int retryCount) {
+    Counter.builder("macro.saga.replays").tag("saga", sagaName).register(this.getMeterRegistry()).increment();
+    DistributionSummary.builder("macro.saga.retries").tag("saga", sagaName).publishPercentileHistogram().register(this.getMeterRegistry()).record(retryCount);
+  }
+
+  /**
+   * Refresh the number of sagas in flight per status with one grouped count, served from the status index.
+   */
+  @Scheduled(cron = "${scheduled.jobs.saga.metrics.in.flight.cron}")
+  public void refreshInFlightSagas() {
+    final Map<SagaStatusEnum, Long> counts = new EnumMap<>(SagaStatusEnum.class);
+    for (val row : this.getSagaRepository().countByStatusIn(IN_FLIGHT_STATUSES.stream().map(SagaStatusEnum::toString).toList())) {
+      counts.put(SagaStatusEnum.valueOf((String) row[0]), (Long) row[1]);
+    }
+    this.inFlightSagas.forEach((status, count) -> count.set(counts.getOrDefault(status, 0L)));
+  }
+}
@@ -37,6 +37,79 @@ public class ApplicationProperties {
   @Value("${nats.connectionName}")
   private String connectionName;
 
+  /**
+   * The core pool size of the NATS connection executor in PLATFORM executor mode, and in VIRTUAL executor mode when the runtime has no virtual threads.
+   */
+  @Value("${nats.executor.core.pool.size}")
+  private int natsExecutorCorePoolSize;
+  /**
+   * The maximum pool size of the NATS connection executor in PLATFORM executor mode, and in VIRTUAL executor mode when the runtime has no virtual threads.
+   */
+  @Value("${nats.executor.max.pool.size}")
+  private int natsExecutorMaxPoolSize;
+
+  /**
+   * Whether the saga topics are consumed from JetStream durable pull consumers instead of core NATS queue subscriptions, MACRO_API_TOPIC stays on core NATS.
+   */
+  @Value("${nats.jetstream.enabled}")
+  private boolean jetStreamEnabled;
+  /**
+   * The JetStream stream holding the saga topics, created with work queue retention if it does not exist.
+   */
+  @Value("${nats.jetstream.stream.name}")
+  private String jetStreamStreamName;
+  /**
+   * The max number of messages fetched per pull request.
+   */
+  @Value("${nats.jetstream.fetch.batch.size}")
+  private int jetStreamFetchBatchSize;
+  /**
+   * The max number of messages per topic delivered to the api and not acked yet.
+   */
+  @Value("${nats.jetstream.max.in.flight}")
+  private int jetStreamMaxInFlight;
+  /**
+   * The seconds the server waits for the ack of a message before it delivers the message again.
+   */
+  @Value("${nats.jetstream.ack.wait.seconds}")
+  private int jetStreamAckWaitSeconds;
+  /**
+   * The max number of deliveries of a message.
+   */
+  @Value("${nats.jetstream.max.deliver}")
+  private int jetStreamMaxDeliver;
+  /**
+   * The delay before a failed message is delivered again, doubled with every delivery.
+   */
+  @Value("${nats.jetstream.redelivery.backoff.initial.millis}")
+  private long jetStreamRedeliveryBackoffInitialMillis;
+  /**
+   * The max delay before a failed message is delivered again.
+   */
+  @Value("${nats.jetstream.redelivery.backoff.max.millis}")
+  private long jetStreamRedeliveryBackoffMaxMillis;
+
+  /**
+   * The seconds a blocking request waits for its response.
+   */
+  @Value("${nats.request.timeout.seconds}")
+  private int requestTimeoutSeconds;
+  /**
+   * Whether the published messages are held and written to the connection together.
+   */
+  @Value("${nats.publish.coalescing.enabled}")
+  private boolean publishCoalescingEnabled;
+  /**
+   * The number of held messages which triggers a write in coalescing mode.
+   */
+  @Value("${nats.publish.coalescing.max.messages}")
+  private int publishCoalescingMaxMessages;
+  /**
+   * The max millis a message is held in coalescing mode.
+   */
+  @Value("${nats.publish.coalescing.max.delay.millis}")
+  private long publishCoalescingMaxDelayMillis;
+
   @Value("${app.email}")
   private String fromEmail;
 
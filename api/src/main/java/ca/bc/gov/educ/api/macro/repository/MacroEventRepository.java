@@ -1,9 +1,10 @@
 package ca.bc.gov.educ.api.macro.repository;
 
 import ca.bc.gov.educ.api.macro.model.MacroEvent;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,8 +36,55 @@ public interface MacroEventRepository extends JpaRepository<MacroEvent, UUID> {
    */
   List<MacroEvent> findByEventStatus(String status);
 
+  /**
+   * Find and lock a page of events by event status, rows already locked by another transaction are skipped (-2 is hibernate's SKIP_LOCKED timeout),
+   * so every pod claims a different set of events.
+   *
+   * @param status   the status
+   * @param pageable the page size
+   * @return the locked events
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  List<MacroEvent> findAndLockByEventStatus(String status, Pageable pageable);
+
+  /**
+   * Find and lock the events of the ids which are still in the status, rows already locked by another transaction are skipped.
+   *
+   * @param eventIds the event ids
+   * @param status   the status
+   * @return the locked events
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  List<MacroEvent> findAndLockByEventIdInAndEventStatus(List<UUID> eventIds, String status);
+
+  /**
+   * Find the ids of the oldest events created before the date, served from the (CREATE_DATE, EVENT_ID) index.
+   *
+   * @param createDate the create date
+   * @param pageable   the page size, the page number is always 0
+   * @return the event ids
+   */
+  @Query("select e.eventId from MacroEvent e where e.createDate <= :createDate order by e.createDate, e.eventId")
+  List<UUID> findEventIdsByCreateDateBefore(LocalDateTime createDate, Pageable pageable);
+
+  /**
+   * Count the events created before the date.
+   *
+   * @param createDate the create date
+   * @return the count
+   */
+  long countByCreateDateLessThanEqual(LocalDateTime createDate);
+
+  /**
+   * Delete the events by their ids in one statement.
+   *
+   * @param eventIds the event ids
+   * @return the number of deleted events
+   */
   @Transactional
   @Modifying
-  @Query("delete from MacroEvent where createDate <= :createDate")
-  void deleteByCreateDateBefore(LocalDateTime createDate);
+  @Query("delete from MacroEvent where eventId in :eventIds")
+  int deleteByEventIdIn(List<UUID> eventIds);
 }
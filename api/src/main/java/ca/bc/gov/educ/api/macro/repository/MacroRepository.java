@@ -1,21 +1,80 @@
 package ca.bc.gov.educ.api.macro.repository;
 
 import ca.bc.gov.educ.api.macro.model.MacroEntity;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * The macro repository. The finder queries are cached in the query cache region of the macros when the second level cache is enabled, hibernate
+ * drops their results whenever the MACRO table is written, the update statements here included.
+ */
 @Repository
 public interface MacroRepository extends JpaRepository<MacroEntity, UUID> {
 
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = MacroEntity.QUERY_CACHE_REGION)})
   List<MacroEntity> findAllByBusinessUseTypeCodeAndMacroTypeCode(String businessUseTypeCode, String macroTypeCode);
 
-  List<MacroEntity> findAllByBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode(String businessUseTypeCode, String macroTypeCode, String macroCode);
+  boolean existsByBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode(String businessUseTypeCode, String macroTypeCode, String macroCode);
 
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = MacroEntity.QUERY_CACHE_REGION)})
   List<MacroEntity> findAllByBusinessUseTypeCode(String businessUseTypeCode);
 
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = MacroEntity.QUERY_CACHE_REGION)})
   List<MacroEntity> findAllByBusinessUseTypeCodeIn(Collection<String> businessUseTypeCodes);
+
+  /**
+   * Find the unique keys, as built by MacroPayloadValidator.uniqueKey, of the macros matching the codes, read from the unique index only.
+   *
+   * @param businessUseTypeCodes the business use type codes
+   * @param macroTypeCodes       the macro type codes
+   * @param macroCodes           the macro codes
+   * @return the unique keys
+   */
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = MacroEntity.QUERY_CACHE_REGION)})
+  @Query("select concat(m.businessUseTypeCode, '|', m.macroTypeCode, '|', m.macroCode) from MacroEntity m"
+      + " where m.businessUseTypeCode in :businessUseTypeCodes and m.macroTypeCode in :macroTypeCodes and m.macroCode in :macroCodes")
+  List<String> findUniqueKeys(Collection<String> businessUseTypeCodes, Collection<String> macroTypeCodes, Collection<String> macroCodes);
+
+  /**
+   * Update the macro in one statement, the version is incremented.
+   *
+   * @param macro the macro, with the id and the new values
+   * @return 1 if the macro was updated, 0 if it does not exist
+   */
+  @Transactional
+  @Modifying
+  @Query("update MacroEntity set macroCode = :#{#macro.macroCode}, macroText = :#{#macro.macroText}, macroTypeCode = :#{#macro.macroTypeCode},"
+      + " businessUseTypeCode = :#{#macro.businessUseTypeCode}, updateUser = :#{#macro.updateUser}, updateDate = :#{#macro.updateDate}, version = version + 1"
+      + " where macroId = :#{#macro.macroId}")
+  int updateMacro(MacroEntity macro);
+
+  /**
+   * Update the macro in one statement if it is still at the version of the macro, the version is incremented.
+   *
+   * @param macro the macro, with the id, the version the update is based on and the new values
+   * @return 1 if the macro was updated, 0 if it does not exist or is no longer at the version
+   */
+  @Transactional
+  @Modifying
+  @Query("update MacroEntity set macroCode = :#{#macro.macroCode}, macroText = :#{#macro.macroText}, macroTypeCode = :#{#macro.macroTypeCode},"
+      + " businessUseTypeCode = :#{#macro.businessUseTypeCode}, updateUser = :#{#macro.updateUser}, updateDate = :#{#macro.updateDate}, version = version + 1"
+      + " where macroId = :#{#macro.macroId} and version = :#{#macro.version}")
+  int updateMacroIfVersionMatches(MacroEntity macro);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  Stream<MacroEntity> streamAllBy();
 }
@@ -0,0 +1,63 @@
+package ca.bc.gov.educ.api.macro.repository;
+
+import ca.bc.gov.educ.api.macro.model.SagaAdmission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The interface Saga admission repository.
+ */
+@Repository
+public interface SagaAdmissionRepository extends JpaRepository<SagaAdmission, UUID> {
+
+  /**
+   * Delete the admission of the macro, only if it is still held by the saga.
+   *
+   * @param macroId the macro id
+   * @param sagaId  the saga id
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from SagaAdmission where macroId = :macroId and sagaId = :sagaId")
+  void deleteByMacroIdAndSagaId(UUID macroId, UUID sagaId);
+
+  /**
+   * Delete the admission of the macro if the saga holding it is no longer in flight, it was force stopped or ended outside of the orchestrator,
+   * or is gone.
+   *
+   * @param macroId          the macro id
+   * @param inFlightStatuses the statuses of a saga in flight
+   * @return the number of deleted admissions
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from SagaAdmission a where a.macroId = :macroId and not exists (select s.sagaId from Saga s where s.sagaId = a.sagaId and s.status in :inFlightStatuses)")
+  int deleteByMacroIdAndSagaNotInFlight(UUID macroId, Collection<String> inFlightStatuses);
+
+  /**
+   * Whether the admission of the macro is held by a saga still in flight.
+   *
+   * @param macroId          the macro id
+   * @param inFlightStatuses the statuses of a saga in flight
+   * @return whether a saga in flight holds the admission of the macro
+   */
+  @Query("select count(a) > 0 from SagaAdmission a where a.macroId = :macroId and exists (select s.sagaId from Saga s where s.sagaId = a.sagaId and s.status in :inFlightStatuses)")
+  boolean existsByMacroIdAndSagaInFlight(UUID macroId, Collection<String> inFlightStatuses);
+
+  /**
+   * Delete the admissions taken on or before the create date, left behind by sagas purged with them.
+   *
+   * @param createDate the create date
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from SagaAdmission where createDate <= :createDate")
+  void deleteByCreateDateBefore(LocalDateTime createDate);
+}
@@ -8,7 +8,6 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,18 +26,41 @@ public interface SagaEventRepository extends CrudRepository<SagaEvent, UUID> {
   List<SagaEvent> findBySaga(Saga saga);
 
   /**
-   * Find by saga and saga event outcome and saga event state and saga step number optional.
+   * Find the highest step number of the saga, 0 when it has no events yet. Served from the (SAGA_ID, SAGA_STEP_NUMBER) index.
+   *
+   * @param sagaId the saga id
+   * @return the highest step number
+   */
+  @Query("select coalesce(max(e.sagaStepNumber), 0) from SagaEvent e where e.saga.sagaId = :sagaId")
+  int findMaxSagaStepNumberBySagaId(UUID sagaId);
+
+  /**
+   * Find the last event of the saga, only this one row is loaded with its response.
+   *
+   * @param saga the saga
+   * @return the optional
+   */
+  Optional<SagaEvent> findFirstBySagaOrderBySagaStepNumberDesc(Saga saga);
+
+  /**
+   * Whether the saga has an event with the outcome and state at the step number, checked without loading the event.
    *
    * @param saga         the saga
    * @param eventOutcome the event outcome
    * @param eventState   the event state
    * @param stepNumber   the step number
-   * @return the optional
+   * @return the boolean
    */
-  Optional<SagaEvent> findBySagaAndSagaEventOutcomeAndSagaEventStateAndSagaStepNumber(Saga saga, String eventOutcome, String eventState, int stepNumber);
+  boolean existsBySagaAndSagaEventOutcomeAndSagaEventStateAndSagaStepNumber(Saga saga, String eventOutcome, String eventState, int stepNumber);
 
+  /**
+   * Delete the events of the sagas in one statement, served from the (SAGA_ID, SAGA_STEP_NUMBER) index.
+   *
+   * @param sagaIds the saga ids
+   * @return the number of deleted events
+   */
   @Transactional
   @Modifying
-  @Query(value = "delete from MACRO_SAGA_EVENT_STATES e where exists(select 1 from MACRO_SAGA s where s.SAGA_ID = e.SAGA_ID and s.CREATE_DATE <= :createDate)", nativeQuery = true)
-  void deleteBySagaCreateDateBefore(LocalDateTime createDate);
+  @Query("delete from SagaEvent e where e.saga.sagaId in :sagaIds")
+  int deleteBySagaIdIn(List<UUID> sagaIds);
 }
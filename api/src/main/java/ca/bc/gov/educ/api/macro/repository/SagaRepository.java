@@ -1,6 +1,7 @@
 package ca.bc.gov.educ.api.macro.repository;
 
 import ca.bc.gov.educ.api.macro.model.Saga;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -17,14 +18,100 @@ import java.util.UUID;
  * The interface Saga repository.
  */
 @Repository
-public interface SagaRepository extends JpaRepository<Saga, UUID>, JpaSpecificationExecutor<Saga> {
+public interface SagaRepository extends JpaRepository<Saga, UUID>, JpaSpecificationExecutor<Saga>, SagaRepositoryCustom {
   /**
-   * Find all by status in list.
+   * Update the payload of the saga in one statement if it is still at the version, the version is incremented.
+   *
+   * @param sagaId       the saga id
+   * @param payloadBytes the payload bytes
+   * @param updateDate   the update date
+   * @param version      the version the update is based on
+   * @return 1 if the saga was updated, 0 if it does not exist or is no longer at the version
+   */
+  @Transactional
+  @Modifying
+  @Query("update Saga set payloadBytes = :payloadBytes, updateDate = :updateDate, version = version + 1 where sagaId = :sagaId and version = :version")
+  int updatePayloadBySagaIdAndVersion(UUID sagaId, byte[] payloadBytes, LocalDateTime updateDate, Long version);
+
+  /**
+   * Update the payload of the saga in one statement if it has not been updated since the update date, the version is incremented.
+   *
+   * @param sagaId         the saga id
+   * @param payloadBytes   the payload bytes
+   * @param updateDate     the update date
+   * @param lastUpdateDate the update date the update is based on
+   * @return 1 if the saga was updated, 0 if it does not exist or has been updated since
+   */
+  @Transactional
+  @Modifying
+  @Query("update Saga set payloadBytes = :payloadBytes, updateDate = :updateDate, version = version + 1 where sagaId = :sagaId and updateDate = :lastUpdateDate")
+  int updatePayloadBySagaIdAndUpdateDate(UUID sagaId, byte[] payloadBytes, LocalDateTime updateDate, LocalDateTime lastUpdateDate);
+
+  /**
+   * Increment the retry count of the sagas in one statement.
+   *
+   * @param sagaIds the saga ids
+   */
+  @Transactional
+  @Modifying
+  @Query("update Saga set retryCount = coalesce(retryCount, 0) + 1 where sagaId in :sagaIds")
+  void incrementRetryCount(List<UUID> sagaIds);
+
+  /**
+   * Find the ids of the sagas in the statuses created before the date which no pod holds a lease on, in saga id order. The leases are compared
+   * against the clock of the database, so that the pods agree on when a lease expires whatever the clock of each pod.
+   *
+   * @param statuses   the statuses
+   * @param createDate the create date
+   * @param pageable   the pageable, the number of ids
+   * @return the saga ids
+   */
+  @Query("select s.sagaId from Saga s where s.status in :statuses and s.createDate < :createDate"
+      + " and (s.replayLeaseExpiresAt is null or s.replayLeaseExpiresAt < local datetime) order by s.sagaId")
+  List<UUID> findReplayableSagaIds(List<String> statuses, LocalDateTime createDate, Pageable pageable);
+
+  /**
+   * Lease the sagas no pod holds a lease on to the replay owner, until the given number of seconds from now on the clock of the database. Of the
+   * pods claiming the same saga at once, only the first one updates it, the update of the others finds the lease taken once the first one has committed.
+   *
+   * @param sagaIds      the saga ids
+   * @param replayOwner  the replay owner
+   * @param leaseSeconds the length of the lease in seconds
+   * @return the number of sagas leased
+   */
+  @Transactional
+  @Modifying
+  @Query("update Saga set replayOwner = :replayOwner, replayLeaseExpiresAt = local datetime + :leaseSeconds second where sagaId in :sagaIds"
+      + " and (replayLeaseExpiresAt is null or replayLeaseExpiresAt < local datetime)")
+  int claimForReplay(List<UUID> sagaIds, String replayOwner, long leaseSeconds);
+
+  /**
+   * Find the sagas leased to the replay owner.
+   *
+   * @param replayOwner the replay owner
+   * @return the sagas
+   */
+  List<Saga> findAllByReplayOwner(String replayOwner);
+
+  /**
+   * Release the sagas leased to the replay owner, they can be claimed again the given number of seconds from now on the clock of the database.
+   *
+   * @param replayOwner      the replay owner
+   * @param claimableSeconds the seconds after which the sagas can be claimed again
+   */
+  @Transactional
+  @Modifying
+  @Query("update Saga set replayOwner = null, replayLeaseExpiresAt = local datetime + :claimableSeconds second where replayOwner = :replayOwner")
+  void releaseReplayLease(String replayOwner, long claimableSeconds);
+
+  /**
+   * Count the sagas in each of the statuses with one grouped query.
    *
    * @param statuses the statuses
-   * @return the list
+   * @return the status and the count of every status with sagas
    */
-  List<Saga> findAllByStatusIn(List<String> statuses);
+  @Query("select s.status, count(s) from Saga s where s.status in :statuses group by s.status")
+  List<Object[]> countByStatusIn(List<String> statuses);
 
   /**
    * Find all list.
@@ -44,25 +131,39 @@ public interface SagaRepository extends JpaRepository<Saga, UUID>, JpaSpecificat
   Optional<Saga> findByMacroIdAndSagaName(UUID macroId, String sagaName);
 
   /**
-   * Find by pen request batch student id and status
+   * Find all by create date before list.
    *
-   * @param macroId the macro id
-   * @param sagaName  the saga name
-   * @param statuses  the statuses
+   * @param createDate the create date
    * @return the list
    */
-  List<Saga> findAllByMacroIdAndSagaNameAndStatusIn(UUID macroId, String sagaName, List<String> statuses);
+  List<Saga> findAllByCreateDateBefore(LocalDateTime createDate);
 
   /**
-   * Find all by create date before list.
+   * Find the ids of the oldest sagas created before the date, served from the (CREATE_DATE, SAGA_ID) index.
    *
    * @param createDate the create date
-   * @return the list
+   * @param pageable   the page size, the page number is always 0
+   * @return the saga ids
    */
-  List<Saga> findAllByCreateDateBefore(LocalDateTime createDate);
+  @Query("select s.sagaId from Saga s where s.createDate <= :createDate order by s.createDate, s.sagaId")
+  List<UUID> findSagaIdsByCreateDateBefore(LocalDateTime createDate, Pageable pageable);
+
+  /**
+   * Count the sagas created before the date.
+   *
+   * @param createDate the create date
+   * @return the count
+   */
+  long countByCreateDateLessThanEqual(LocalDateTime createDate);
 
+  /**
+   * Delete the sagas by their ids in one statement.
+   *
+   * @param sagaIds the saga ids
+   * @return the number of deleted sagas
+   */
   @Transactional
   @Modifying
-  @Query("delete from Saga where createDate <= :createDate")
-  void deleteByCreateDateBefore(LocalDateTime createDate);
+  @Query("delete from Saga where sagaId in :sagaIds")
+  int deleteBySagaIdIn(List<UUID> sagaIds);
 }
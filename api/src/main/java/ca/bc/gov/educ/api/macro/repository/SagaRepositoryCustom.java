@@ -0,0 +1,46 @@
+package ca.bc.gov.educ.api.macro.repository;
+
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.model.SagaSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The queries of the saga repository spring data cannot derive. The list queries select {@link SagaSummary} projections, never the PAYLOAD column.
+ */
+public interface SagaRepositoryCustom {
+
+  /**
+   * Find the first sagas matching the specification in the sort order, in a single query with a row limit and no count query.
+   *
+   * @param specification the specification, null for all sagas
+   * @param sort          the sort
+   * @param limit         the max number of sagas
+   * @return the list
+   */
+  List<SagaSummary> findSummaries(Specification<Saga> specification, Sort sort, int limit);
+
+  /**
+   * Find the page of sagas matching the specification.
+   *
+   * @param specification the specification, null for all sagas
+   * @param pageable      the pageable
+   * @return the page
+   */
+  Page<SagaSummary> findSummaries(Specification<Saga> specification, Pageable pageable);
+
+  /**
+   * Find the saga with its payload, detached from the persistence context, for the orchestrator which carries it from step to step and writes it
+   * in the transaction of each step only, on its version.
+   *
+   * @param sagaId the saga id
+   * @return the detached saga
+   */
+  Optional<Saga> findDetachedById(UUID sagaId);
+}
@@ -0,0 +1,94 @@
+package ca.bc.gov.educ.api.macro.repository;
+
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.model.SagaSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.val;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The implementation of {@link SagaRepositoryCustom}, picked up by spring data by its name.
+ */
+public class SagaRepositoryCustomImpl implements SagaRepositoryCustom {
+
+  private final EntityManager entityManager;
+
+  /**
+   * Instantiates a new Saga repository custom.
+   *
+   * @param entityManager the entity manager
+   */
+  public SagaRepositoryCustomImpl(final EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public List<SagaSummary> findSummaries(final Specification<Saga> specification, final Sort sort, final int limit) {
+    return this.summaryQuery(specification, sort).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public Page<SagaSummary> findSummaries(final Specification<Saga> specification, final Pageable pageable) {
+    val query = this.summaryQuery(specification, pageable.getSort());
+    if (pageable.isPaged()) {
+      query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+    }
+    return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> this.count(specification));
+  }
+
+  @Override
+  @Transactional // not read only, the orchestrator must read the saga from the primary, never from a lagging replica.
+  public Optional<Saga> findDetachedById(final UUID sagaId) {
+    val saga = this.entityManager.find(Saga.class, sagaId);
+    if (saga == null) {
+      return Optional.empty();
+    }
+    saga.getPayloadBytes(); // the payload is fetched lazily, it is read before the saga is detached.
+    this.entityManager.detach(saga);
+    return Optional.of(saga);
+  }
+
+  private TypedQuery<SagaSummary> summaryQuery(final Specification<Saga> specification, final Sort sort) {
+    val criteriaBuilder = this.entityManager.getCriteriaBuilder();
+    val query = criteriaBuilder.createQuery(SagaSummary.class);
+    val root = query.from(Saga.class);
+    this.applySpecification(specification, root, query, criteriaBuilder);
+    query.select(criteriaBuilder.construct(SagaSummary.class, root.get("sagaId"), root.get("sagaName"), root.get("sagaState"), root.get("macroId"),
+        root.get("status"), root.get("createUser"), root.get("updateUser"), root.get("createDate"), root.get("updateDate"), root.get("retryCount"),
+        root.get("version")))
+      .orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+    return this.entityManager.createQuery(query);
+  }
+
+  private long count(final Specification<Saga> specification) {
+    val criteriaBuilder = this.entityManager.getCriteriaBuilder();
+    val query = criteriaBuilder.createQuery(Long.class);
+    val root = query.from(Saga.class);
+    this.applySpecification(specification, root, query, criteriaBuilder);
+    query.select(criteriaBuilder.count(root));
+    return this.entityManager.createQuery(query).getSingleResult();
+  }
+
+  private void applySpecification(final Specification<Saga> specification, final Root<Saga> root, final CriteriaQuery<?> query, final CriteriaBuilder criteriaBuilder) {
+    if (specification != null) {
+      val predicate = specification.toPredicate(root, query, criteriaBuilder);
+      if (predicate != null) {
+        query.where(predicate);
+      }
+    }
+  }
+}
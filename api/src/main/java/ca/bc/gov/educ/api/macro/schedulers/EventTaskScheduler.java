@@ -1,6 +1,7 @@
 package ca.bc.gov.educ.api.macro.schedulers;
 
 import ca.bc.gov.educ.api.macro.orchestrator.base.Orchestrator;
+import ca.bc.gov.educ.api.macro.orchestrator.base.SagaMetrics;
 import ca.bc.gov.educ.api.macro.constants.SagaStatusEnum;
 import ca.bc.gov.educ.api.macro.helpers.LogHelper;
 import ca.bc.gov.educ.api.macro.model.Saga;
@@ -9,7 +10,9 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -18,6 +21,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static lombok.AccessLevel.PRIVATE;
 
@@ -37,57 +45,142 @@ public class EventTaskScheduler {
    */
   @Getter(PRIVATE)
   private final SagaRepository sagaRepository;
+  /**
+   * The Saga metrics.
+   */
+  @Getter(PRIVATE)
+  private final SagaMetrics sagaMetrics;
   /**
    * The Status filters.
    */
   @Setter
   private List<String> statusFilters;
+  /**
+   * The number of sagas loaded and replayed per batch, the next batch is loaded once the replays of the current one are done.
+   */
+  @Value("${scheduled.jobs.replay.uncompleted.sagas.batch.size}")
+  @Setter
+  @Getter
+  Integer replayBatchSize;
+  /**
+   * No new batch is started after this many seconds, so that the run ends before the next one starts. The rest is picked up by the next run.
+   */
+  @Value("${scheduled.jobs.replay.uncompleted.sagas.max.duration.seconds}")
+  @Setter
+  @Getter
+  Integer replayMaxDurationInSeconds;
+  /**
+   * The lease a pod takes on a batch of sagas while it replays them, a pod which goes down holding a lease leaves its batch to the others once it expires.
+   */
+  @Value("${scheduled.jobs.replay.uncompleted.sagas.lease.seconds}")
+  @Setter
+  @Getter
+  Integer replayLeaseInSeconds;
+  /**
+   * A replayed saga is not claimed again until this many seconds after the start of the run, so that every pod leaves it to the next run.
+   */
+  @Value("${scheduled.jobs.replay.uncompleted.sagas.replay.interval.seconds}")
+  @Setter
+  @Getter
+  Integer replayIntervalInSeconds;
+  /**
+   * The name of this pod, the leases of a pod are prefixed with it.
+   */
+  private final String podName = StringUtils.defaultIfBlank(System.getenv("HOSTNAME"), "macro-api");
 
   /**
    * Instantiates a new Event task scheduler.
    *
    * @param sagaRepository the saga repository
    * @param orchestrators  the orchestrators
+   * @param sagaMetrics    the saga metrics
    */
-  public EventTaskScheduler(final SagaRepository sagaRepository, final List<Orchestrator> orchestrators) {
+  public EventTaskScheduler(final SagaRepository sagaRepository, final List<Orchestrator> orchestrators, final SagaMetrics sagaMetrics) {
     this.sagaRepository = sagaRepository;
+    this.sagaMetrics = sagaMetrics;
     orchestrators.forEach(orchestrator -> this.sagaOrchestrators.put(orchestrator.getSagaName(), orchestrator));
     log.info("'{}' Saga Orchestrators are loaded.", String.join(",", this.sagaOrchestrators.keySet()));
   }
 
   /**
-   * Find and process uncompleted sagas.
+   * Find and process uncompleted sagas, created more than a minute ago, one leased batch at a time. Every pod runs it, there is no scheduler lock:
+   * a pod leases the batch it replays, so the pods share the backlog, and releases it once replayed until the next run, so that every uncompleted
+   * saga is still replayed once a minute by one of the pods. The leases are taken and released on the clock of the database, only the time elapsed
+   * since the start of the run is measured on this pod.
    */
   @Scheduled(cron = "1 * * * * *") //
-  @SchedulerLock(name = "REPLAY_UNCOMPLETED_SAGAS",
-      lockAtLeastFor = "PT50S", lockAtMostFor = "PT55S")
   public void findAndProcessUncompletedSagas() {
-    final List<Saga> sagas = this.getSagaRepository().findAllByStatusIn(this.getStatusFilters());
-    if (!sagas.isEmpty()) {
-      this.processUncompletedSagas(sagas);
+    val statuses = this.getStatusFilters();
+    val createDateBefore = LocalDateTime.now().minusMinutes(1);
+    val pageable = PageRequest.ofSize(this.getReplayBatchSize());
+    val runStart = System.nanoTime();
+    val deadline = runStart + TimeUnit.SECONDS.toNanos(this.getReplayMaxDurationInSeconds());
+    while (true) {
+      val sagaIds = this.getSagaRepository().findReplayableSagaIds(statuses, createDateBefore, pageable);
+      if (sagaIds.isEmpty()) {
+        break;
+      }
+      val replayOwner = this.podName + "/" + UUID.randomUUID();
+      var replaysPending = false;
+      if (this.getSagaRepository().claimForReplay(sagaIds, replayOwner, this.getReplayLeaseInSeconds()) > 0) {
+        try {
+          replaysPending = !this.processUncompletedSagas(this.getSagaRepository().findAllByReplayOwner(replayOwner), deadline);
+        } finally {
+          if (!replaysPending) {
+            val elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - runStart);
+            this.getSagaRepository().releaseReplayLease(replayOwner, Math.max(0, this.getReplayIntervalInSeconds() - elapsedSeconds));
+          }
+        }
+      }
+      if (replaysPending || sagaIds.size() < this.getReplayBatchSize() || System.nanoTime() > deadline) {
+        break;
+      }
     }
   }
 
   /**
-   * Process uncompleted sagas.
+   * Process uncompleted sagas, the retry counts of the batch are incremented in one update and the method returns once all the replays are done or
+   * the deadline of the run has passed. The batch of replays still running at the deadline keeps its lease until it expires, so that no other pod
+   * replays the same sagas meanwhile.
    *
-   * @param sagas the sagas
+   * @param sagas    the sagas
+   * @param deadline the deadline of the run, in {@link System#nanoTime()}
+   * @return whether all the replays are done
    */
-  private void processUncompletedSagas(final List<Saga> sagas) {
-    for (val saga : sagas) {
-      if (saga.getCreateDate().isBefore(LocalDateTime.now().minusMinutes(1))
-          && this.getSagaOrchestrators().containsKey(saga.getSagaName())) {
-        try {
-          this.setRetryCountAndLog(saga);
-          this.getSagaOrchestrators().get(saga.getSagaName()).replaySaga(saga);
-        } catch (final InterruptedException ex) {
-          Thread.currentThread().interrupt();
-          log.error("InterruptedException while findAndProcessPendingSagaEvents :: for saga :: {} :: {}", saga, ex);
-        } catch (final Exception e) {
+  private boolean processUncompletedSagas(final List<Saga> sagas, final long deadline) {
+    val replayableSagas = sagas.stream().filter(saga -> this.getSagaOrchestrators().containsKey(saga.getSagaName())).toList();
+    if (replayableSagas.isEmpty()) {
+      return true;
+    }
+    this.getSagaRepository().incrementRetryCount(replayableSagas.stream().map(Saga::getSagaId).toList());
+    final List<CompletableFuture<Void>> replays = new ArrayList<>();
+    for (val saga : replayableSagas) {
+      try {
+        this.setRetryCountAndLog(saga);
+        replays.add(this.getSagaOrchestrators().get(saga.getSagaName()).replaySaga(saga).exceptionally(e -> {
           log.error("Exception while findAndProcessPendingSagaEvents :: for saga :: {} :: {}", saga, e);
-        }
+          return null;
+        }));
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        log.error("InterruptedException while findAndProcessPendingSagaEvents :: for saga :: {} :: {}", saga, ex);
+      } catch (final Exception e) {
+        log.error("Exception while findAndProcessPendingSagaEvents :: for saga :: {} :: {}", saga, e);
       }
     }
+    try {
+      CompletableFuture.allOf(replays.toArray(new CompletableFuture[0])).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (final TimeoutException e) {
+      log.warn("{} saga replays still running at the end of the run, their leases are left to expire", replays.stream().filter(replay -> !replay.isDone()).count());
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("interrupted while waiting for the saga replays, their leases are left to expire");
+    } catch (final ExecutionException e) {
+      log.error("Exception while findAndProcessPendingSagaEvents :: {}", e.getMessage());
+      return true;
+    }
+    return false;
   }
 
   /**
@@ -106,15 +199,15 @@ public class EventTaskScheduler {
     }
   }
 
+  /**
+   * Mirror the retry count incremented in the database on the loaded saga, so that the replay does not write back the old value.
+   *
+   * @param saga the saga
+   */
   private void setRetryCountAndLog(final Saga saga) {
-    Integer retryCount = saga.getRetryCount();
-    if (retryCount == null || retryCount == 0) {
-      retryCount = 1;
-    } else {
-      retryCount += 1;
-    }
-    saga.setRetryCount(retryCount);
-    this.getSagaRepository().save(saga);
+    final Integer retryCount = saga.getRetryCount();
+    saga.setRetryCount(retryCount == null ? 1 : retryCount + 1);
     LogHelper.logSagaRetry(saga);
+    this.getSagaMetrics().recordReplay(saga.getSagaName(), saga.getRetryCount());
   }
 }
@@ -1,25 +1,48 @@
 package ca.bc.gov.educ.api.macro.schedulers;
 
 import ca.bc.gov.educ.api.macro.repository.MacroEventRepository;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaRepository;
+import com.google.common.util.concurrent.AtomicDouble;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import net.javacrumbs.shedlock.core.LockAssert;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static lombok.AccessLevel.PRIVATE;
 
+/**
+ * Purges the saga and event records older than the configured number of days.
+ * The oldest records are deleted first, a batch of ids at a time, and every batch is committed on its own so a large backlog never builds up one
+ * long transaction. No new batch is started once the time budget of the run is spent, the rest is picked up by the next run.
+ * The rows purged, the rows per second of the last run and the backlog it left are reported to micrometer, tagged with the table name.
+ */
 @Component
 @Slf4j
 public class PurgeOldSagaRecordsScheduler {
+  private static final String SAGA_TABLE = "MACRO_SAGA";
+  private static final String SAGA_EVENT_TABLE = "MACRO_SAGA_EVENT_STATES";
+  private static final String EVENT_TABLE = "MACRO_EVENT";
+
   @Getter(PRIVATE)
   private final SagaRepository sagaRepository;
 
@@ -29,15 +52,68 @@ public class PurgeOldSagaRecordsScheduler {
   @Getter(PRIVATE)
   private final MacroEventRepository macroEventRepository;
 
+  @Getter(PRIVATE)
+  private final SagaAdmissionRepository sagaAdmissionRepository;
+
+  /**
+   * The Transaction template, every batch is deleted in its own transaction.
+   */
+  @Getter(PRIVATE)
+  private final TransactionTemplate transactionTemplate;
+
+  private final Counter sagasPurged;
+  private final Counter sagaEventsPurged;
+  private final Counter eventsPurged;
+  private final AtomicDouble rowsPerSecond = new AtomicDouble();
+  private final AtomicLong sagaBacklog = new AtomicLong();
+  private final AtomicLong eventBacklog = new AtomicLong();
+
   @Value("${purge.records.saga.after.days}")
   @Setter
   @Getter
   Integer sagaRecordStaleInDays;
 
-  public PurgeOldSagaRecordsScheduler(final SagaRepository sagaRepository, final SagaEventRepository sagaEventRepository, final MacroEventRepository macroEventRepository) {
+  /**
+   * The number of sagas, with their events, or of macro events deleted per transaction, kept under the 1000 elements oracle allows in an in list.
+   */
+  @Value("${purge.records.saga.batch.size}")
+  @Setter
+  @Getter
+  Integer purgeBatchSize;
+
+  /**
+   * No new batch is started after this many seconds, so that the run ends before the scheduler lock expires. The rest is picked up by the next run.
+   */
+  @Value("${purge.records.saga.max.duration.seconds}")
+  @Setter
+  @Getter
+  Integer purgeMaxDurationInSeconds;
+
+  /**
+   * Instantiates a new Purge old saga records scheduler.
+   *
+   * @param sagaRepository          the saga repository
+   * @param sagaEventRepository     the saga event repository
+   * @param macroEventRepository    the macro event repository
+   * @param sagaAdmissionRepository the saga admission repository
+   * @param transactionManager      the transaction manager
+   * @param meterRegistry           the meter registry
+   */
+  @Autowired
+  public PurgeOldSagaRecordsScheduler(final SagaRepository sagaRepository, final SagaEventRepository sagaEventRepository, final MacroEventRepository macroEventRepository,
+                                      final SagaAdmissionRepository sagaAdmissionRepository, final PlatformTransactionManager transactionManager,
+                                      final MeterRegistry meterRegistry) {
     this.sagaRepository = sagaRepository;
     this.sagaEventRepository = sagaEventRepository;
     this.macroEventRepository = macroEventRepository;
+    this.sagaAdmissionRepository = sagaAdmissionRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.sagasPurged = Counter.builder("macro.purge.rows").tag("table", SAGA_TABLE).register(meterRegistry);
+    this.sagaEventsPurged = Counter.builder("macro.purge.rows").tag("table", SAGA_EVENT_TABLE).register(meterRegistry);
+    this.eventsPurged = Counter.builder("macro.purge.rows").tag("table", EVENT_TABLE).register(meterRegistry);
+    Gauge.builder("macro.purge.rows.per.second", this.rowsPerSecond, AtomicDouble::get).register(meterRegistry);
+    Gauge.builder("macro.purge.backlog", this.sagaBacklog, AtomicLong::get).tag("table", SAGA_TABLE).register(meterRegistry);
+    Gauge.builder("macro.purge.backlog", this.eventBacklog, AtomicLong::get).tag("table", EVENT_TABLE).register(meterRegistry);
   }
 
 
@@ -47,14 +123,75 @@ public class PurgeOldSagaRecordsScheduler {
   @Scheduled(cron = "${scheduled.jobs.purge.old.saga.records.cron}")
   @SchedulerLock(name = "PurgeOldSagaRecordsLock",
       lockAtLeastFor = "PT1H", lockAtMostFor = "PT1H") //midnight job so lock for an hour
-  @Transactional
   public void purgeOldRecords() {
     LockAssert.assertLocked();
-    final LocalDateTime createDateToCompare = this.calculateCreateDateBasedOnStaleSagaRecordInDays();
-    this.sagaEventRepository.deleteBySagaCreateDateBefore(createDateToCompare);
-    this.macroEventRepository.deleteByCreateDateBefore(createDateToCompare);
-    this.sagaRepository.deleteByCreateDateBefore(createDateToCompare);
-    log.info("Purged old saga and event records");
+    this.purgeRecordsCreatedBefore(this.calculateCreateDateBasedOnStaleSagaRecordInDays());
+  }
+
+  /**
+   * Purge the sagas with their events and admissions, then the macro events, created before the date, within the time budget.
+   * At least one batch of sagas is deleted per run, the macro events are only deleted while the budget lasts.
+   *
+   * @param createDate the create date
+   */
+  public void purgeRecordsCreatedBefore(final LocalDateTime createDate) {
+    val startTime = System.nanoTime();
+    val deadline = startTime + TimeUnit.SECONDS.toNanos(this.getPurgeMaxDurationInSeconds());
+    val pageable = PageRequest.ofSize(this.getPurgeBatchSize());
+    long rows = 0;
+    boolean sagasLeft;
+    do {
+      final List<UUID> sagaIds = this.getSagaRepository().findSagaIdsByCreateDateBefore(createDate, pageable);
+      if (!sagaIds.isEmpty()) {
+        rows += this.purgeSagas(sagaIds);
+      }
+      sagasLeft = sagaIds.size() == this.getPurgeBatchSize();
+    } while (sagasLeft && System.nanoTime() <= deadline);
+    boolean eventsLeft = true;
+    while (eventsLeft && System.nanoTime() <= deadline) {
+      final List<UUID> eventIds = this.getMacroEventRepository().findEventIdsByCreateDateBefore(createDate, pageable);
+      if (!eventIds.isEmpty()) {
+        rows += this.purgeEvents(eventIds);
+      }
+      eventsLeft = eventIds.size() == this.getPurgeBatchSize();
+    }
+    this.getSagaAdmissionRepository().deleteByCreateDateBefore(createDate);
+    val elapsedSeconds = Math.max((System.nanoTime() - startTime) / 1e9, 1e-3);
+    this.rowsPerSecond.set(rows / elapsedSeconds);
+    this.sagaBacklog.set(sagasLeft ? this.getSagaRepository().countByCreateDateLessThanEqual(createDate) : 0);
+    this.eventBacklog.set(eventsLeft ? this.getMacroEventRepository().countByCreateDateLessThanEqual(createDate) : 0);
+    log.info("Purged {} old saga and event rows in {} seconds, {} sagas and {} events left for the next run", rows, String.format("%.1f", elapsedSeconds),
+        this.sagaBacklog.get(), this.eventBacklog.get());
+  }
+
+  /**
+   * Delete the sagas and their events in one transaction.
+   *
+   * @param sagaIds the saga ids
+   * @return the number of deleted rows
+   */
+  private int purgeSagas(final List<UUID> sagaIds) {
+    return this.getTransactionTemplate().execute(status -> {
+      val sagaEvents = this.getSagaEventRepository().deleteBySagaIdIn(sagaIds);
+      val sagas = this.getSagaRepository().deleteBySagaIdIn(sagaIds);
+      this.sagaEventsPurged.increment(sagaEvents);
+      this.sagasPurged.increment(sagas);
+      return sagaEvents + sagas;
+    });
+  }
+
+  /**
+   * Delete the macro events in one transaction.
+   *
+   * @param eventIds the event ids
+   * @return the number of deleted rows
+   */
+  private int purgeEvents(final List<UUID> eventIds) {
+    return this.getTransactionTemplate().execute(status -> {
+      val events = this.getMacroEventRepository().deleteByEventIdIn(eventIds);
+      this.eventsPurged.increment(events);
+      return events;
+    });
   }
 
   private LocalDateTime calculateCreateDateBasedOnStaleSagaRecordInDays() {
@@ -0,0 +1,41 @@
+package ca.bc.gov.educ.api.macro.schedulers;
+
+import ca.bc.gov.educ.api.macro.config.ReplicaRoutingDataSource;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Checks the lag of the read replica. It runs on every pod, each pod routes its own read only transactions, so there is no scheduler lock.
+ */
+@Component
+@ConditionalOnProperty(name = "macro.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagCheckScheduler {
+  /**
+   * The Replica routing data source.
+   */
+  @Getter(PRIVATE)
+  private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+  /**
+   * Instantiates a new Replica lag check scheduler.
+   *
+   * @param replicaRoutingDataSource the replica routing data source
+   */
+  @Autowired
+  public ReplicaLagCheckScheduler(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+    this.replicaRoutingDataSource = replicaRoutingDataSource;
+  }
+
+  /**
+   * Check the replica lag.
+   */
+  @Scheduled(cron = "${scheduled.jobs.replica.lag.check.cron}")
+  public void checkReplicaLag() {
+    this.getReplicaRoutingDataSource().checkReplicaLag();
+  }
+}
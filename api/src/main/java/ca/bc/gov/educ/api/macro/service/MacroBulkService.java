@@ -0,0 +1,240 @@
+package ca.bc.gov.educ.api.macro.service;
+
+import ca.bc.gov.educ.api.macro.constants.BusinessUseTypeCodes;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.mapper.v1.MacroMapper;
+import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.model.MacroEntity;
+import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
+import ca.bc.gov.educ.api.macro.repository.MacroRepository;
+import ca.bc.gov.educ.api.macro.struct.v1.*;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import ca.bc.gov.educ.api.macro.util.RequestUtil;
+import ca.bc.gov.educ.api.macro.validator.MacroPayloadValidator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.FieldError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Bulk import and export of the macro catalog.
+ * The import reads the macros one at a time from the request stream and creates them in chunks, each chunk is validated with one uniqueness query
+ * and inserted in one transaction with jdbc batching, without going through the create macro saga. One notification is sent for the whole import.
+ */
+@Service
+@Slf4j
+public class MacroBulkService {
+
+  private static final MacroMapper mapper = MacroMapper.mapper;
+
+  /**
+   * The max number of macro codes listed in the import notification.
+   */
+  private static final int NOTIFICATION_MACRO_CODES = 50;
+
+  @Getter(PRIVATE)
+  private final MacroService macroService;
+  @Getter(PRIVATE)
+  private final MacroRepository macroRepository;
+  @Getter(PRIVATE)
+  private final MacroPayloadValidator macroPayloadValidator;
+  @Getter(PRIVATE)
+  private final Validator validator;
+  @Getter(PRIVATE)
+  private final MessagePublisher messagePublisher;
+  @Getter(PRIVATE)
+  private final ApplicationProperties properties;
+  @Getter(PRIVATE)
+  private final EntityManager entityManager;
+
+  /**
+   * The number of macros validated and inserted together.
+   */
+  @Value("${macro.bulk.import.chunk.size}")
+  @Getter
+  Integer chunkSize;
+
+  @Autowired
+  public MacroBulkService(final MacroService macroService, final MacroRepository macroRepository, final MacroPayloadValidator macroPayloadValidator,
+                          final Validator validator, final MessagePublisher messagePublisher, final ApplicationProperties properties, final EntityManager entityManager) {
+    this.macroService = macroService;
+    this.macroRepository = macroRepository;
+    this.macroPayloadValidator = macroPayloadValidator;
+    this.validator = validator;
+    this.messagePublisher = messagePublisher;
+    this.properties = properties;
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Import the macros of the stream, a json array or newline delimited json of {@link Macro}.
+   * Invalid macros, duplicates of an existing macro or of an earlier one in the stream are rejected and the others are created.
+   * Reading stops at malformed json, the macros read until then are still created.
+   *
+   * @param inputStream          the input stream
+   * @param businessUseTypeCodes the allowed business use type codes
+   * @return the import result
+   * @throws IOException the io exception
+   */
+  public MacroBulkImportResult importMacros(final InputStream inputStream, final List<String> businessUseTypeCodes) throws IOException {
+    val result = MacroBulkImportResult.builder().build();
+    final Set<String> keysInStream = new HashSet<>();
+    final List<Macro> chunk = new ArrayList<>();
+    final List<Integer> chunkIndexes = new ArrayList<>();
+    final List<MacroEntity> created = new ArrayList<>();
+    int index = 0;
+    try (val iterator = JsonUtil.getJsonObjectsFromStream(Macro.class, inputStream)) {
+      while (iterator.hasNextValue()) {
+        final Macro macro;
+        try {
+          macro = iterator.nextValue();
+        } catch (final JsonMappingException e) {
+          this.reject(result, index++, null, List.of(e.getOriginalMessage()));
+          continue;
+        }
+        if (macro == null) {
+          this.reject(result, index++, null, List.of("macro is null"));
+          continue;
+        }
+        final List<String> errors = this.getValidator().validate(macro).stream().map(this::toMessage).collect(Collectors.toList());
+        if (errors.isEmpty() && !keysInStream.add(MacroPayloadValidator.uniqueKey(macro.getBusinessUseTypeCode(), macro.getMacroTypeCode(), macro.getMacroCode()))) {
+          errors.add("combination of BusinessUseTypeCode, MacroTypeCode and MacroCode is repeated in the import");
+        }
+        if (!errors.isEmpty()) {
+          this.reject(result, index++, macro, errors);
+          continue;
+        }
+        chunk.add(macro);
+        chunkIndexes.add(index++);
+        if (chunk.size() >= this.getChunkSize()) {
+          created.addAll(this.createChunk(chunk, chunkIndexes, businessUseTypeCodes, result));
+        }
+      }
+    } catch (final JsonParseException e) {
+      log.warn("malformed json in the macro import at position :: {}", index, e);
+      this.reject(result, index, null, List.of("malformed json, the rest of the import was not read :: " + e.getOriginalMessage()));
+    }
+    if (!chunk.isEmpty()) {
+      created.addAll(this.createChunk(chunk, chunkIndexes, businessUseTypeCodes, result));
+    }
+    result.setReceivedCount(index);
+    result.setCreatedCount(created.size());
+    if (!created.isEmpty()) {
+      this.sendImportNotification(created, result);
+    }
+    log.info("macro import created {} of {} macros", result.getCreatedCount(), result.getReceivedCount());
+    return result;
+  }
+
+  /**
+   * Write every macro of the catalog to the stream as newline delimited json, the rows are streamed from the database and detached once written.
+   *
+   * @param outputStream the output stream
+   * @throws IOException the io exception
+   */
+  @Transactional(readOnly = true)
+  public void exportMacros(final OutputStream outputStream) throws IOException {
+    try (val macros = this.getMacroRepository().streamAllBy(); val writer = JsonUtil.getJsonSequenceWriter(Macro.class, outputStream)) {
+      val iterator = macros.iterator();
+      while (iterator.hasNext()) {
+        val entity = iterator.next();
+        writer.write(mapper.toStructure(entity));
+        this.getEntityManager().detach(entity);
+      }
+    }
+  }
+
+  /**
+   * Validate the chunk with one uniqueness query and create its valid macros, the chunk lists are cleared.
+   *
+   * @return the created macros
+   */
+  private List<MacroEntity> createChunk(final List<Macro> chunk, final List<Integer> chunkIndexes, final List<String> businessUseTypeCodes, final MacroBulkImportResult result) {
+    final Map<Integer, List<FieldError>> validationErrors = this.getMacroPayloadValidator().validateBulkPayload(chunk, businessUseTypeCodes);
+    final List<MacroEntity> entities = new ArrayList<>();
+    final List<Integer> entityIndexes = new ArrayList<>();
+    for (int i = 0; i < chunk.size(); i++) {
+      val macro = chunk.get(i);
+      if (validationErrors.containsKey(i)) {
+        this.reject(result, chunkIndexes.get(i), macro, validationErrors.get(i).stream().map(FieldError::getDefaultMessage).collect(Collectors.toList()));
+        continue;
+      }
+      RequestUtil.setAuditColumnsForCreate(macro);
+      entities.add(mapper.toModel(macro));
+      entityIndexes.add(chunkIndexes.get(i));
+    }
+    List<MacroEntity> created = List.of();
+    if (!entities.isEmpty()) {
+      try {
+        created = this.getMacroService().createMacros(entities);
+      } catch (final DataIntegrityViolationException e) {
+        log.warn("macro import chunk rejected by the database", e);
+        for (int i = 0; i < entities.size(); i++) {
+          this.reject(result, entityIndexes.get(i), mapper.toStructure(entities.get(i)), List.of("combination of BusinessUseTypeCode, MacroTypeCode and MacroCode conflicts with a macro created concurrently"));
+        }
+      }
+    }
+    chunk.clear();
+    chunkIndexes.clear();
+    return created;
+  }
+
+  private void reject(final MacroBulkImportResult result, final int index, final Macro macro, final List<String> errors) {
+    val rejection = MacroBulkImportRejection.builder().index(index).errors(errors);
+    if (macro != null) {
+      rejection.businessUseTypeCode(macro.getBusinessUseTypeCode()).macroTypeCode(macro.getMacroTypeCode()).macroCode(macro.getMacroCode());
+    }
+    result.getRejections().add(rejection.build());
+  }
+
+  private String toMessage(final ConstraintViolation<Macro> violation) {
+    return violation.getPropertyPath() + " " + violation.getMessage();
+  }
+
+  /**
+   * Send one macro create notification summarizing the import, in place of the one per macro the create saga sends.
+   *
+   * @param created the created macros
+   * @param result  the import result
+   */
+  private void sendImportNotification(final List<MacroEntity> created, final MacroBulkImportResult result) {
+    try {
+      val businessUseTypeCodes = created.stream().map(MacroEntity::getBusinessUseTypeCode).distinct().map(BusinessUseTypeCodes::valueOf).toList();
+      val macroEditNotificationEvent = MacroEditNotificationEvent.builder()
+        .fromEmail(this.getProperties().getFromEmail())
+        .toEmail(this.getProperties().getToEmail())
+        .appName(businessUseTypeCodes.stream().map(BusinessUseTypeCodes::getApp).collect(Collectors.joining(", ")))
+        .businessUseTypeName(businessUseTypeCodes.stream().map(BusinessUseTypeCodes::getName).collect(Collectors.joining(", ")))
+        .macroTypeCode(created.stream().map(MacroEntity::getMacroTypeCode).distinct().collect(Collectors.joining(", ")))
+        .macroCode(created.stream().limit(NOTIFICATION_MACRO_CODES).map(MacroEntity::getMacroCode).collect(Collectors.joining(", ")) + (created.size() > NOTIFICATION_MACRO_CODES ? ", ..." : ""))
+        .macroText("Bulk import created " + result.getCreatedCount() + " of " + result.getReceivedCount() + " macros.")
+        .build();
+      val event = Event.builder()
+        .eventType(EventType.NOTIFY_MACRO_CREATE)
+        .eventPayload(JsonUtil.getJsonStringFromObject(macroEditNotificationEvent))
+        .build();
+      this.getMessagePublisher().dispatchMessage(TopicsEnum.PROFILE_REQUEST_EMAIL_API_TOPIC.toString(), JsonUtil.getJsonBytesFromObject(event));
+    } catch (final Exception e) {
+      log.error("Exception while sending the macro import notification", e);
+    }
+  }
+}
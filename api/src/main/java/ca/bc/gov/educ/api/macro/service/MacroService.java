@@ -1,12 +1,16 @@
 package ca.bc.gov.educ.api.macro.service;
 
+import ca.bc.gov.educ.api.macro.cache.MacroCatalogChangedEvent;
 import ca.bc.gov.educ.api.macro.exception.EntityNotFoundException;
 import ca.bc.gov.educ.api.macro.model.MacroEntity;
 import ca.bc.gov.educ.api.macro.repository.MacroRepository;
 import lombok.Getter;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -19,10 +23,13 @@ import static lombok.AccessLevel.PRIVATE;
 public class MacroService {
   @Getter(PRIVATE)
   private final MacroRepository macroRepository;
+  @Getter(PRIVATE)
+  private final ApplicationEventPublisher applicationEventPublisher;
 
   @Autowired
-  public MacroService(MacroRepository macroRepository) {
+  public MacroService(MacroRepository macroRepository, ApplicationEventPublisher applicationEventPublisher) {
     this.macroRepository = macroRepository;
+    this.applicationEventPublisher = applicationEventPublisher;
   }
 
   public List<MacroEntity> findAllMacros() {
@@ -45,16 +52,56 @@ public class MacroService {
     return getMacroRepository().findAllByBusinessUseTypeCodeIn(businessUseTypeCodes);
   }
 
+  /**
+   * Create the macro, it is flushed right away so that a duplicate of an existing macro fails here with a DataIntegrityViolationException.
+   *
+   * @param entity the entity
+   * @return the saved entity
+   */
   public MacroEntity createMacro(MacroEntity entity) {
-    return getMacroRepository().save(entity);
+    entity.setVersion(null);
+    val savedEntity = getMacroRepository().saveAndFlush(entity);
+    getApplicationEventPublisher().publishEvent(new MacroCatalogChangedEvent(savedEntity.getMacroId()));
+    return savedEntity;
+  }
+
+  /**
+   * Create the macros in one transaction, the inserts are sent to the database in jdbc batches.
+   *
+   * @param entities the entities
+   * @return the saved entities
+   */
+  @Transactional
+  public List<MacroEntity> createMacros(List<MacroEntity> entities) {
+    entities.forEach(entity -> entity.setVersion(null));
+    val savedEntities = getMacroRepository().saveAll(entities);
+    getMacroRepository().flush();
+    getApplicationEventPublisher().publishEvent(new MacroCatalogChangedEvent(null));
+    return savedEntities;
   }
 
+  /**
+   * Update the macro with one UPDATE statement, conditional on the version of the macro when it has one, so a concurrent update is caught by the database.
+   * The macro is read only when nothing was updated, to tell a missing macro from a conflict.
+   *
+   * @param macroId the macro id
+   * @param entity  the macro, with the version the update is based on, if any
+   * @return the macro, with its new version if it had one
+   * @throws EntityNotFoundException                 if there is no macro with the id
+   * @throws ObjectOptimisticLockingFailureException if the macro is no longer at the version
+   */
   public MacroEntity updateMacro(UUID macroId, MacroEntity entity) {
-    val result = getMacroRepository().findById(macroId);
-    if (result.isPresent()) {
-      return getMacroRepository().save(entity);
-    } else {
+    entity.setMacroId(macroId);
+    val version = entity.getVersion();
+    val updated = version == null ? getMacroRepository().updateMacro(entity) : getMacroRepository().updateMacroIfVersionMatches(entity);
+    if (updated == 0) {
+      if (version != null && getMacroRepository().existsById(macroId)) {
+        throw new ObjectOptimisticLockingFailureException(MacroEntity.class, macroId);
+      }
       throw new EntityNotFoundException(entity.getClass(),"macroId", macroId.toString());
     }
+    entity.setVersion(version == null ? null : version + 1);
+    getApplicationEventPublisher().publishEvent(new MacroCatalogChangedEvent(macroId));
+    return entity;
   }
 }
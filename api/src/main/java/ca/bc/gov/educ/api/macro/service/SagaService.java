@@ -1,33 +1,59 @@
 package ca.bc.gov.educ.api.macro.service;
 
+import ca.bc.gov.educ.api.macro.admission.SagaAdmissionReleasedEvent;
 import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.filter.SagaKeysetCursor;
+import ca.bc.gov.educ.api.macro.model.SagaAdmission;
 import ca.bc.gov.educ.api.macro.model.SagaEvent;
+import ca.bc.gov.educ.api.macro.model.SagaSummary;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.model.Saga;
 import ca.bc.gov.educ.api.macro.repository.SagaRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
+import static ca.bc.gov.educ.api.macro.constants.SagaStatusEnum.IN_PROGRESS;
 import static ca.bc.gov.educ.api.macro.constants.SagaStatusEnum.STARTED;
 import static lombok.AccessLevel.PRIVATE;
 
@@ -37,6 +63,10 @@ import static lombok.AccessLevel.PRIVATE;
 @Service
 @Slf4j
 public class SagaService {
+  /**
+   * The statuses of a saga in flight, a saga in any other status no longer holds the admission of its macro.
+   */
+  private static final List<String> IN_FLIGHT_STATUSES = List.of(STARTED.toString(), IN_PROGRESS.toString());
   /**
    * The Saga repository.
    */
@@ -47,17 +77,61 @@ public class SagaService {
    */
   @Getter(PRIVATE)
   private final SagaEventRepository sagaEventRepository;
+  /**
+   * The Saga admission repository.
+   */
+  @Getter(PRIVATE)
+  private final SagaAdmissionRepository sagaAdmissionRepository;
+  /**
+   * The Application event publisher.
+   */
+  @Getter(PRIVATE)
+  private final ApplicationEventPublisher applicationEventPublisher;
+  /**
+   * The saga counts of the searches, keyed by the search criteria json, so that asking for the total of every slice does not count the table each time.
+   */
+  private final Cache<String, Long> sagaCounts;
+  /**
+   * The executor of the search queries.
+   */
+  @Getter(PRIVATE)
+  private final Executor queryExecutor;
+  /**
+   * The Transaction manager.
+   */
+  @Getter(PRIVATE)
+  private final PlatformTransactionManager transactionManager;
+
+  /**
+   * The deadline of a search query, counted from the request.
+   */
+  @Value("${saga.search.query.timeout.seconds}")
+  @Setter
+  @Getter
+  Integer queryTimeoutInSeconds;
 
   /**
    * Instantiates a new Saga service.
    *
-   * @param sagaRepository      the saga repository
-   * @param sagaEventRepository the saga event repository
+   * @param sagaRepository            the saga repository
+   * @param sagaEventRepository       the saga event repository
+   * @param sagaAdmissionRepository   the saga admission repository
+   * @param applicationEventPublisher the application event publisher
+   * @param queryExecutor             the query executor
+   * @param transactionManager        the transaction manager
+   * @param countExpireAfterWriteSeconds how long a saga count of a search is cached
    */
   @Autowired
-  public SagaService(final SagaRepository sagaRepository, final SagaEventRepository sagaEventRepository) {
+  public SagaService(final SagaRepository sagaRepository, final SagaEventRepository sagaEventRepository, final SagaAdmissionRepository sagaAdmissionRepository,
+                     final ApplicationEventPublisher applicationEventPublisher, @Qualifier("queryExecutor") final Executor queryExecutor,
+                     final PlatformTransactionManager transactionManager, @Value("${saga.search.count.cache.expire.after.write.seconds}") final long countExpireAfterWriteSeconds) {
     this.sagaRepository = sagaRepository;
     this.sagaEventRepository = sagaEventRepository;
+    this.sagaAdmissionRepository = sagaAdmissionRepository;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.queryExecutor = queryExecutor;
+    this.transactionManager = transactionManager;
+    this.sagaCounts = CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofSeconds(countExpireAfterWriteSeconds)).build();
   }
 
 
@@ -78,17 +152,31 @@ public class SagaService {
    *
    * @param saga            the saga object.
    * @param sagaEvent the saga event
+   * @throws OptimisticLockingFailureException if the saga has been updated by another process, retrying it with the same version cannot succeed
    */
-  @Retryable(value = {Exception.class}, maxAttempts = 5, backoff = @Backoff(multiplier = 2, delay = 2000))
+  @Retryable(value = {Exception.class}, noRetryFor = {OptimisticLockingFailureException.class}, maxAttempts = 5, backoff = @Backoff(multiplier = 2, delay = 2000))
   @Transactional(propagation = Propagation.REQUIRES_NEW)
   public void updateAttachedSagaWithEvents(final Saga saga, final SagaEvent sagaEvent) {
     saga.setUpdateDate(LocalDateTime.now());
-    this.getSagaRepository().save(saga);
-    val result = this.getSagaEventRepository()
-        .findBySagaAndSagaEventOutcomeAndSagaEventStateAndSagaStepNumber(saga, sagaEvent.getSagaEventOutcome(), sagaEvent.getSagaEventState(), sagaEvent.getSagaStepNumber() - 1); //check if the previous step was same and had same outcome, and it is due to replay.
-    if (result.isEmpty()) {
+    this.saveDetachedSaga(saga);
+    val replayed = this.getSagaEventRepository()
+        .existsBySagaAndSagaEventOutcomeAndSagaEventStateAndSagaStepNumber(saga, sagaEvent.getSagaEventOutcome(), sagaEvent.getSagaEventState(), sagaEvent.getSagaStepNumber() - 1); //check if the previous step was same and had same outcome, and it is due to replay.
+    if (!replayed) {
       this.getSagaEventRepository().save(sagaEvent);
     }
+    this.releaseAdmissionIfEnded(saga);
+  }
+
+  /**
+   * Release the admission of the macro once the saga is no longer in flight, completed or force stopped, so the next saga for the macro is admitted.
+   *
+   * @param saga the saga
+   */
+  private void releaseAdmissionIfEnded(final Saga saga) {
+    if (saga.getMacroId() != null && !IN_FLIGHT_STATUSES.contains(saga.getStatus())) {
+      this.getSagaAdmissionRepository().deleteByMacroIdAndSagaId(saga.getMacroId(), saga.getSagaId());
+      this.getApplicationEventPublisher().publishEvent(new SagaAdmissionReleasedEvent(saga.getMacroId()));
+    }
   }
 
   /**
@@ -101,6 +189,16 @@ public class SagaService {
     return this.getSagaRepository().findById(sagaId);
   }
 
+  /**
+   * Find the saga by id for the orchestrator, detached with its payload, so only the steps write it, each in its own transaction.
+   *
+   * @param sagaId the saga id
+   * @return the optional
+   */
+  public Optional<Saga> findDetachedSagaById(final UUID sagaId) {
+    return this.getSagaRepository().findDetachedById(sagaId);
+  }
+
   /**
    * Find all saga states list.
    *
@@ -113,51 +211,117 @@ public class SagaService {
 
 
   /**
-   * Update saga record.
+   * Find the highest step number of the saga.
    *
    * @param saga the saga
+   * @return the highest step number, 0 when the saga has no events
    */
-  @Transactional(propagation = Propagation.MANDATORY)
-  public void updateSagaRecord(final Saga saga) { // saga here MUST be an attached entity
-    this.getSagaRepository().save(saga);
+  public int findLastSagaStepNumber(final Saga saga) {
+    return this.getSagaEventRepository().findMaxSagaStepNumberBySagaId(saga.getSagaId());
   }
 
   /**
-   * Find by macro id optional.
+   * Find the last saga state.
+   *
+   * @param saga the saga
+   * @return the optional
+   */
+  public Optional<SagaEvent> findLastSagaState(final Saga saga) {
+    return this.getSagaEventRepository().findFirstBySagaOrderBySagaStepNumberDesc(saga);
+  }
+
+  /**
+   * Update the payload of the saga in one statement if it is still at the version, so a concurrent update is caught by the database.
+   *
+   * @param sagaId     the saga id
+   * @param payload    the payload
+   * @param updateDate the update date
+   * @param version    the version the update is based on
+   * @return whether the saga was updated, false if it does not exist or is no longer at the version
+   */
+  public boolean updateSagaPayload(final UUID sagaId, final String payload, final LocalDateTime updateDate, final long version) {
+    return this.getSagaRepository().updatePayloadBySagaIdAndVersion(sagaId, payload.getBytes(StandardCharsets.UTF_8), updateDate, version) > 0;
+  }
+
+  /**
+   * Update the payload of the saga in one statement if it has not been updated since the update date, for the callers which do not send the version.
+   *
+   * @param sagaId         the saga id
+   * @param payload        the payload
+   * @param updateDate     the update date
+   * @param lastUpdateDate the update date the update is based on
+   * @return whether the saga was updated, false if it does not exist or has been updated since
+   */
+  public boolean updateSagaPayloadIfNotUpdatedSince(final UUID sagaId, final String payload, final LocalDateTime updateDate, final LocalDateTime lastUpdateDate) {
+    return this.getSagaRepository().updatePayloadBySagaIdAndUpdateDate(sagaId, payload.getBytes(StandardCharsets.UTF_8), updateDate, lastUpdateDate) > 0;
+  }
+
+  /**
+   * Whether the saga exists.
+   *
+   * @param sagaId the saga id
+   * @return whether the saga exists
+   */
+  public boolean sagaExists(final UUID sagaId) {
+    return this.getSagaRepository().existsById(sagaId);
+  }
+
+  /**
+   * Whether a saga in flight holds the admission of the macro in the database.
    *
    * @param macroId the macro id
-   * @param sagaName  the saga name
-   * @return the list
+   * @return whether a saga in flight holds the admission of the macro
    */
-  public Optional<Saga> findByMacroIdAndSagaName(final UUID macroId, final String sagaName) {
-    return this.getSagaRepository().findByMacroIdAndSagaName(macroId, sagaName);
+  public boolean isAdmissionHeldBySagaInFlight(final UUID macroId) {
+    return this.getSagaAdmissionRepository().existsByMacroIdAndSagaInFlight(macroId, IN_FLIGHT_STATUSES);
   }
 
   /**
-   * Find all by macro id and status in list.
+   * Find by macro id optional.
    *
    * @param macroId the macro id
    * @param sagaName  the saga name
-   * @param statuses  the statuses
    * @return the list
    */
-  public List<Saga> findAllByMacroIdAndStatusIn(final UUID macroId, final String sagaName, final List<String> statuses) {
-    return this.getSagaRepository().findAllByMacroIdAndSagaNameAndStatusIn(macroId, sagaName, statuses);
+  public Optional<Saga> findByMacroIdAndSagaName(final UUID macroId, final String sagaName) {
+    return this.getSagaRepository().findByMacroIdAndSagaName(macroId, sagaName);
   }
 
   /**
    * Update attached entity during saga process.
    *
    * @param saga the saga
+   * @throws OptimisticLockingFailureException if the saga has been updated by another process, retrying it with the same version cannot succeed
    */
-  @Retryable(value = {Exception.class}, maxAttempts = 5, backoff = @Backoff(multiplier = 2, delay = 2000))
+  @Retryable(value = {Exception.class}, noRetryFor = {OptimisticLockingFailureException.class}, maxAttempts = 5, backoff = @Backoff(multiplier = 2, delay = 2000))
   @Transactional(propagation = Propagation.REQUIRES_NEW)
   public void updateAttachedEntityDuringSagaProcess(final Saga saga) {
-    this.getSagaRepository().save(saga);
+    this.saveDetachedSaga(saga);
+    this.releaseAdmissionIfEnded(saga);
+  }
+
+  /**
+   * Save the saga the orchestrator carries from step to step, the update is conditional on its version and the new version is set on it for the next step.
+   * The new version is only set once the transaction has committed, so that a retry after a rollback updates the saga from the version still in the database.
+   *
+   * @param saga the saga
+   * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the saga has been updated by another process since it was read
+   */
+  private void saveDetachedSaga(final Saga saga) {
+    val version = this.getSagaRepository().saveAndFlush(saga).getVersion();
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        saga.setVersion(version);
+      }
+    });
   }
 
   /**
    * Create saga record in db saga.
+   * When the saga is for a macro, the macro is claimed in the same transaction, a saga in flight for the same macro makes it fail with a {@link org.springframework.dao.DataIntegrityViolationException}.
+   * The claim is on the macro whatever the saga name, a create and an update saga of the same macro do not run together either.
+   * A claim left behind by a saga which is no longer in flight, force stopped outside of the api for one, is taken over.
    *
    * @param sagaName  the saga name
    * @param userName  the user name
@@ -179,11 +343,16 @@ public class SagaService {
         .updateUser(userName)
         .updateDate(LocalDateTime.now())
         .build();
-    return this.createSagaRecord(saga);
+    val createdSaga = this.createSagaRecord(saga);
+    if (macroId != null) {
+      this.getSagaAdmissionRepository().deleteByMacroIdAndSagaNotInFlight(macroId, IN_FLIGHT_STATUSES);
+      this.getSagaAdmissionRepository().saveAndFlush(SagaAdmission.builder().macroId(macroId).sagaId(createdSaga.getSagaId()).createDate(createdSaga.getCreateDate()).build());
+    }
+    return createdSaga;
   }
 
   /**
-   * Find all completable future.
+   * Find the page of sagas, without their payload.
    *
    * @param specs      the saga specs
    * @param pageNumber the page number
@@ -191,15 +360,70 @@ public class SagaService {
    * @param sorts      the sorts
    * @return the completable future
    */
-  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
-  public CompletableFuture<Page<Saga>> findAll(final Specification<Saga> specs, final Integer pageNumber, final Integer pageSize, final List<Sort.Order> sorts) {
+  public CompletableFuture<Page<SagaSummary>> findAll(final Specification<Saga> specs, final Integer pageNumber, final Integer pageSize, final List<Sort.Order> sorts) {
+    final Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by(sorts));
+    return this.query(() -> this.getSagaRepository().findSummaries(specs, paging));
+  }
+
+  /**
+   * Find the slice of sagas after the cursor, newest first, with one limited query and no count query, without their payload.
+   *
+   * @param specs    the saga specs
+   * @param cursor   the position of the last saga of the previous slice, null for the first slice
+   * @param pageSize the slice size
+   * @return the completable future
+   */
+  public CompletableFuture<Slice<SagaSummary>> findSlice(final Specification<Saga> specs, final SagaKeysetCursor cursor, final Integer pageSize) {
+    final Specification<Saga> sliceSpecs = cursor == null ? specs : cursor.after().and(specs);
+    return this.query(() -> {
+      final List<SagaSummary> sagas = this.getSagaRepository().findSummaries(sliceSpecs, SagaKeysetCursor.SORT, pageSize + 1);
+      final boolean hasNext = sagas.size() > pageSize;
+      return new SliceImpl<>(hasNext ? sagas.subList(0, pageSize) : sagas, PageRequest.of(0, pageSize, SagaKeysetCursor.SORT), hasNext);
+    });
+  }
+
+  /**
+   * Count the sagas of the search, the count is cached for a while as the table only grows between the purges.
+   *
+   * @param specs    the saga specs
+   * @param cacheKey the key of the search, the search criteria json
+   * @return the completable future
+   */
+  public CompletableFuture<Long> countCached(final Specification<Saga> specs, final String cacheKey) {
+    return this.query(() -> {
+      try {
+        return this.sagaCounts.get(cacheKey, () -> this.getSagaRepository().count(specs));
+      } catch (final ExecutionException e) {
+        throw new CompletionException(e.getCause());
+      }
+    });
+  }
+
+  /**
+   * Run the search query on the query executor in a read only transaction, within the query timeout counted from now.
+   * The time left when the query starts is the transaction timeout, which hibernate sets as the jdbc statement timeout so the driver cancels the
+   * statement at the deadline, and the future fails with a {@link TimeoutException} at the same deadline.
+   *
+   * @param query the query
+   * @param <R>   the result type
+   * @return the completable future
+   */
+  private <R> CompletableFuture<R> query(final Supplier<R> query) {
+    final long timeoutInSeconds = this.getQueryTimeoutInSeconds();
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutInSeconds);
     return CompletableFuture.supplyAsync(() -> {
-      final Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by(sorts));
+      final long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        throw new CompletionException(new TimeoutException("saga query waited past its deadline before it started"));
+      }
+      val transactionTemplate = new TransactionTemplate(this.getTransactionManager());
+      transactionTemplate.setReadOnly(true);
+      transactionTemplate.setTimeout((int) ((remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
       try {
-        return this.sagaRepository.findAll(specs, paging);
+        return transactionTemplate.execute(status -> query.get());
       } catch (final Exception ex) {
         throw new CompletionException(ex);
       }
-    });
+    }, this.getQueryExecutor()).orTimeout(timeoutInSeconds, TimeUnit.SECONDS);
   }
 }
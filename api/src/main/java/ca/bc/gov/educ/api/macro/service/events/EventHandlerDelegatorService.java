@@ -1,15 +1,19 @@
 package ca.bc.gov.educ.api.macro.service.events;
 
+import ca.bc.gov.educ.api.macro.model.MacroEvent;
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
-import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.nats.client.Message;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static lombok.AccessLevel.PRIVATE;
 
 /**
@@ -29,47 +33,67 @@ public class EventHandlerDelegatorService {
   private final EventHandlerService eventHandlerService;
 
   /**
-   * The Message publisher.
+   * The Macro event outbox relay.
    */
   @Getter(PRIVATE)
-  private final MessagePublisher messagePublisher;
+  private final MacroEventOutboxRelay macroEventOutboxRelay;
 
 
   /**
    * Instantiates a new Event handler delegator service.
    *
-   * @param eventHandlerService the event handler service
-   * @param messagePublisher    the message publisher
+   * @param eventHandlerService   the event handler service
+   * @param macroEventOutboxRelay the macro event outbox relay
    */
   @Autowired
-  public EventHandlerDelegatorService(final EventHandlerService eventHandlerService, final MessagePublisher messagePublisher) {
+  public EventHandlerDelegatorService(final EventHandlerService eventHandlerService, final MacroEventOutboxRelay macroEventOutboxRelay) {
     this.eventHandlerService = eventHandlerService;
-    this.messagePublisher = messagePublisher;
+    this.macroEventOutboxRelay = macroEventOutboxRelay;
   }
 
   /**
-   * Handle event.
+   * Handle event, the response is written to the outbox by the event handler service and the relay of that row is handed off
+   * to the relay executor once that transaction is committed.
    *
    * @param event   the event
-   * @param message the message
+   * @param message the message, null when the event was dispatched in process
+   * @return the future, completed once the response is committed to the outbox, or failed with the exception of the handler
    */
   @Async("subscriberExecutor")
-  public void handleEvent(final Event event, final Message message) {
-    final boolean isSynchronous = message.getReplyTo() != null;
-    final byte[] result;
+  public CompletableFuture<Void> handleEvent(final Event event, final Message message) {
+    return this.processEvent(event, message);
+  }
+
+  /**
+   * Handle the event on the calling thread, for callers which already run on the subscriber executor.
+   *
+   * @param event   the event
+   * @param message the message, null when the event was dispatched in process
+   * @return the future, completed once the response is committed to the outbox, or failed with the exception of the handler
+   */
+  public CompletableFuture<Void> processEvent(final Event event, final Message message) {
+    if (message != null && message.getReplyTo() != null) { // this is for synchronous request/reply pattern.
+      event.setReplyTo(message.getReplyTo());
+    }
     try {
       switch (event.getEventType()) {
         case CREATE_MACRO:
           log.info("received create macro data :: {}", event.getSagaId());
           log.trace(PAYLOAD_LOG, event.getEventPayload());
-          result = this.getEventHandlerService().handleCreateMacroEvent(event);
-          this.publishToNATS(event, message, isSynchronous, result);
+          MacroEvent macroEvent;
+          try {
+            macroEvent = this.getEventHandlerService().handleCreateMacroEvent(event);
+          } catch (final DataIntegrityViolationException e) {
+            log.warn("macro of create macro event :: {} already exists", event.getSagaId());
+            macroEvent = this.getEventHandlerService().handleCreateMacroEventConflict(event);
+          }
+          this.getMacroEventOutboxRelay().relayEvents(List.of(macroEvent.getEventId()));
           break;
         case UPDATE_MACRO:
           log.info("received update macro data :: {}", event.getSagaId());
           log.trace(PAYLOAD_LOG, event.getEventPayload());
-          result = this.getEventHandlerService().handleUpdateMacroEvent(event);
-          this.publishToNATS(event, message, isSynchronous, result);
+          val updateMacroEvent = this.getEventHandlerService().handleUpdateMacroEvent(event);
+          this.getMacroEventOutboxRelay().relayEvents(List.of(updateMacroEvent.getEventId()));
           break;
         default:
           log.info("silently ignoring other event :: {}", event);
@@ -77,23 +101,9 @@ public class EventHandlerDelegatorService {
       }
     } catch (final Exception e) {
       log.error("Exception", e);
+      return CompletableFuture.failedFuture(e);
     }
-  }
-
-  /**
-   * Publish to nats.
-   *
-   * @param event         the event
-   * @param message       the message
-   * @param isSynchronous the is synchronous
-   * @param response      the response event
-   */
-  private void publishToNATS(final Event event, final Message message, final boolean isSynchronous, final byte[] response) throws JsonProcessingException {
-    if (isSynchronous) { // this is for synchronous request/reply pattern.
-      this.getMessagePublisher().dispatchMessage(message.getReplyTo(), response);
-    } else { // this is for async.
-      this.getMessagePublisher().dispatchMessage(event.getReplyTo(), response);
-    }
+    return CompletableFuture.completedFuture(null);
   }
 
 }
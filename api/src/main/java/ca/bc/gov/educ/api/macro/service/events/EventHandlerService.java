@@ -17,6 +17,7 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +25,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static ca.bc.gov.educ.api.macro.constants.EventOutcome.*;
-import static ca.bc.gov.educ.api.macro.constants.EventStatus.MESSAGE_PUBLISHED;
+import static ca.bc.gov.educ.api.macro.constants.EventStatus.DB_COMMITTED;
 import static lombok.AccessLevel.PRIVATE;
 import static org.springframework.transaction.annotation.Propagation.REQUIRES_NEW;
 
@@ -84,14 +85,14 @@ public class EventHandlerService {
   }
 
   /**
-   * Handle create macro event
+   * Handle create macro event, the response is written to the outbox in the same transaction and sent by the {@link MacroEventOutboxRelay}.
    *
    * @param event event with the payload
-   * @return the response event
+   * @return the response written to the outbox
    * @throws JsonProcessingException the exception
    */
   @Transactional(propagation = REQUIRES_NEW)
-  public byte[] handleCreateMacroEvent(@NonNull final Event event) throws JsonProcessingException {
+  public MacroEvent handleCreateMacroEvent(@NonNull final Event event) throws JsonProcessingException {
     MacroEvent macroEvent;
     val macroEventOptional = getMacroEventRepository().findBySagaIdAndEventType(event.getSagaId(), event.getEventType().toString());
     if (macroEventOptional.isEmpty()) {
@@ -108,22 +109,41 @@ public class EventHandlerService {
       log.info(RECORD_FOUND_FOR_SAGA_ID_EVENT_TYPE);
       log.trace(EVENT_PAYLOAD, event);
       macroEvent = macroEventOptional.get();
+      macroEvent.setEventStatus(DB_COMMITTED.toString());
       macroEvent.setUpdateDate(LocalDateTime.now());
     }
 
-    getMacroEventRepository().save(macroEvent);
-    return createResponseEvent(macroEvent);
+    return getMacroEventRepository().save(macroEvent);
   }
 
   /**
-   * Handle update macro event
+   * Handle create macro event whose insert was rejected by the macro unique constraint, another saga created a macro with the same codes.
+   * The response is written to the outbox with the MACRO_ALREADY_EXISTS outcome, unless one was already written for the saga.
    *
    * @param event event with the payload
-   * @return the response event
+   * @return the response written to the outbox
    * @throws JsonProcessingException the exception
    */
   @Transactional(propagation = REQUIRES_NEW)
-  public byte[] handleUpdateMacroEvent(@NonNull final Event event) throws JsonProcessingException {
+  public MacroEvent handleCreateMacroEventConflict(@NonNull final Event event) throws JsonProcessingException {
+    val macroEvent = getMacroEventRepository().findBySagaIdAndEventType(event.getSagaId(), event.getEventType().toString()).orElseGet(() -> {
+      event.setEventOutcome(MACRO_ALREADY_EXISTS);
+      return createMacroEventRecord(event);
+    });
+    macroEvent.setEventStatus(DB_COMMITTED.toString());
+    macroEvent.setUpdateDate(LocalDateTime.now());
+    return getMacroEventRepository().save(macroEvent);
+  }
+
+  /**
+   * Handle update macro event, the response is written to the outbox in the same transaction and sent by the {@link MacroEventOutboxRelay}.
+   *
+   * @param event event with the payload
+   * @return the response written to the outbox
+   * @throws JsonProcessingException the exception
+   */
+  @Transactional(propagation = REQUIRES_NEW)
+  public MacroEvent handleUpdateMacroEvent(@NonNull final Event event) throws JsonProcessingException {
     log.trace(EVENT_PAYLOAD, event);
     final Macro macro = JsonUtil.getJsonObjectFromString(Macro.class, event.getEventPayload());
     RequestUtil.setAuditColumnsForUpdate(macro);
@@ -133,11 +153,12 @@ public class EventHandlerService {
       event.setEventPayload(JsonUtil.getJsonStringFromObject(macroMapper.toStructure(macroEntity)));
     } catch (EntityNotFoundException ex) {
       event.setEventOutcome(MACRO_NOT_FOUND);
+    } catch (ObjectOptimisticLockingFailureException ex) {
+      event.setEventOutcome(MACRO_VERSION_CONFLICT);
     }
 
     val macroEvent = createMacroEventRecord(event);
-    getMacroEventRepository().save(macroEvent);
-    return createResponseEvent(macroEvent);
+    return getMacroEventRepository().save(macroEvent);
   }
 
   private MacroEvent createMacroEventRecord(Event event) {
@@ -149,13 +170,30 @@ public class EventHandlerService {
       .eventPayload(event.getEventPayload())
       .eventType(event.getEventType().toString())
       .sagaId(event.getSagaId())
-      .eventStatus(MESSAGE_PUBLISHED.toString())
+      .eventStatus(DB_COMMITTED.toString())
       .eventOutcome(event.getEventOutcome().toString())
       .replyChannel(event.getReplyTo())
       .build();
   }
 
-  private byte[] createResponseEvent(MacroEvent event) throws JsonProcessingException {
+  /**
+   * Create the response event sent back on the reply channel of the macro event.
+   *
+   * @param event the macro event
+   * @return the response event
+   * @throws JsonProcessingException the exception
+   */
+  static byte[] createResponseEvent(MacroEvent event) throws JsonProcessingException {
+    return JsonUtil.getJsonBytesFromObject(toResponseEvent(event));
+  }
+
+  /**
+   * The response event of the macro event.
+   *
+   * @param event the macro event
+   * @return the response event
+   */
+  static Event toResponseEvent(MacroEvent event) {
     val responseEvent = Event.builder()
       .sagaId(event.getSagaId())
       .eventType(EventType.valueOf(event.getEventType()))
@@ -164,7 +202,7 @@ public class EventHandlerService {
     if (log.isDebugEnabled()) {
       log.debug(RESPONDING_BACK, responseEvent);
     }
-    return JsonUtil.getJsonBytesFromObject(responseEvent);
+    return responseEvent;
   }
 
 }
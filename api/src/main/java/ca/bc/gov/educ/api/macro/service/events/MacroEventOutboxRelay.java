@@ -0,0 +1,198 @@
+package ca.bc.gov.educ.api.macro.service.events;
+
+import ca.bc.gov.educ.api.macro.exception.MacroAPIRuntimeException;
+import ca.bc.gov.educ.api.macro.messaging.LocalEventDispatcher;
+import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.model.MacroEvent;
+import ca.bc.gov.educ.api.macro.repository.MacroEventRepository;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static ca.bc.gov.educ.api.macro.constants.EventStatus.DB_COMMITTED;
+import static ca.bc.gov.educ.api.macro.constants.EventStatus.MESSAGE_PUBLISHED;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * The relay of the macro event outbox, the event handlers write the responses as DB_COMMITTED rows and this sends them on their reply channel.
+ * Every batch is claimed with a skip locked select, published, flushed and marked MESSAGE_PUBLISHED in one transaction, so pods never send the same row
+ * concurrently and a row stays DB_COMMITTED until the NATS server has it.
+ * The responses for a reply channel this api consumes itself are handed to the {@link LocalEventDispatcher} once their batch is committed.
+ * The event handlers hand the rows they just wrote to {@link #relayEvents(List)} on the relay executor, the schedule sweeps up the rest.
+ */
+@Component
+@Slf4j
+public class MacroEventOutboxRelay {
+
+  /**
+   * The Macro event repository.
+   */
+  @Getter(PRIVATE)
+  private final MacroEventRepository macroEventRepository;
+
+  /**
+   * The Message publisher.
+   */
+  @Getter(PRIVATE)
+  private final MessagePublisher messagePublisher;
+
+  /**
+   * The Local event dispatcher.
+   */
+  @Getter(PRIVATE)
+  private final LocalEventDispatcher localEventDispatcher;
+
+  /**
+   * The Transaction template, one transaction per batch.
+   */
+  @Getter(PRIVATE)
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * The number of events claimed and published per transaction.
+   */
+  @Value("${macro.event.outbox.relay.batch.size}")
+  @Setter
+  @Getter
+  Integer batchSize;
+
+  /**
+   * How long to wait for the NATS server to acknowledge a batch.
+   */
+  @Value("${macro.event.outbox.relay.flush.timeout.seconds}")
+  @Setter
+  @Getter
+  Integer flushTimeoutInSeconds;
+
+  /**
+   * Instantiates a new Macro event outbox relay.
+   *
+   * @param macroEventRepository the macro event repository
+   * @param messagePublisher     the message publisher
+   * @param localEventDispatcher the local event dispatcher
+   * @param transactionManager   the transaction manager
+   */
+  @Autowired
+  public MacroEventOutboxRelay(final MacroEventRepository macroEventRepository, final MessagePublisher messagePublisher,
+                               final LocalEventDispatcher localEventDispatcher, final PlatformTransactionManager transactionManager) {
+    this.macroEventRepository = macroEventRepository;
+    this.messagePublisher = messagePublisher;
+    this.localEventDispatcher = localEventDispatcher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Relay the pending events batch by batch until none are left. Runs on a schedule to pick up what the event handlers could not send,
+   * a failed publish or a pod which went down before relaying.
+   */
+  @Scheduled(cron = "${scheduled.jobs.relay.macro.events.cron}")
+  public void relayPendingEvents() {
+    try {
+      Integer relayed;
+      do {
+        relayed = this.relay(() -> this.getMacroEventRepository().findAndLockByEventStatus(DB_COMMITTED.toString(), PageRequest.ofSize(this.getBatchSize())));
+      } while (relayed != null && relayed >= this.getBatchSize());
+    } catch (final Exception e) {
+      log.error("Exception while relaying macro events, they will be sent on the next run :: ", e);
+    }
+  }
+
+  /**
+   * Relay the events an event handler just committed, off the thread of the handler. Events already claimed by another pod or already sent are skipped,
+   * events which could not be sent stay DB_COMMITTED for the schedule.
+   *
+   * @param eventIds the event ids
+   */
+  @Async("outboxRelayExecutor")
+  public void relayEvents(final List<UUID> eventIds) {
+    try {
+      this.relay(() -> this.getMacroEventRepository().findAndLockByEventIdInAndEventStatus(eventIds, DB_COMMITTED.toString()));
+    } catch (final Exception e) {
+      log.error("Exception while relaying macro events :: {}, they will be sent on the next scheduled run :: ", eventIds, e);
+    }
+  }
+
+  /**
+   * Relay one batch in its own transaction, then dispatch its responses for local reply channels, those the dispatcher turns down go over NATS.
+   *
+   * @param claim claims the batch, called in the transaction
+   * @return the number of events relayed
+   * @throws JsonProcessingException the json processing exception
+   */
+  private Integer relay(final Supplier<List<MacroEvent>> claim) throws JsonProcessingException {
+    final List<Map.Entry<String, Event>> localEvents = new ArrayList<>();
+    val relayed = this.getTransactionTemplate().execute(status -> this.relayBatch(claim.get(), localEvents));
+    for (val localEvent : localEvents) {
+      if (!this.getLocalEventDispatcher().dispatch(localEvent.getKey(), localEvent.getValue())) {
+        this.getMessagePublisher().dispatchMessage(localEvent.getKey(), JsonUtil.getJsonBytesFromObject(localEvent.getValue()));
+      }
+    }
+    return relayed;
+  }
+
+  /**
+   * Publish and mark one batch of claimed events, any exception rolls the batch back to DB_COMMITTED.
+   *
+   * @param macroEvents the claimed events
+   * @param localEvents the responses for local reply channels, dispatched by the caller once the batch is committed
+   * @return the number of events relayed
+   */
+  private int relayBatch(final List<MacroEvent> macroEvents, final List<Map.Entry<String, Event>> localEvents) {
+    if (macroEvents.isEmpty()) {
+      return 0;
+    }
+    boolean published = false;
+    try {
+      for (val macroEvent : macroEvents) {
+        if (macroEvent.getReplyChannel() == null) {
+          log.warn("macro event :: {} has no reply channel, nothing to send", macroEvent.getEventId());
+          continue;
+        }
+        if (this.getLocalEventDispatcher().isLocal(macroEvent.getReplyChannel())) {
+          localEvents.add(Map.entry(macroEvent.getReplyChannel(), EventHandlerService.toResponseEvent(macroEvent)));
+          continue;
+        }
+        this.getMessagePublisher().dispatchMessage(macroEvent.getReplyChannel(), EventHandlerService.createResponseEvent(macroEvent));
+        published = true;
+      }
+      if (published) {
+        this.getMessagePublisher().flush(Duration.ofSeconds(this.getFlushTimeoutInSeconds()));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MacroAPIRuntimeException(e.getMessage());
+    } catch (final TimeoutException | JsonProcessingException e) {
+      throw new MacroAPIRuntimeException(e.getMessage());
+    }
+    val now = LocalDateTime.now();
+    macroEvents.forEach(macroEvent -> {
+      macroEvent.setEventStatus(MESSAGE_PUBLISHED.toString());
+      macroEvent.setUpdateDate(now);
+    });
+    log.debug("relayed {} macro events", macroEvents.size());
+    return macroEvents.size();
+  }
+}
@@ -29,4 +29,6 @@ public class Macro extends BaseRequest {
   @NotNull(message = "macroText cannot be null")
   @Size(max = 4000)
   private String macroText;
+
+  private Long version;
 }
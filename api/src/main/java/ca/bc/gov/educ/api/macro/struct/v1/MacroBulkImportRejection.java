@@ -0,0 +1,23 @@
+package ca.bc.gov.educ.api.macro.struct.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MacroBulkImportRejection {
+  /**
+   * The position of the macro in the imported stream, starting at 0.
+   */
+  private int index;
+  private String businessUseTypeCode;
+  private String macroTypeCode;
+  private String macroCode;
+  private List<String> errors;
+}
@@ -0,0 +1,21 @@
+package ca.bc.gov.educ.api.macro.struct.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MacroBulkImportResult {
+  private int receivedCount;
+  private int createdCount;
+
+  @Builder.Default
+  private List<MacroBulkImportRejection> rejections = new ArrayList<>();
+}
@@ -57,4 +57,8 @@ public class Saga {
   String updateDate;
 
   Integer retryCount;
+  /**
+   * The Version, sent back as the ETag and expected back in the If-Match header of an update.
+   */
+  Long version;
 }
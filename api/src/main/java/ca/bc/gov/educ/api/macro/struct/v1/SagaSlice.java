@@ -0,0 +1,38 @@
+package ca.bc.gov.educ.api.macro.struct.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A slice of the sagas paged by cursor, without the total count of a page unless it was asked for.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SagaSlice {
+  /**
+   * The sagas of the slice.
+   */
+  private List<Saga> content;
+  /**
+   * The requested slice size.
+   */
+  private int size;
+  /**
+   * Whether there are sagas after this slice.
+   */
+  private boolean hasNext;
+  /**
+   * The cursor of the next slice, null on the last slice.
+   */
+  private String nextCursor;
+  /**
+   * The number of sagas matching the search, from a cache refreshed periodically, null unless requested.
+   */
+  private Long totalElements;
+}
@@ -0,0 +1,138 @@
+package ca.bc.gov.educ.api.macro.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs at most maxConcurrency tasks of the delegate at the same time, the rest wait for a permit. The permits may be shared by several executors, so
+ * that their tasks together stay within the same bound.
+ * Reports the number of waiting and running tasks and the time a task waited before running to micrometer, tagged with the executor name.
+ * The MDC of the submitting thread, the correlation id of the request among others, is set on the thread running the task.
+ */
+@Slf4j
+public class BoundedExecutor implements Executor {
+
+  /**
+   * The Delegate.
+   */
+  private final Executor delegate;
+
+  /**
+   * The Permits.
+   */
+  private final Semaphore permits;
+
+  /**
+   * The tasks submitted and not running yet.
+   */
+  private final AtomicInteger queued = new AtomicInteger();
+
+  /**
+   * The tasks running.
+   */
+  private final AtomicInteger active = new AtomicInteger();
+
+  /**
+   * The time from submit to run.
+   */
+  private final Timer waitTimer;
+
+  /**
+   * Instantiates a new Bounded executor.
+   *
+   * @param name           the executor name, used as the metrics tag
+   * @param delegate       the executor running the tasks
+   * @param maxConcurrency the max number of tasks running at the same time
+   * @param meterRegistry  the meter registry
+   */
+  public BoundedExecutor(final String name, final Executor delegate, final int maxConcurrency, final MeterRegistry meterRegistry) {
+    this(name, delegate, new Semaphore(maxConcurrency), meterRegistry);
+  }
+
+  /**
+   * Instantiates a new Bounded executor taking its permits from the given semaphore.
+   *
+   * @param name          the executor name, used as the metrics tag
+   * @param delegate      the executor running the tasks
+   * @param permits       the permits, one is held by every running task
+   * @param meterRegistry the meter registry
+   */
+  public BoundedExecutor(final String name, final Executor delegate, final Semaphore permits, final MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.permits = permits;
+    Gauge.builder("macro.executor.queued", this.queued, AtomicInteger::get).tag("name", name).register(meterRegistry);
+    Gauge.builder("macro.executor.active", this.active, AtomicInteger::get).tag("name", name).register(meterRegistry);
+    this.waitTimer = Timer.builder("macro.executor.wait").tag("name", name).register(meterRegistry);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    final long submitted = System.nanoTime();
+    final Map<String, String> context = MDC.getCopyOfContextMap();
+    this.queued.incrementAndGet();
+    try {
+      this.delegate.execute(() -> this.runWithPermit(command, submitted, context));
+    } catch (final RejectedExecutionException e) {
+      this.queued.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * Run the command once a permit is available.
+   *
+   * @param command   the command
+   * @param submitted when the command was submitted
+   * @param context   the MDC of the submitting thread
+   */
+  private void runWithPermit(final Runnable command, final long submitted, final Map<String, String> context) {
+    try {
+      this.permits.acquire();
+    } catch (final InterruptedException e) {
+      this.queued.decrementAndGet();
+      Thread.currentThread().interrupt();
+      log.warn("interrupted while waiting for a permit, task not run");
+      return;
+    }
+    this.queued.decrementAndGet();
+    this.active.incrementAndGet();
+    this.waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+    final Map<String, String> previous = MDC.getCopyOfContextMap();
+    this.setContext(context);
+    try {
+      command.run();
+    } finally {
+      this.setContext(previous);
+      this.active.decrementAndGet();
+      this.permits.release();
+    }
+  }
+
+  private void setContext(final Map<String, String> context) {
+    if (context == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(context);
+    }
+  }
+
+  /**
+   * Shutdown the delegate, called by spring when the bean is destroyed.
+   */
+  public void shutdown() {
+    if (this.delegate instanceof ExecutorService executorService) {
+      executorService.shutdown();
+    }
+  }
+}
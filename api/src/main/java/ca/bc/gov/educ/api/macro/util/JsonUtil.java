@@ -1,21 +1,46 @@
 package ca.bc.gov.educ.api.macro.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The type Json util.
+ * A single configured {@link ObjectMapper} is shared, and the thread safe {@link ObjectReader}/{@link ObjectWriter} built from it are cached per type,
+ * so no mapper or serializer lookup is repeated on the messaging hot paths.
  *
  * @author OM
  */
 @Slf4j
 public class JsonUtil {
+  /**
+   * The shared object mapper, it must not be re-configured after the readers and writers are built from it.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  /**
+   * The Readers per target type.
+   */
+  private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+  /**
+   * The Writers per source type.
+   */
+  private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
   /**
    * Instantiates a new Json util.
    */
@@ -30,10 +55,7 @@ public class JsonUtil {
    * @throws JsonProcessingException the json processing exception
    */
   public static String getJsonStringFromObject(final Object payload) throws JsonProcessingException {
-    final var mapper = new ObjectMapper();
-    mapper.registerModule(new JavaTimeModule());
-    mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    return mapper.writeValueAsString(payload);
+    return writerFor(payload).writeValueAsString(payload);
   }
 
   /**
@@ -46,20 +68,20 @@ public class JsonUtil {
    * @throws JsonProcessingException the json processing exception
    */
   public static <T> T getJsonObjectFromString(final Class<T> clazz, final String payload) throws JsonProcessingException {
-    return new ObjectMapper().readValue(payload, clazz);
+    return readerFor(clazz).readValue(payload);
   }
 
   /**
-   * Gets json object from string.
+   * Gets json object from byte array, without copying it into a string first.
    *
    * @param <T>     the type parameter
    * @param clazz   the clazz
    * @param payload the payload
-   * @return the json object from string
+   * @return the json object from byte array
    * @throws IOException the io exception
    */
   public static <T> T getJsonObjectFromByteArray(final Class<T> clazz, final byte[] payload) throws IOException {
-    return new ObjectMapper().readValue(payload, clazz);
+    return readerFor(clazz).readValue(payload);
   }
 
   /**
@@ -70,7 +92,7 @@ public class JsonUtil {
    * @throws JsonProcessingException the json processing exception
    */
   public static byte[] getJsonBytesFromObject(final Object payload) throws JsonProcessingException {
-    return new ObjectMapper().writeValueAsBytes(payload);
+    return writerFor(payload).writeValueAsBytes(payload);
   }
 
   /**
@@ -81,10 +103,58 @@ public class JsonUtil {
    */
   public static Optional<String> getJsonString(final Object payload) {
     try {
-      return Optional.ofNullable(new ObjectMapper().writeValueAsString(payload));
+      return Optional.ofNullable(writerFor(payload).writeValueAsString(payload));
     } catch (final Exception ex) {
       log.error("Exception while converting object to JSON String :: {}", payload);
     }
     return Optional.empty();
   }
+
+  /**
+   * Gets an iterator reading the objects one at a time from the stream, the stream can be a json array or newline delimited json.
+   *
+   * @param <T>         the type parameter
+   * @param clazz       the clazz
+   * @param inputStream the input stream
+   * @return the mapping iterator
+   * @throws IOException the io exception
+   */
+  public static <T> MappingIterator<T> getJsonObjectsFromStream(final Class<T> clazz, final InputStream inputStream) throws IOException {
+    return readerFor(clazz).readValues(inputStream);
+  }
+
+  /**
+   * Gets a writer writing the objects one at a time to the stream as newline delimited json.
+   *
+   * @param clazz        the clazz
+   * @param outputStream the output stream
+   * @return the sequence writer
+   * @throws IOException the io exception
+   */
+  public static SequenceWriter getJsonSequenceWriter(final Class<?> clazz, final OutputStream outputStream) throws IOException {
+    return WRITERS.computeIfAbsent(clazz, MAPPER::writerFor).withRootValueSeparator("\n").writeValues(outputStream);
+  }
+
+  /**
+   * Gets the cached reader for the type.
+   *
+   * @param clazz the clazz
+   * @return the object reader
+   */
+  private static ObjectReader readerFor(final Class<?> clazz) {
+    return READERS.computeIfAbsent(clazz, MAPPER::readerFor);
+  }
+
+  /**
+   * Gets the cached writer for the runtime type of the payload.
+   *
+   * @param payload the payload
+   * @return the object writer
+   */
+  private static ObjectWriter writerFor(final Object payload) {
+    if (payload == null) {
+      return MAPPER.writer();
+    }
+    return WRITERS.computeIfAbsent(payload.getClass(), MAPPER::writerFor);
+  }
 }
@@ -1,5 +1,6 @@
 package ca.bc.gov.educ.api.macro.util;
 
+import ca.bc.gov.educ.api.macro.exception.InvalidParameterException;
 import ca.bc.gov.educ.api.macro.struct.BaseRequest;
 import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -7,6 +8,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -48,6 +50,24 @@ public class RequestUtil {
     baseRequest.setUpdateDate(LocalDateTime.now().toString());
   }
 
+  /**
+   * Get the version of an If-Match header, the ETags of the api are the quoted versions of the entities.
+   *
+   * @param ifMatch the If-Match header
+   * @return the version, null if the header is absent or matches any version
+   * @throws InvalidParameterException if the header is not the ETag of a version
+   */
+  public static Long getVersionFromIfMatch(final String ifMatch) {
+    if (StringUtils.isBlank(ifMatch) || "*".equals(ifMatch.trim())) {
+      return null;
+    }
+    try {
+      return Long.valueOf(StringUtils.strip(StringUtils.removeStart(ifMatch.trim(), "W/"), "\""));
+    } catch (final NumberFormatException e) {
+      throw new InvalidParameterException(HttpHeaders.IF_MATCH);
+    }
+  }
+
   /**
    * Get the Sort.Order list from JSON string
    *
@@ -6,8 +6,9 @@ import org.springframework.beans.factory.annotation.*;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.FieldError;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class MacroPayloadValidator {
@@ -27,8 +28,7 @@ public class MacroPayloadValidator {
       apiValidationErrors.add(createFieldError("macroId", macro.getMacroId(), "macroId should be null for post operation."));
     }
     if (isCreateOperation) {
-      var macroList = macroRepository.findAllByBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode(macro.getBusinessUseTypeCode(), macro.getMacroTypeCode(), macro.getMacroCode());
-      if (!macroList.isEmpty()) {
+      if (macroRepository.existsByBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode(macro.getBusinessUseTypeCode(), macro.getMacroTypeCode(), macro.getMacroCode())) {
         apiValidationErrors.add(createFieldError("uniqueConstraintBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode", macro, "combination of BusinessUseTypeCode, MacroTypeCode and MacroCode already exists"));
       }
     }
@@ -38,6 +38,61 @@ public class MacroPayloadValidator {
     return apiValidationErrors;
   }
 
+  /**
+   * Validate a batch of macros to create, the uniqueness of the whole batch is checked with one query.
+   *
+   * @param macros               the macros
+   * @param BusinessUseTypeCodes the business use type codes
+   * @return the validation errors by position of the macro in the batch, only macros with errors have an entry
+   */
+  public Map<Integer, List<FieldError>> validateBulkPayload(List<Macro> macros, List<String> BusinessUseTypeCodes) {
+    final Set<String> existingKeys = findExistingKeys(macros);
+    final Map<Integer, List<FieldError>> apiValidationErrors = new HashMap<>();
+    for (int i = 0; i < macros.size(); i++) {
+      final Macro macro = macros.get(i);
+      final List<FieldError> errors = new ArrayList<>();
+      if (macro.getMacroId() != null) {
+        errors.add(createFieldError("macroId", macro.getMacroId(), "macroId should be null for post operation."));
+      }
+      if (existingKeys.contains(uniqueKey(macro.getBusinessUseTypeCode(), macro.getMacroTypeCode(), macro.getMacroCode()))) {
+        errors.add(createFieldError("uniqueConstraintBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode", macro, "combination of BusinessUseTypeCode, MacroTypeCode and MacroCode already exists"));
+      }
+      if (!BusinessUseTypeCodes.contains(macro.getBusinessUseTypeCode())) {
+        errors.add(createFieldError(BUSINESS_USE_TYPE_CODE, macro.getBusinessUseTypeCode(), "businessUseTypeCode Invalid."));
+      }
+      if (!errors.isEmpty()) {
+        apiValidationErrors.put(i, errors);
+      }
+    }
+    return apiValidationErrors;
+  }
+
+  private Set<String> findExistingKeys(List<Macro> macros) {
+    final var businessUseTypeCodes = collect(macros, Macro::getBusinessUseTypeCode);
+    final var macroTypeCodes = collect(macros, Macro::getMacroTypeCode);
+    final var macroCodes = collect(macros, Macro::getMacroCode);
+    if (businessUseTypeCodes.isEmpty() || macroTypeCodes.isEmpty() || macroCodes.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(macroRepository.findUniqueKeys(businessUseTypeCodes, macroTypeCodes, macroCodes));
+  }
+
+  /**
+   * The key of the BusinessUseTypeCode, MacroTypeCode and MacroCode unique constraint, the same as the one built by MacroRepository.findUniqueKeys.
+   *
+   * @param businessUseTypeCode the business use type code
+   * @param macroTypeCode       the macro type code
+   * @param macroCode           the macro code
+   * @return the key
+   */
+  public static String uniqueKey(String businessUseTypeCode, String macroTypeCode, String macroCode) {
+    return businessUseTypeCode + "|" + macroTypeCode + "|" + macroCode;
+  }
+
+  private static Set<String> collect(List<Macro> macros, Function<Macro, String> field) {
+    return macros.stream().map(field).filter(Objects::nonNull).collect(Collectors.toSet());
+  }
+
   private FieldError createFieldError(String fieldName, Object rejectedValue, String message) {
     return new FieldError(Macro.class.getName(), fieldName, rejectedValue, false, null, null, message);
   }
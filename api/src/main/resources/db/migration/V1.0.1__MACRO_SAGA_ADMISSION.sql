@@ -0,0 +1,17 @@
+CREATE TABLE MACRO_SAGA_ADMISSION
+(
+    MACRO_ID    RAW(16)              NOT NULL,
+    SAGA_ID     RAW(16)              NOT NULL,
+    CREATE_DATE DATE DEFAULT SYSDATE NOT NULL,
+    CONSTRAINT MACRO_SAGA_ADMISSION_PK PRIMARY KEY (MACRO_ID)
+);
+
+ALTER INDEX API_MACROS.MACRO_SAGA_ADMISSION_PK REBUILD TABLESPACE API_PEN_IDX;
+
+-- sagas already in flight keep their macro, the oldest one wins if there is more than one
+INSERT INTO MACRO_SAGA_ADMISSION (MACRO_ID, SAGA_ID, CREATE_DATE)
+SELECT MACRO_ID, MIN(SAGA_ID) KEEP (DENSE_RANK FIRST ORDER BY CREATE_DATE), MIN(CREATE_DATE)
+FROM MACRO_SAGA
+WHERE MACRO_ID IS NOT NULL
+  AND STATUS IN ('STARTED', 'IN_PROGRESS')
+GROUP BY MACRO_ID;
@@ -0,0 +1,3 @@
+CREATE INDEX MACRO_SAGA_EVENT_STATES_SAGA_ID_STEP_IDX ON MACRO_SAGA_EVENT_STATES (SAGA_ID, SAGA_STEP_NUMBER);
+
+ALTER INDEX API_MACROS.MACRO_SAGA_EVENT_STATES_SAGA_ID_STEP_IDX REBUILD TABLESPACE API_PEN_IDX;
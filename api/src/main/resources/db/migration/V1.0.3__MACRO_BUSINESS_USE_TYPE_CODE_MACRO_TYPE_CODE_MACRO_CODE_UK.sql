@@ -0,0 +1,7 @@
+ALTER TABLE MACRO
+    DROP CONSTRAINT MACRO_CODE_MACRO_TYPE_CODE_BUSINESS_USE_TYPE_CODE_UK DROP INDEX;
+
+ALTER TABLE MACRO
+    ADD CONSTRAINT MACRO_BUSINESS_USE_TYPE_CODE_MACRO_TYPE_CODE_MACRO_CODE_UK UNIQUE (BUSINESS_USE_TYPE_CODE, MACRO_TYPE_CODE, MACRO_CODE);
+
+ALTER INDEX API_MACROS.MACRO_BUSINESS_USE_TYPE_CODE_MACRO_TYPE_CODE_MACRO_CODE_UK REBUILD TABLESPACE API_PEN_IDX;
@@ -0,0 +1,3 @@
+CREATE INDEX MACRO_SAGA_CREATE_DATE_SAGA_ID_IDX ON MACRO_SAGA (CREATE_DATE DESC, SAGA_ID DESC);
+
+ALTER INDEX API_MACROS.MACRO_SAGA_CREATE_DATE_SAGA_ID_IDX REBUILD TABLESPACE API_PEN_IDX;
@@ -0,0 +1,3 @@
+CREATE INDEX MACRO_EVENT_CREATE_DATE_EVENT_ID_IDX ON MACRO_EVENT (CREATE_DATE, EVENT_ID);
+
+ALTER INDEX API_MACROS.MACRO_EVENT_CREATE_DATE_EVENT_ID_IDX REBUILD TABLESPACE API_PEN_IDX;
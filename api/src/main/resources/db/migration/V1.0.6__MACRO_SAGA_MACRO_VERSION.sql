@@ -0,0 +1,3 @@
+ALTER TABLE MACRO_SAGA ADD VERSION NUMBER DEFAULT 0 NOT NULL;
+
+ALTER TABLE MACRO ADD VERSION NUMBER DEFAULT 0 NOT NULL;
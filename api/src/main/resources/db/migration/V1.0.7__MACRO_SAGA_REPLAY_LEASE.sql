@@ -0,0 +1,6 @@
+ALTER TABLE MACRO_SAGA ADD REPLAY_OWNER VARCHAR2(100);
+ALTER TABLE MACRO_SAGA ADD REPLAY_LEASE_EXPIRES_AT TIMESTAMP;
+
+CREATE INDEX MACRO_SAGA_REPLAY_OWNER_IDX ON MACRO_SAGA (REPLAY_OWNER);
+
+ALTER INDEX API_MACROS.MACRO_SAGA_REPLAY_OWNER_IDX REBUILD TABLESPACE API_PEN_IDX;
@@ -0,0 +1,80 @@
+package ca.bc.gov.educ.api.macro.cache;
+
+import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.model.MacroEntity;
+import ca.bc.gov.educ.api.macro.repository.MacroRepository;
+import ca.bc.gov.educ.api.macro.service.MacroService;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {MacroApiResourceApplication.class})
+public class MacroCatalogCacheTest {
+
+  @Autowired
+  MacroCatalogCache macroCatalogCache;
+
+  @Autowired
+  MacroService macroService;
+
+  @Autowired
+  MacroRepository macroRepository;
+
+  @Autowired
+  MessagePublisher messagePublisher;
+
+  @After
+  public void after() {
+    this.macroRepository.deleteAll();
+    this.macroCatalogCache.invalidateAll();
+  }
+
+  @Test
+  public void testFindMacros_givenCachedEntries_shouldNotSeeChangesMadeBehindTheCache() {
+    this.macroService.createMacro(this.createMacroEntity("hi"));
+    assertThat(this.macroCatalogCache.findMacrosByBusinessUseTypeCode("PENREG")).hasSize(1);
+
+    this.macroRepository.save(this.createMacroEntity("bye"));
+    assertThat(this.macroCatalogCache.findMacrosByBusinessUseTypeCode("PENREG")).hasSize(1);
+  }
+
+  @Test
+  public void testFindMacros_givenMacroCreatedThroughService_shouldInvalidateAndBroadcast() {
+    final var first = this.macroService.createMacro(this.createMacroEntity("hi"));
+    assertThat(this.macroCatalogCache.findMacrosByBusinessUseTypeCodeAndMacroTypeCode("PENREG", "MERGE")).hasSize(1);
+    assertThat(this.macroCatalogCache.getMacro(first.getMacroId())).isPresent();
+
+    this.macroService.createMacro(this.createMacroEntity("bye"));
+    assertThat(this.macroCatalogCache.findMacrosByBusinessUseTypeCodeAndMacroTypeCode("PENREG", "MERGE")).hasSize(2);
+    verify(this.messagePublisher, atLeastOnce()).dispatchMessage(eq(TopicsEnum.MACRO_CATALOG_INVALIDATION_TOPIC.toString()), any());
+  }
+
+  private MacroEntity createMacroEntity(final String macroCode) {
+    final var entity = new MacroEntity();
+    entity.setMacroCode(macroCode);
+    entity.setMacroText("hello");
+    entity.setMacroTypeCode("MERGE");
+    entity.setBusinessUseTypeCode("PENREG");
+    entity.setCreateUser("user");
+    entity.setUpdateUser("user");
+    entity.setCreateDate(LocalDateTime.now());
+    entity.setUpdateDate(LocalDateTime.now());
+    return entity;
+  }
+}
@@ -0,0 +1,103 @@
+package ca.bc.gov.educ.api.macro.cache;
+
+import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import ca.bc.gov.educ.api.macro.model.MacroEntity;
+import ca.bc.gov.educ.api.macro.repository.MacroRepository;
+import ca.bc.gov.educ.api.macro.service.MacroService;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {MacroApiResourceApplication.class}, properties = {
+  "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+  "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+  "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class MacroSecondLevelCacheTest {
+
+  @Autowired
+  MacroService macroService;
+
+  @Autowired
+  MacroRepository macroRepository;
+
+  @Autowired
+  MacroCatalogCache macroCatalogCache;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @After
+  public void after() {
+    this.macroRepository.deleteAll();
+  }
+
+  @Test
+  public void testFindMacros_givenSecondLevelCacheEnabled_shouldServeRepeatedReadsFromCacheUntilTheMacroIsUpdated() {
+    final var statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    final var macro = this.macroService.createMacro(this.createMacroEntity());
+
+    assertThat(this.macroRepository.findAllByBusinessUseTypeCode("PENREG")).hasSize(1);
+    assertThat(this.macroRepository.findAllByBusinessUseTypeCode("PENREG")).hasSize(1);
+    assertThat(this.macroRepository.findById(macro.getMacroId())).isPresent();
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    assertThat(statistics.getDomainDataRegionStatistics(MacroEntity.CACHE_REGION).getHitCount()).isPositive();
+
+    macro.setMacroText("changed");
+    this.macroService.updateMacro(macro.getMacroId(), macro);
+    assertThat(this.macroRepository.findAllByBusinessUseTypeCode("PENREG")).extracting(MacroEntity::getMacroText).containsExactly("changed");
+
+    assertThat(this.meterRegistry.find("cache.evictions").tag("cache", MacroEntity.CACHE_REGION).meter()).isNotNull();
+    assertThat(this.meterRegistry.find("hibernate.second.level.cache.requests").tag("region", MacroEntity.CACHE_REGION).meters()).isNotEmpty();
+  }
+
+  @Test
+  public void testRegions_givenApplicationConf_shouldBeBoundedBySize() {
+    final var regionFactory = (JCacheRegionFactory) this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+    final var configuration = regionFactory.getCacheManager().getCache(MacroEntity.CACHE_REGION).getConfiguration(CaffeineConfiguration.class);
+    assertThat(configuration.getMaximumSize()).hasValue(1000);
+    assertThat(configuration.isStatisticsEnabled()).isTrue();
+  }
+
+  @Test
+  public void testInvalidateAll_givenMacroInSecondLevelCache_shouldEvictIt() {
+    final var macro = this.macroService.createMacro(this.createMacroEntity());
+    assertThat(this.macroRepository.findById(macro.getMacroId())).isPresent();
+    assertThat(this.entityManagerFactory.getCache().contains(MacroEntity.class, macro.getMacroId())).isTrue();
+
+    this.macroCatalogCache.invalidateAll();
+    assertThat(this.entityManagerFactory.getCache().contains(MacroEntity.class, macro.getMacroId())).isFalse();
+  }
+
+  private MacroEntity createMacroEntity() {
+    final var entity = new MacroEntity();
+    entity.setMacroCode("hi");
+    entity.setMacroText("hello");
+    entity.setMacroTypeCode("MERGE");
+    entity.setBusinessUseTypeCode("PENREG");
+    entity.setCreateUser("user");
+    entity.setUpdateUser("user");
+    entity.setCreateDate(LocalDateTime.now());
+    entity.setUpdateDate(LocalDateTime.now());
+    return entity;
+  }
+}
@@ -0,0 +1,36 @@
+package ca.bc.gov.educ.api.macro.codec;
+
+import ca.bc.gov.educ.api.macro.constants.PayloadCompression;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PayloadCodecTest {
+
+  private static final byte[] PAYLOAD = ("{\"businessUseTypeCode\":\"PENREG\",\"macroTypeCode\":\"MERGE\",\"macroCode\":\"hi\","
+    + "\"macroText\":\"" + "Surname and given name appear to be entered backwards. ".repeat(20) + "\"}").getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void encode_givenPayloadAboveThreshold_shouldDeflateBehindHeaderAndDecodeBack() {
+    final var codec = new PayloadCodec(PayloadCompression.DEFLATE, 64, 1);
+    final var stored = codec.encode(PAYLOAD);
+    assertThat(stored[0]).isEqualTo(PayloadCodec.DEFLATE_FORMAT);
+    assertThat(stored.length).isLessThan(PAYLOAD.length);
+    assertThat(codec.decode(stored)).isEqualTo(PAYLOAD);
+  }
+
+  @Test
+  public void encode_givenPayloadBelowThresholdOrNoCompression_shouldStoreRawJson() {
+    assertThat(new PayloadCodec(PayloadCompression.DEFLATE, PAYLOAD.length + 1, 1).encode(PAYLOAD)).isSameAs(PAYLOAD);
+    assertThat(new PayloadCodec(PayloadCompression.NONE, 0, 1).encode(PAYLOAD)).isSameAs(PAYLOAD);
+  }
+
+  @Test
+  public void decode_givenRowWrittenBeforeTheCodec_shouldReturnItUnchanged() {
+    final var codec = new PayloadCodec(PayloadCompression.DEFLATE, 64, 1);
+    assertThat(codec.decode(PAYLOAD)).isSameAs(PAYLOAD);
+    assertThat(codec.decode(new byte[0])).isEmpty();
+  }
+}
@@ -0,0 +1,100 @@
+package ca.bc.gov.educ.api.macro.config;
+
+import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {MacroApiResourceApplication.class}, properties = {
+  "macro.datasource.replica.enabled=true",
+  "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+  "spring.datasource.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL})
+public class ReplicaRoutingDataSourceTest {
+
+  static final String PRIMARY_URL = "jdbc:h2:mem:macro-primary;DB_CLOSE_DELAY=-1";
+
+  static final String REPLICA_URL = "jdbc:h2:mem:macro-replica;DB_CLOSE_DELAY=-1";
+
+  @Autowired
+  DataSource dataSource;
+
+  @Autowired
+  ReplicaRoutingDataSource replicaRoutingDataSource;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Before
+  public void before() throws SQLException {
+    this.execute(PRIMARY_URL, "create table ROUTING_PROBE (NAME varchar(10))", "insert into ROUTING_PROBE values ('primary')");
+    this.execute(REPLICA_URL, "create table ROUTING_PROBE (NAME varchar(10))", "insert into ROUTING_PROBE values ('replica')",
+      "create table REPLICA_LAG (LAG_SECONDS number)", "insert into REPLICA_LAG values (0)");
+  }
+
+  @After
+  public void after() throws SQLException {
+    this.execute(PRIMARY_URL, "drop table ROUTING_PROBE");
+    this.execute(REPLICA_URL, "drop table ROUTING_PROBE", "drop table REPLICA_LAG");
+  }
+
+  @Test
+  public void testGetConnection_givenReplicaWithinMaxLag_shouldRouteOnlyReadOnlyTransactionsToReplica() {
+    assertThat(this.probe(true)).as("the replica is not used before the first lag check").isEqualTo("primary");
+
+    this.replicaRoutingDataSource.checkReplicaLag();
+    assertThat(this.probe(true)).isEqualTo("replica");
+    assertThat(this.probe(false)).isEqualTo("primary");
+    assertThat(this.meterRegistry.get("macro.datasource.replica.lag").gauge().value()).isZero();
+    assertThat(this.meterRegistry.get("macro.datasource.connections").tag("pool", "replica").counter().count()).isPositive();
+    assertThat(this.meterRegistry.find("hikaricp.connections").tag("pool", "macro-replica").gauge()).isNotNull();
+  }
+
+  @Test
+  public void testGetConnection_givenReplicaBeyondMaxLag_shouldRouteReadOnlyTransactionsToPrimary() throws SQLException {
+    this.replicaRoutingDataSource.checkReplicaLag();
+    assertThat(this.probe(true)).isEqualTo("replica");
+
+    this.execute(REPLICA_URL, "update REPLICA_LAG set LAG_SECONDS = 120");
+    this.replicaRoutingDataSource.checkReplicaLag();
+    assertThat(this.probe(true)).isEqualTo("primary");
+    assertThat(this.meterRegistry.get("macro.datasource.replica.routable").gauge().value()).isZero();
+
+    this.execute(REPLICA_URL, "update REPLICA_LAG set LAG_SECONDS = 0");
+    this.replicaRoutingDataSource.checkReplicaLag();
+    assertThat(this.probe(true)).isEqualTo("replica");
+  }
+
+  private String probe(final boolean readOnly) {
+    final var transactionTemplate = new TransactionTemplate(this.transactionManager);
+    transactionTemplate.setReadOnly(readOnly);
+    return transactionTemplate.execute(status -> new JdbcTemplate(this.dataSource).queryForObject("select NAME from ROUTING_PROBE", String.class));
+  }
+
+  private void execute(final String url, final String... statements) throws SQLException {
+    try (final var connection = DriverManager.getConnection(url, "sa", ""); final var statement = connection.createStatement()) {
+      for (final var sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+}
@@ -7,10 +7,12 @@ import ca.bc.gov.educ.api.macro.filter.FilterOperation;
 import ca.bc.gov.educ.api.macro.filter.ValueType;
 import ca.bc.gov.educ.api.macro.mapper.SagaMapper;
 import ca.bc.gov.educ.api.macro.mapper.v1.MacroMapper;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.service.SagaService;
 import ca.bc.gov.educ.api.macro.repository.SagaRepository;
 import ca.bc.gov.educ.api.macro.struct.v1.Saga;
+import ca.bc.gov.educ.api.macro.struct.v1.SagaSlice;
 import ca.bc.gov.educ.api.macro.struct.v1.Search;
 import ca.bc.gov.educ.api.macro.struct.v1.SearchCriteria;
 import ca.bc.gov.educ.api.macro.util.JsonUtil;
@@ -18,6 +20,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.hibernate.Hibernate;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -26,6 +29,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -39,12 +43,14 @@ import java.util.stream.Collectors;
 
 import static ca.bc.gov.educ.api.macro.constants.SagaEnum.MACRO_CREATE_SAGA;
 import static ca.bc.gov.educ.api.macro.filter.Condition.AND;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -69,6 +75,9 @@ public class MacroAPIControllerTest {
   @Autowired
   SagaEventRepository sagaEventRepository;
 
+  @Autowired
+  SagaAdmissionRepository sagaAdmissionRepository;
+
   @Autowired
   SagaService sagaService;
 
@@ -85,6 +94,7 @@ public class MacroAPIControllerTest {
 
   @After
   public void after() {
+    sagaAdmissionRepository.deleteAll();
     sagaEventRepository.deleteAll();
     repository.deleteAll();
   }
@@ -132,7 +142,9 @@ public class MacroAPIControllerTest {
         .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_READ_SAGA")))
         .contentType(APPLICATION_JSON))
       .andReturn();
-    this.mockMvc.perform(asyncDispatch(result)).andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(3)));
+    this.mockMvc.perform(asyncDispatch(result)).andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(3)))
+      .andExpect(jsonPath("$.content[0].payload").doesNotExist());
+    assertThat(Hibernate.isPropertyInitialized(this.repository.findAll().get(0), "payloadBytes")).isFalse();
   }
 
   @Test
@@ -182,6 +194,77 @@ public class MacroAPIControllerTest {
     this.mockMvc.perform(asyncDispatch(result)).andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(1)));
   }
 
+  @Test
+  @SuppressWarnings("java:S100")
+  public void testGetSagaSlice_givenCursorOfFirstSlice_shouldReturnTheRemainingSagas() throws Exception {
+    final File file = new File(
+      Objects.requireNonNull(this.getClass().getClassLoader().getResource("mock_multiple_sagas.json")).getFile()
+    );
+    final List<Saga> sagaStructs = new ObjectMapper().readValue(file, new TypeReference<>() {
+    });
+    final List<ca.bc.gov.educ.api.macro.model.Saga> sagaEntities = sagaStructs.stream().map(mapper::toModel).collect(Collectors.toList());
+    val createDate = LocalDateTime.now().withNano(0);
+    for (val saga : sagaEntities) {
+      saga.setSagaId(null);
+      saga.setCreateDate(createDate);
+      saga.setUpdateDate(createDate);
+    }
+    this.repository.saveAll(sagaEntities);
+
+    final MvcResult firstResult = this.mockMvc
+      .perform(get("/api/v1/macro/saga/slice")
+        .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_READ_SAGA")))
+        .param("pageSize", "2")
+        .param("includeTotal", "true")
+        .contentType(APPLICATION_JSON))
+      .andReturn();
+    final String firstSliceJson = this.mockMvc.perform(asyncDispatch(firstResult)).andExpect(status().isOk())
+      .andExpect(jsonPath("$.content", hasSize(2))).andExpect(jsonPath("$.hasNext").value(true)).andExpect(jsonPath("$.totalElements").value(3))
+      .andReturn().getResponse().getContentAsString();
+    final SagaSlice firstSlice = JsonUtil.getJsonObjectFromString(SagaSlice.class, firstSliceJson);
+
+    final MvcResult secondResult = this.mockMvc
+      .perform(get("/api/v1/macro/saga/slice")
+        .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_READ_SAGA")))
+        .param("pageSize", "2")
+        .param("cursor", firstSlice.getNextCursor())
+        .contentType(APPLICATION_JSON))
+      .andReturn();
+    final String secondSliceJson = this.mockMvc.perform(asyncDispatch(secondResult)).andExpect(status().isOk())
+      .andExpect(jsonPath("$.content", hasSize(1))).andExpect(jsonPath("$.hasNext").value(false))
+      .andReturn().getResponse().getContentAsString();
+    final SagaSlice secondSlice = JsonUtil.getJsonObjectFromString(SagaSlice.class, secondSliceJson);
+    assertThat(secondSlice.getNextCursor()).isNull();
+    assertThat(secondSlice.getTotalElements()).isNull();
+    assertThat(secondSlice.getContent()).extracting(Saga::getSagaId)
+      .doesNotContainAnyElementsOf(firstSlice.getContent().stream().map(Saga::getSagaId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testGetSagaSlice_givenInvalidCursor_shouldReturn400() throws Exception {
+    this.mockMvc.perform(get("/api/v1/macro/saga/slice")
+        .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_READ_SAGA")))
+        .param("cursor", "not-a-cursor")
+        .contentType(APPLICATION_JSON))
+      .andDo(print()).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void testGetSagaPaginated_givenQueryPastDeadline_shouldReturn503() throws Exception {
+    final Integer queryTimeoutInSeconds = this.sagaService.getQueryTimeoutInSeconds();
+    this.sagaService.setQueryTimeoutInSeconds(0);
+    try {
+      final MvcResult result = this.mockMvc
+        .perform(get("/api/v1/macro/saga/paginated")
+          .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_READ_SAGA")))
+          .contentType(APPLICATION_JSON))
+        .andReturn();
+      this.mockMvc.perform(asyncDispatch(result)).andDo(print()).andExpect(status().isServiceUnavailable());
+    } finally {
+      this.sagaService.setQueryTimeoutInSeconds(queryTimeoutInSeconds);
+    }
+  }
+
   @Test
   @SuppressWarnings("java:S100")
   public void testReadSagaEvents_givenSagaDoesntExist_shouldReturnStatusNotFound() throws Exception {
@@ -240,6 +323,26 @@ public class MacroAPIControllerTest {
       .contentType(APPLICATION_JSON)).andDo(print()).andExpect(status().isConflict());
   }
 
+  @Test
+  public void testUpdateSaga_givenIfMatchVersion_shouldUpdateOnceAndReturn412AfterwardsForTheSameVersion() throws Exception {
+    final var sagaFromDB = this.sagaService.createSagaRecordInDB(MACRO_CREATE_SAGA.toString(), "Test", "Test", UUID.fromString(this.macroID));
+    val saga = Saga.builder().payload("updated").build();
+    this.mockMvc.perform(put("/api/v1/macro/saga/{sagaId}", sagaFromDB.getSagaId()).content(objectMapper.writeValueAsBytes(saga))
+      .header(HttpHeaders.IF_MATCH, "\"0\"")
+      .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_WRITE_SAGA")))
+      .contentType(APPLICATION_JSON)).andDo(print()).andExpect(status().isOk())
+      .andExpect(header().string(HttpHeaders.ETAG, "\"1\"")).andExpect(jsonPath("$.version").value(1))
+      .andExpect(jsonPath("$.payload").value("updated")).andExpect(jsonPath("$.sagaName").value(MACRO_CREATE_SAGA.toString()));
+    this.mockMvc.perform(put("/api/v1/macro/saga/{sagaId}", sagaFromDB.getSagaId()).content(objectMapper.writeValueAsBytes(saga))
+      .header(HttpHeaders.IF_MATCH, "\"0\"")
+      .with(jwt().jwt(jwt -> jwt.claim("scope", "MACRO_WRITE_SAGA")))
+      .contentType(APPLICATION_JSON)).andDo(print()).andExpect(status().isPreconditionFailed());
+    assertThat(this.sagaService.findDetachedSagaById(sagaFromDB.getSagaId())).get().satisfies(updated -> {
+      assertThat(updated.getVersion()).isEqualTo(1L);
+      assertThat(updated.getPayload()).isEqualTo("updated");
+    });
+  }
+
   @Test
   public void testUpdateSaga_givenValidData_shouldReturnOk() throws Exception {
     final var sagaFromDB = this.sagaService.createSagaRecordInDB(MACRO_CREATE_SAGA.toString(), "Test", "Test", UUID.fromString(this.macroID));
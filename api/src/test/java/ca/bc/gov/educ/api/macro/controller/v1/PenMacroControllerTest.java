@@ -1,11 +1,15 @@
 package ca.bc.gov.educ.api.macro.controller.v1;
 
 import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import ca.bc.gov.educ.api.macro.admission.SagaAdmissionRegistry;
+import ca.bc.gov.educ.api.macro.constants.SagaStatusEnum;
+import ca.bc.gov.educ.api.macro.cache.MacroCatalogCache;
 import ca.bc.gov.educ.api.macro.constants.SagaEnum;
 import ca.bc.gov.educ.api.macro.constants.v1.URL;
 import ca.bc.gov.educ.api.macro.mapper.v1.MacroMapper;
 import ca.bc.gov.educ.api.macro.model.MacroEntity;
 import ca.bc.gov.educ.api.macro.repository.MacroRepository;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaRepository;
 import ca.bc.gov.educ.api.macro.service.MacroService;
@@ -33,8 +37,10 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -62,9 +68,18 @@ public class PenMacroControllerTest {
   @Autowired
   SagaEventRepository sagaEventRepository;
 
+  @Autowired
+  SagaAdmissionRepository sagaAdmissionRepository;
+
   @Autowired
   SagaService sagaService;
 
+  @Autowired
+  MacroCatalogCache macroCatalogCache;
+
+  @Autowired
+  SagaAdmissionRegistry sagaAdmissionRegistry;
+
   private final String macroID = "7f000101-7151-1d84-8171-5187006c0001";
 
   @Before
@@ -74,9 +89,12 @@ public class PenMacroControllerTest {
 
   @After
   public void after() {
+    sagaAdmissionRepository.deleteAll();
     this.macroRepository.deleteAll();
     sagaEventRepository.deleteAll();
     repository.deleteAll();
+    this.macroCatalogCache.invalidateAll();
+    this.sagaAdmissionRegistry.release(UUID.fromString(this.macroID));
   }
 
   @Test
@@ -233,6 +251,108 @@ public class PenMacroControllerTest {
       .andDo(print()).andExpect(status().isConflict());
   }
 
+  @Test
+  public void testUpdateMacro_GivenSagaWithSameMacroIdStartedByThisPod_ShouldReturnStatusConflictWhileInFlight() throws Exception {
+    var payload = dummyMacroJsonWithId("PENREG");
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/update-macro")
+      .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+      .contentType(MediaType.APPLICATION_JSON)
+      .accept(MediaType.APPLICATION_JSON)
+      .content(payload))
+      .andDo(print()).andExpect(status().isOk());
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/update-macro")
+      .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+      .contentType(MediaType.APPLICATION_JSON)
+      .accept(MediaType.APPLICATION_JSON)
+      .content(payload))
+      .andDo(print()).andExpect(status().isConflict());
+  }
+
+  @Test
+  public void testUpdateMacro_GivenSagaOfThisPodForceStoppedWithoutRelease_ShouldReturnStatusOk() throws Exception {
+    var payload = dummyMacroJsonWithId("PENREG");
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/update-macro")
+      .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+      .contentType(MediaType.APPLICATION_JSON)
+      .accept(MediaType.APPLICATION_JSON)
+      .content(payload))
+      .andDo(print()).andExpect(status().isOk());
+    repository.findAll().forEach(saga -> {
+      saga.setStatus(SagaStatusEnum.FORCE_STOPPED.toString());
+      repository.save(saga);
+    });
+
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/update-macro")
+      .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+      .contentType(MediaType.APPLICATION_JSON)
+      .accept(MediaType.APPLICATION_JSON)
+      .content(payload))
+      .andDo(print()).andExpect(status().isOk());
+    assertThat(sagaAdmissionRepository.findAll()).hasSize(1);
+  }
+
+  @Test
+  public void testImportMacros_GivenNdjsonWithDuplicatesAndInvalidMacros_ShouldCreateTheValidOnesAndReportTheRest() throws Exception {
+    createMacroEntities("GMP");
+    final var macros = String.join("\n",
+        this.bulkMacroJson("GMP", "hi"),
+        this.bulkMacroJson("GMP", "one"),
+        this.bulkMacroJson("PENREG", "two"),
+        this.bulkMacroJson("PENREG", "two"),
+        this.bulkMacroJson("OTHER", "three"),
+        this.bulkMacroJson("GMP", "toolongmacrocode"));
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/bulk-import")
+            .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+            .contentType(MediaType.APPLICATION_NDJSON).content(macros))
+        .andDo(print()).andExpect(status().isOk())
+        .andExpect(jsonPath("$.receivedCount").value(6))
+        .andExpect(jsonPath("$.createdCount").value(2))
+        .andExpect(jsonPath("$.rejections", hasSize(4)));
+    assertThat(this.macroRepository.findAll()).hasSize(3);
+  }
+
+  @Test
+  public void testImportMacros_GivenJsonArray_ShouldCreateAllMacros() throws Exception {
+    final var macros = "[" + this.bulkMacroJson("GMP", "one") + "," + this.bulkMacroJson("UMP", "one") + "]";
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/bulk-import")
+            .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+            .contentType(MediaType.APPLICATION_JSON).content(macros))
+        .andDo(print()).andExpect(status().isOk())
+        .andExpect(jsonPath("$.createdCount").value(2))
+        .andExpect(jsonPath("$.rejections", hasSize(0)));
+    assertThat(this.macroRepository.findAll()).hasSize(2);
+  }
+
+  @Test
+  public void testImportMacros_GivenJsonArrayWithNullElement_ShouldRejectItAndCreateTheOthers() throws Exception {
+    final var macros = "[" + this.bulkMacroJson("GMP", "one") + ",null," + this.bulkMacroJson("UMP", "one") + "]";
+    this.mockMvc.perform(MockMvcRequestBuilders.post(URL.BASE_URL + URL.PEN_MACRO + "/bulk-import")
+            .with(jwt().jwt(jwt -> jwt.claim("scope", "WRITE_PEN_MACRO")))
+            .contentType(MediaType.APPLICATION_JSON).content(macros))
+        .andDo(print()).andExpect(status().isOk())
+        .andExpect(jsonPath("$.receivedCount").value(3))
+        .andExpect(jsonPath("$.createdCount").value(2))
+        .andExpect(jsonPath("$.rejections", hasSize(1)))
+        .andExpect(jsonPath("$.rejections[0].index").value(1));
+    assertThat(this.macroRepository.findAll()).hasSize(2);
+  }
+
+  @Test
+  public void testExportMacros_ShouldStreamEveryMacroAsNdjson() throws Exception {
+    createMacroEntities("GMP");
+    createMacroEntities("PENREG");
+    final var mvcResult = this.mockMvc.perform(MockMvcRequestBuilders.get(URL.BASE_URL + URL.PEN_MACRO + "/bulk-export")
+            .with(jwt().jwt(jwt -> jwt.claim("scope", "READ_PEN_MACRO"))))
+        .andExpect(request().asyncStarted()).andReturn();
+    final var content = this.mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    assertThat(content.split("\n")).hasSize(2);
+    assertThat(new ObjectMapper().readValue(content.split("\n")[0], Macro.class).getMacroCode()).isEqualTo("hi");
+  }
+
+  private String bulkMacroJson(String businessUseTypeCode, String macroCode) {
+    return "{\"businessUseTypeCode\":\"" + businessUseTypeCode + "\",\"macroCode\":\"" + macroCode + "\",\"macroTypeCode\":\"MERGE\",\"macroText\":\"hello\",\"createUser\":\"user\",\"updateUser\":\"user\"}";
+  }
+
   protected String dummyMacroJson(String businessUseTypeCode) {
     return " {\n" +
             "    \"createUser\": \"user\",\n" +
@@ -0,0 +1,182 @@
+package ca.bc.gov.educ.api.macro.messaging;
+
+import ca.bc.gov.educ.api.macro.admission.SagaAdmissionRegistry;
+import ca.bc.gov.educ.api.macro.cache.MacroCatalogCache;
+import ca.bc.gov.educ.api.macro.config.ExecutorFactory;
+import ca.bc.gov.educ.api.macro.constants.EventOutcome;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.model.MacroEvent;
+import ca.bc.gov.educ.api.macro.orchestrator.base.EventHandler;
+import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
+import ca.bc.gov.educ.api.macro.service.events.EventHandlerDelegatorService;
+import ca.bc.gov.educ.api.macro.service.events.EventHandlerService;
+import ca.bc.gov.educ.api.macro.service.events.MacroEventOutboxRelay;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import ca.bc.gov.educ.api.macro.support.NatsMessageImpl;
+import ca.bc.gov.educ.api.macro.util.JsonUtil;
+import io.nats.client.Connection;
+import io.nats.client.Dispatcher;
+import io.nats.client.JetStream;
+import io.nats.client.JetStreamManagement;
+import io.nats.client.JetStreamSubscription;
+import io.nats.client.Message;
+import io.nats.client.MessageHandler;
+import io.nats.client.PullSubscribeOptions;
+import io.nats.client.api.StreamConfiguration;
+import io.nats.client.api.StreamInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class JetStreamSubscriberTest {
+
+  private JetStreamSubscriber jetStreamSubscriber;
+
+  @Before
+  public void setUp() {
+    final var properties = new ApplicationProperties();
+    properties.setJetStreamMaxDeliver(5);
+    properties.setJetStreamRedeliveryBackoffInitialMillis(10);
+    properties.setJetStreamRedeliveryBackoffMaxMillis(40);
+    final var executorFactory = mock(ExecutorFactory.class);
+    when(executorFactory.natsExecutor(anyString(), anyInt(), anyInt())).thenReturn(Executors.newCachedThreadPool());
+    this.jetStreamSubscriber = new JetStreamSubscriber(mock(Connection.class), properties, List.of(), executorFactory);
+  }
+
+  @After
+  public void after() {
+    this.jetStreamSubscriber.close();
+  }
+
+  @Test
+  public void handle_givenHandlerCommitsOrFails_shouldAckAfterCommitAndNakAfterBackoff() throws Exception {
+    final var committed = new CompletableFuture<Void>();
+    final var message = this.eventMessage();
+    final var handled = this.jetStreamSubscriber.handle(message, event -> committed);
+    verify(message, never()).ack();
+    committed.complete(null);
+    handled.get(5, TimeUnit.SECONDS);
+    verify(message).ack();
+    verify(message, never()).nak();
+
+    final var failedMessage = this.eventMessage();
+    this.jetStreamSubscriber.handle(failedMessage, event -> CompletableFuture.failedFuture(new IllegalStateException("rolled back"))).get(5, TimeUnit.SECONDS);
+    verify(failedMessage).nak();
+    verify(failedMessage, never()).ack();
+
+    final var notAnEvent = mock(Message.class);
+    when(notAnEvent.getData()).thenReturn("not json".getBytes());
+    this.jetStreamSubscriber.handle(notAnEvent, event -> CompletableFuture.completedFuture(null)).get(5, TimeUnit.SECONDS);
+    verify(notAnEvent).term();
+
+    assertThat(List.of(1L, 2L, 3L, 4L)).extracting(this.jetStreamSubscriber::backoffMillis).containsExactly(10L, 20L, 40L, 40L);
+  }
+
+  @Test
+  public void subscribe_givenFetchFails_shouldGiveThePermitsBackAndKeepFetching() throws Exception {
+    final var properties = new ApplicationProperties();
+    properties.setJetStreamStreamName("MACRO_API_EVENTS");
+    properties.setJetStreamFetchBatchSize(1);
+    properties.setJetStreamMaxInFlight(1);
+    properties.setJetStreamAckWaitSeconds(60);
+    properties.setJetStreamMaxDeliver(5);
+    final var connection = mock(Connection.class);
+    final var jetStreamManagement = mock(JetStreamManagement.class);
+    final var jetStream = mock(JetStream.class);
+    final var subscription = mock(JetStreamSubscription.class);
+    when(connection.jetStreamManagement()).thenReturn(jetStreamManagement);
+    when(connection.jetStream()).thenReturn(jetStream);
+    when(jetStream.subscribe(anyString(), any(PullSubscribeOptions.class))).thenReturn(subscription);
+    when(subscription.fetch(anyInt(), any(Duration.class))).thenThrow(new IllegalStateException("connection lost"));
+    final var eventHandler = mock(EventHandler.class);
+    when(eventHandler.getTopicToSubscribe()).thenReturn(TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString());
+    final var executorFactory = mock(ExecutorFactory.class);
+    when(executorFactory.natsExecutor(anyString(), anyInt(), anyInt())).thenReturn(Executors.newCachedThreadPool());
+    final var subscriber = new JetStreamSubscriber(connection, properties, List.of(eventHandler), executorFactory);
+    try {
+      subscriber.subscribe();
+      verify(subscription, timeout(5000).atLeast(3)).fetch(anyInt(), any(Duration.class));
+    } finally {
+      subscriber.close();
+    }
+  }
+
+  @Test
+  public void subscribe_givenJetStreamEnabled_shouldAnswerMacroApiRequestOnItsInboxFromCoreNats() throws Exception {
+    final var properties = new ApplicationProperties();
+    properties.setJetStreamEnabled(true);
+    properties.setJetStreamStreamName("MACRO_API_EVENTS");
+    properties.setJetStreamMaxInFlight(1);
+    properties.setJetStreamAckWaitSeconds(60);
+    properties.setJetStreamMaxDeliver(5);
+    final var connection = mock(Connection.class);
+    final var jetStreamManagement = mock(JetStreamManagement.class);
+    final var jetStream = mock(JetStream.class);
+    final var streamInfo = mock(StreamInfo.class);
+    when(connection.jetStreamManagement()).thenReturn(jetStreamManagement);
+    when(connection.jetStream()).thenReturn(jetStream);
+    when(jetStreamManagement.getStreamNames()).thenReturn(List.of("MACRO_API_EVENTS"));
+    when(jetStreamManagement.getStreamInfo("MACRO_API_EVENTS")).thenReturn(streamInfo);
+    when(streamInfo.getConfiguration()).thenReturn(StreamConfiguration.builder().name("MACRO_API_EVENTS")
+        .subjects(TopicsEnum.MACRO_API_TOPIC.toString(), TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString()).build());
+    final List<MessageHandler> messageHandlers = new ArrayList<>();
+    final var dispatcher = mock(Dispatcher.class);
+    when(connection.createDispatcher(any(MessageHandler.class))).thenAnswer(invocation -> {
+      messageHandlers.add(invocation.getArgument(0));
+      return dispatcher;
+    });
+    final var eventHandler = mock(EventHandler.class);
+    when(eventHandler.getTopicToSubscribe()).thenReturn(TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString());
+    final var executorFactory = mock(ExecutorFactory.class);
+    when(executorFactory.natsExecutor(anyString(), anyInt(), anyInt())).thenReturn(mock(ExecutorService.class));
+    final var eventHandlerService = mock(EventHandlerService.class);
+    final var macroEventOutboxRelay = mock(MacroEventOutboxRelay.class);
+    final var responseEventId = UUID.randomUUID();
+    when(eventHandlerService.handleCreateMacroEvent(any(Event.class))).thenAnswer(invocation ->
+        MacroEvent.builder().eventId(responseEventId).replyChannel(invocation.<Event>getArgument(0).getReplyTo()).build());
+
+    new JetStreamSubscriber(connection, properties, List.of(eventHandler), executorFactory).subscribe();
+    new MessageSubscriber(connection, new EventHandlerDelegatorService(eventHandlerService, macroEventOutboxRelay), List.of(eventHandler),
+        mock(MacroCatalogCache.class), mock(SagaAdmissionRegistry.class), properties).subscribe();
+
+    final var streamConfiguration = ArgumentCaptor.forClass(StreamConfiguration.class);
+    verify(jetStreamManagement).updateStream(streamConfiguration.capture());
+    assertThat(streamConfiguration.getValue().getSubjects()).containsExactly(TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString());
+    verify(jetStream).subscribe(eq(TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString()), any(PullSubscribeOptions.class));
+    verify(jetStream, never()).subscribe(eq(TopicsEnum.MACRO_API_TOPIC.toString()), any(PullSubscribeOptions.class));
+    verify(dispatcher).subscribe(TopicsEnum.MACRO_API_TOPIC.toString(), "MACRO-API-TOPIC");
+
+    final var request = Event.builder().eventType(EventType.CREATE_MACRO).sagaId(UUID.randomUUID()).eventPayload("{}").build();
+    messageHandlers.get(0).onMessage(NatsMessageImpl.builder().subject(TopicsEnum.MACRO_API_TOPIC.toString()).replyTo("_INBOX.request")
+        .data(JsonUtil.getJsonBytesFromObject(request)).build());
+    final var handledEvent = ArgumentCaptor.forClass(Event.class);
+    verify(eventHandlerService).handleCreateMacroEvent(handledEvent.capture());
+    assertThat(handledEvent.getValue().getReplyTo()).isEqualTo("_INBOX.request");
+    verify(macroEventOutboxRelay).relayEvents(List.of(responseEventId));
+  }
+
+  private Message eventMessage() throws Exception {
+    final var message = mock(Message.class);
+    final var event = Event.builder().eventType(EventType.CREATE_MACRO).eventOutcome(EventOutcome.MACRO_CREATED).sagaId(UUID.randomUUID()).build();
+    when(message.getData()).thenReturn(JsonUtil.getJsonBytesFromObject(event));
+    return message;
+  }
+}
@@ -0,0 +1,74 @@
+package ca.bc.gov.educ.api.macro.messaging;
+
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.constants.TopicsEnum;
+import ca.bc.gov.educ.api.macro.orchestrator.base.EventHandler;
+import ca.bc.gov.educ.api.macro.service.events.EventHandlerDelegatorService;
+import ca.bc.gov.educ.api.macro.struct.v1.Event;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class LocalEventDispatcherTest {
+
+  private final List<Runnable> submitted = new ArrayList<>();
+
+  private final EventHandlerDelegatorService eventHandlerDelegatorService = mock(EventHandlerDelegatorService.class);
+
+  private final EventHandler eventHandler = mock(EventHandler.class);
+
+  private Executor subscriberExecutor = this.submitted::add;
+
+  private LocalEventDispatcher localEventDispatcher;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    when(this.eventHandler.getTopicToSubscribe()).thenReturn(TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString());
+    final ObjectProvider<EventHandlerDelegatorService> delegatorProvider = mock(ObjectProvider.class);
+    when(delegatorProvider.getIfAvailable()).thenReturn(this.eventHandlerDelegatorService);
+    final ObjectProvider<EventHandler> eventHandlersProvider = mock(ObjectProvider.class);
+    when(eventHandlersProvider.orderedStream()).thenAnswer(invocation -> Stream.of(this.eventHandler));
+    final ObjectProvider<Executor> executorProvider = mock(ObjectProvider.class);
+    when(executorProvider.getIfAvailable(any())).thenAnswer(invocation -> (Executor) command -> this.subscriberExecutor.execute(command));
+    this.localEventDispatcher = new LocalEventDispatcher(delegatorProvider, eventHandlersProvider, executorProvider);
+    this.localEventDispatcher.setEnabled(true);
+    this.localEventDispatcher.afterSingletonsInstantiated();
+  }
+
+  @Test
+  public void dispatch_givenLocalTopics_shouldHandTheEventsToTheSubscriberExecutor() throws Exception {
+    final var event = Event.builder().eventType(EventType.CREATE_MACRO).sagaId(UUID.randomUUID()).build();
+    assertThat(this.localEventDispatcher.dispatch(TopicsEnum.MACRO_API_TOPIC.toString(), event)).isTrue();
+    assertThat(this.localEventDispatcher.dispatch(TopicsEnum.MACRO_CREATE_SAGA_TOPIC.toString(), event)).isTrue();
+    verifyNoInteractions(this.eventHandlerDelegatorService);
+    verify(this.eventHandler, never()).processEvent(any());
+    assertThat(this.submitted).hasSize(2);
+
+    this.submitted.forEach(Runnable::run);
+    verify(this.eventHandlerDelegatorService).processEvent(any(Event.class), isNull());
+    verify(this.eventHandler).processEvent(any(Event.class));
+    verify(this.eventHandler, never()).handleEvent(any());
+  }
+
+  @Test
+  public void dispatch_givenExecutorRejects_shouldLeaveTheEventToNats() {
+    this.subscriberExecutor = command -> {
+      throw new RejectedExecutionException("shutting down");
+    };
+    final var event = Event.builder().eventType(EventType.CREATE_MACRO).sagaId(UUID.randomUUID()).build();
+    assertThat(this.localEventDispatcher.dispatch(TopicsEnum.MACRO_API_TOPIC.toString(), event)).isFalse();
+  }
+}
@@ -0,0 +1,90 @@
+package ca.bc.gov.educ.api.macro.messaging;
+
+import ca.bc.gov.educ.api.macro.properties.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nats.client.Connection;
+import io.nats.client.Message;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class MessagePublisherTest {
+
+  @Test
+  public void requestMessageAsync_givenNoResponseInTime_shouldFailWithTimeoutAndReportItBySubject() {
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var connection = mock(Connection.class);
+    final var response = mock(Message.class);
+    when(response.getData()).thenReturn("pong".getBytes());
+    when(connection.request(eq("FAST_TOPIC"), any())).thenReturn(CompletableFuture.completedFuture(response));
+    when(connection.request(eq("SLOW_TOPIC"), any())).thenReturn(new CompletableFuture<>());
+    final var messagePublisher = new MessagePublisher(connection, meterRegistry, this.properties(false));
+
+    assertThat(messagePublisher.requestMessageAsync("FAST_TOPIC", "ping".getBytes(), Duration.ofSeconds(1)).join()).contains("pong");
+    final var slow = messagePublisher.requestMessageAsync("SLOW_TOPIC", "ping".getBytes(), Duration.ofMillis(50));
+    assertThat(meterRegistry.get("macro.nats.request.outstanding").tag("subject", "SLOW_TOPIC").gauge().value()).isEqualTo(1);
+    assertThatThrownBy(slow::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(TimeoutException.class);
+
+    assertThat(meterRegistry.get("macro.nats.request.outstanding").tag("subject", "SLOW_TOPIC").gauge().value()).isZero();
+    assertThat(meterRegistry.get("macro.nats.request.timeouts").tag("subject", "SLOW_TOPIC").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("macro.nats.request").tag("subject", "FAST_TOPIC").tag("outcome", "success").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void dispatchMessage_givenCoalescingMode_shouldHoldMessagesUntilMaxMessagesOrFlush() throws Exception {
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var connection = mock(Connection.class);
+    final var messagePublisher = new MessagePublisher(connection, meterRegistry, this.properties(true));
+
+    messagePublisher.dispatchMessage("TOPIC", "1".getBytes());
+    messagePublisher.dispatchMessage("TOPIC", "2".getBytes());
+    verify(connection, never()).publish(anyString(), any(byte[].class));
+    messagePublisher.dispatchMessage("TOPIC", "3".getBytes());
+    verify(connection, times(3)).publish(eq("TOPIC"), any(byte[].class));
+    verify(connection).flushBuffer();
+
+    messagePublisher.dispatchMessage("TOPIC", "4".getBytes());
+    messagePublisher.flush(Duration.ofSeconds(1));
+    verify(connection, times(4)).publish(eq("TOPIC"), any(byte[].class));
+    verify(connection).flush(Duration.ofSeconds(1));
+    assertThat(meterRegistry.get("macro.nats.publish").tag("subject", "TOPIC").timer().count()).isEqualTo(4);
+    messagePublisher.close();
+  }
+
+  @Test
+  public void dispatchMessage_givenPublishFailsInCoalescingMode_shouldHoldTheMessageAndWriteItOnTheNextRun() throws Exception {
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var connection = mock(Connection.class);
+    doThrow(new IllegalStateException("Connection is Closed")).doThrow(new IllegalStateException("Connection is Closed")).doNothing()
+      .when(connection).publish(anyString(), any(byte[].class));
+    final var properties = this.properties(true);
+    properties.setPublishCoalescingMaxDelayMillis(20);
+    final var messagePublisher = new MessagePublisher(connection, meterRegistry, properties);
+
+    messagePublisher.dispatchMessage("TOPIC", "1".getBytes());
+
+    verify(connection, timeout(5000).times(3)).publish(eq("TOPIC"), any(byte[].class));
+    verify(connection, timeout(5000)).flushBuffer();
+    assertThat(meterRegistry.get("macro.nats.publish.pending").gauge().value()).isZero();
+    assertThat(meterRegistry.get("macro.nats.publish.failures").tag("subject", "TOPIC").counter().count()).isEqualTo(2);
+    messagePublisher.close();
+  }
+
+  private ApplicationProperties properties(final boolean coalescing) {
+    final var properties = new ApplicationProperties();
+    properties.setRequestTimeoutSeconds(1);
+    properties.setPublishCoalescingEnabled(coalescing);
+    properties.setPublishCoalescingMaxMessages(3);
+    properties.setPublishCoalescingMaxDelayMillis(60000);
+    return properties;
+  }
+}
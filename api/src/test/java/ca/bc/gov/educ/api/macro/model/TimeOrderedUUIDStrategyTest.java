@@ -0,0 +1,38 @@
+package ca.bc.gov.educ.api.macro.model;
+
+import ca.bc.gov.educ.api.macro.mapper.UUIDMapper;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeOrderedUUIDStrategyTest {
+
+  @Test
+  public void generate_givenManyIdsInTheSameMilli_shouldBeVersion7AndIncreasingByTheirBytes() {
+    final long before = System.currentTimeMillis();
+    final List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      ids.add(TimeOrderedUUIDStrategy.generate());
+    }
+
+    for (int i = 1; i < ids.size(); i++) {
+      assertThat(Arrays.compareUnsigned(bytes(ids.get(i - 1)), bytes(ids.get(i)))).isNegative();
+    }
+    final var first = ids.get(0);
+    assertThat(first.version()).isEqualTo(7);
+    assertThat(first.variant()).isEqualTo(2);
+    assertThat(first.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 10);
+    final var uuidMapper = new UUIDMapper();
+    assertThat(uuidMapper.map(uuidMapper.map(first))).isEqualTo(first);
+  }
+
+  private static byte[] bytes(final UUID uuid) {
+    return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+  }
+}
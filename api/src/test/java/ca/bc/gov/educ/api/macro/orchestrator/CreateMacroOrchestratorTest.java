@@ -2,7 +2,12 @@ package ca.bc.gov.educ.api.macro.orchestrator;
 
 import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
 import ca.bc.gov.educ.api.macro.constants.*;
+import ca.bc.gov.educ.api.macro.messaging.LocalEventDispatcher;
 import ca.bc.gov.educ.api.macro.messaging.MessagePublisher;
+import ca.bc.gov.educ.api.macro.orchestrator.base.SagaMetrics;
+import ca.bc.gov.educ.api.macro.repository.MacroEventRepository;
+import ca.bc.gov.educ.api.macro.repository.MacroRepository;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaRepository;
 import ca.bc.gov.educ.api.macro.service.SagaService;
@@ -12,6 +17,7 @@ import ca.bc.gov.educ.api.macro.struct.v1.MacroEditNotificationEvent;
 import ca.bc.gov.educ.api.macro.util.JsonUtil;
 import ca.bc.gov.educ.api.macro.model.Saga;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.After;
 import org.junit.Before;
@@ -50,6 +56,9 @@ public class CreateMacroOrchestratorTest {
    */
   @Autowired
   SagaEventRepository sagaEventRepository;
+
+  @Autowired
+  SagaAdmissionRepository sagaAdmissionRepository;
   /**
    * The Saga service.
    */
@@ -65,6 +74,21 @@ public class CreateMacroOrchestratorTest {
   @Autowired
   private CreateMacroOrchestrator orchestrator;
 
+  @Autowired
+  private LocalEventDispatcher localEventDispatcher;
+
+  @Autowired
+  private MacroRepository macroRepository;
+
+  @Autowired
+  private MacroEventRepository macroEventRepository;
+
+  @Autowired
+  private SagaMetrics sagaMetrics;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
   /**
    * The Saga.
    */
@@ -101,6 +125,10 @@ public class CreateMacroOrchestratorTest {
    */
   @After
   public void after() {
+    localEventDispatcher.setEnabled(false);
+    macroEventRepository.deleteAll();
+    macroRepository.deleteAll();
+    sagaAdmissionRepository.deleteAll();
     sagaEventRepository.deleteAll();
     repository.deleteAll();
   }
@@ -167,6 +195,50 @@ public class CreateMacroOrchestratorTest {
     Assertions.assertThat(sagaStates.get(0).getSagaEventOutcome()).isEqualTo(EventOutcome.MACRO_CREATED.toString());
   }
 
+  @Test
+  public void testCreateMacro_givenLocalDispatchEnabled_shouldRunSagaToNotifyWithoutNats() throws IOException, TimeoutException, InterruptedException {
+    localEventDispatcher.setEnabled(true);
+    clearInvocations(messagePublisher);
+    var event = Event.builder()
+      .eventType(EventType.INITIATED)
+      .eventOutcome(EventOutcome.INITIATE_SUCCESS)
+      .sagaId(saga.getSagaId())
+      .macroId(macroID)
+      .build();
+
+    orchestrator.handleEvent(event);
+    verify(messagePublisher, never()).dispatchMessage(eq(TopicsEnum.MACRO_API_TOPIC.toString()), any());
+    verify(messagePublisher).dispatchMessage(eq(TopicsEnum.PROFILE_REQUEST_EMAIL_API_TOPIC.toString()), any());
+    assertThat(macroRepository.existsByBusinessUseTypeCodeAndMacroTypeCodeAndMacroCode(sagaData.getBusinessUseTypeCode(), sagaData.getMacroTypeCode(), sagaData.getMacroCode())).isTrue();
+    assertThat(macroEventRepository.findBySagaIdAndEventType(saga.getSagaId(), EventType.CREATE_MACRO.toString()))
+      .hasValueSatisfying(macroEvent -> assertThat(macroEvent.getEventStatus()).isEqualTo(EventStatus.MESSAGE_PUBLISHED.toString()));
+
+    var sagaFromDB = sagaService.findSagaById(saga.getSagaId());
+    assertThat(sagaFromDB).isPresent();
+    assertThat(sagaFromDB.get().getSagaState()).isEqualTo(EventType.NOTIFY_MACRO_CREATE.toString());
+    assertThat(sagaService.findAllSagaStates(saga)).hasSize(2);
+  }
+
+  @Test
+  public void testCreateMacro_givenEvent_shouldRecordStepAndInFlightSagas() throws IOException, TimeoutException, InterruptedException {
+    var step = meterRegistry.timer("macro.saga.step", "saga", SagaEnum.MACRO_CREATE_SAGA.toString(), "event_type", EventType.CREATE_MACRO.toString(),
+      "outcome", EventOutcome.INITIATE_SUCCESS.toString(), "result", "success");
+    var steps = step.count();
+    var event = Event.builder()
+      .eventType(EventType.INITIATED)
+      .eventOutcome(EventOutcome.INITIATE_SUCCESS)
+      .sagaId(saga.getSagaId())
+      .macroId(macroID)
+      .build();
+
+    orchestrator.handleEvent(event);
+    assertThat(step.count()).isEqualTo(steps + 1);
+
+    sagaMetrics.refreshInFlightSagas();
+    assertThat(meterRegistry.get("macro.saga.in.flight").tag("status", SagaStatusEnum.IN_PROGRESS.toString()).gauge().value()).isEqualTo(1);
+    assertThat(meterRegistry.get("macro.saga.in.flight").tag("status", SagaStatusEnum.STARTED.toString()).gauge().value()).isZero();
+  }
+
   /**
    * Dummy macro saga data json string.
    *
@@ -2,6 +2,7 @@ package ca.bc.gov.educ.api.macro.orchestrator;
 
 import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
 import ca.bc.gov.educ.api.macro.constants.*;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.struct.v1.Event;
 import ca.bc.gov.educ.api.macro.struct.v1.MacroEditNotificationEvent;
@@ -26,6 +27,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -34,6 +36,8 @@ import java.util.UUID;
 import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -52,6 +56,9 @@ public class UpdateMacroOrchestratorTest {
    */
   @Autowired
   SagaEventRepository sagaEventRepository;
+
+  @Autowired
+  SagaAdmissionRepository sagaAdmissionRepository;
   /**
    * The Saga service.
    */
@@ -103,6 +110,7 @@ public class UpdateMacroOrchestratorTest {
    */
   @After
   public void after() {
+    sagaAdmissionRepository.deleteAll();
     sagaEventRepository.deleteAll();
     repository.deleteAll();
   }
@@ -169,6 +177,60 @@ public class UpdateMacroOrchestratorTest {
     assertThat(sagaStates.get(0).getSagaEventOutcome()).isEqualTo(EventOutcome.MACRO_UPDATED.toString());
   }
 
+  @Test
+  public void testHandleEvent_givenMacroVersionConflict_shouldCompleteSagaWithoutEmail() throws IOException, InterruptedException, TimeoutException {
+    this.assertSagaCompletedWithoutEmail(EventOutcome.MACRO_VERSION_CONFLICT);
+  }
+
+  @Test
+  public void testHandleEvent_givenMacroNotFound_shouldCompleteSagaWithoutEmail() throws IOException, InterruptedException, TimeoutException {
+    this.assertSagaCompletedWithoutEmail(EventOutcome.MACRO_NOT_FOUND);
+  }
+
+  @Test
+  public void testCreateSagaRecordInDB_givenAdmissionHeldBySagaNoLongerInFlight_shouldTakeItOver() {
+    assertThatThrownBy(() -> sagaService.createSagaRecordInDB(SagaEnum.MACRO_UPDATE_SAGA.toString(), "Test", sagaPayload, UUID.fromString(macroID)))
+      .isInstanceOf(DataIntegrityViolationException.class);
+
+    var forceStopped = sagaService.findDetachedSagaById(saga.getSagaId()).orElseThrow();
+    forceStopped.setStatus(SagaStatusEnum.FORCE_STOPPED.toString());
+    repository.save(forceStopped);
+    var nextSaga = sagaService.createSagaRecordInDB(SagaEnum.MACRO_UPDATE_SAGA.toString(), "Test", sagaPayload, UUID.fromString(macroID));
+    assertThat(sagaAdmissionRepository.findById(UUID.fromString(macroID))).hasValueSatisfying(admission -> assertThat(admission.getSagaId()).isEqualTo(nextSaga.getSagaId()));
+  }
+
+  @Test
+  public void testUpdateAttachedEntityDuringSagaProcess_givenForceStoppedSaga_shouldReleaseAdmission() {
+    var forceStopped = sagaService.findDetachedSagaById(saga.getSagaId()).orElseThrow();
+    forceStopped.setStatus(SagaStatusEnum.FORCE_STOPPED.toString());
+    sagaService.updateAttachedEntityDuringSagaProcess(forceStopped);
+    assertThat(sagaAdmissionRepository.findAll()).isEmpty();
+  }
+
+  private void assertSagaCompletedWithoutEmail(final EventOutcome eventOutcome) throws IOException, InterruptedException, TimeoutException {
+    reset(messagePublisher);
+    var event = Event.builder()
+      .eventType(EventType.UPDATE_MACRO)
+      .eventOutcome(eventOutcome)
+      .sagaId(saga.getSagaId())
+      .macroId(macroID)
+      .eventPayload(sagaPayload)
+      .build();
+
+    orchestrator.handleEvent(event);
+    verify(messagePublisher, never()).dispatchMessage(ArgumentMatchers.eq(TopicsEnum.PROFILE_REQUEST_EMAIL_API_TOPIC.toString()), any());
+
+    var sagaFromDB = sagaService.findSagaById(saga.getSagaId());
+    assertThat(sagaFromDB).isPresent();
+    assertThat(sagaFromDB.get().getStatus()).isEqualTo(SagaStatusEnum.COMPLETED.toString());
+    assertThat(sagaFromDB.get().getSagaState()).isEqualTo(SagaStatusEnum.COMPLETED.toString());
+    var sagaStates = sagaService.findAllSagaStates(saga);
+    assertThat(sagaStates).hasSize(1);
+    assertThat(sagaStates.get(0).getSagaEventState()).isEqualTo(EventType.UPDATE_MACRO.toString());
+    assertThat(sagaStates.get(0).getSagaEventOutcome()).isEqualTo(eventOutcome.toString());
+    assertThat(sagaAdmissionRepository.findAll()).isEmpty();
+  }
+
   /**
    * Dummy macro saga data json string.
    *
@@ -0,0 +1,145 @@
+package ca.bc.gov.educ.api.macro.schedulers;
+
+import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import ca.bc.gov.educ.api.macro.model.Saga;
+import ca.bc.gov.educ.api.macro.orchestrator.base.Orchestrator;
+import ca.bc.gov.educ.api.macro.orchestrator.base.SagaMetrics;
+import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
+import ca.bc.gov.educ.api.macro.repository.SagaRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static ca.bc.gov.educ.api.macro.constants.SagaStatusEnum.COMPLETED;
+import static ca.bc.gov.educ.api.macro.constants.SagaStatusEnum.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {MacroApiResourceApplication.class})
+public class EventTaskSchedulerTest {
+
+  private static final String PAYLOAD = "{\"macroCode\":\"hi\",\"macroTypeCode\":\"MERGE\",\"businessUseTypeCode\":\"PENREG\",\"macroText\":\"hello\",\"createUser\":\"test\",\"updateUser\":\"test\"}";
+
+  @Autowired
+  SagaRepository repository;
+
+  @Autowired
+  SagaEventRepository sagaEventRepository;
+
+  @Autowired
+  EventTaskScheduler eventTaskScheduler;
+
+  @Autowired
+  SagaMetrics sagaMetrics;
+
+  @After
+  public void after() {
+    this.eventTaskScheduler.setReplayBatchSize(100);
+    this.sagaEventRepository.deleteAll();
+    this.repository.deleteAll();
+  }
+
+  @Test
+  public void findAndProcessUncompletedSagas_givenMoreSagasThanBatchSize_shouldReplayEveryOldUncompletedSaga() {
+    final var fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
+    for (int i = 0; i < 5; i++) {
+      this.repository.save(this.getSaga(STARTED.toString(), fiveMinutesAgo));
+    }
+    final var completedSaga = this.repository.save(this.getSaga(COMPLETED.toString(), fiveMinutesAgo));
+    final var newSaga = this.repository.save(this.getSaga(STARTED.toString(), LocalDateTime.now()));
+
+    this.eventTaskScheduler.setReplayBatchSize(2);
+    this.eventTaskScheduler.findAndProcessUncompletedSagas();
+
+    final var sagas = this.repository.findAll();
+    assertThat(sagas).hasSize(7);
+    sagas.forEach(saga -> {
+      if (saga.getSagaId().equals(completedSaga.getSagaId()) || saga.getSagaId().equals(newSaga.getSagaId())) {
+        assertThat(saga.getRetryCount()).isNull();
+      } else {
+        assertThat(saga.getRetryCount()).isEqualTo(1);
+      }
+    });
+    assertThat(this.sagaEventRepository.findAll()).hasSize(5);
+  }
+
+  @Test
+  public void findAndProcessUncompletedSagas_givenSagasLeasedByOtherPods_shouldReplayOnlyFreeAndExpiredLeases() {
+    final var fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
+    final var freeSaga = this.repository.save(this.getSaga(STARTED.toString(), fiveMinutesAgo));
+    final var leasedSaga = this.repository.save(this.getSaga(STARTED.toString(), fiveMinutesAgo));
+    final var expiredSaga = this.repository.save(this.getSaga(STARTED.toString(), fiveMinutesAgo));
+    this.repository.claimForReplay(List.of(leasedSaga.getSagaId()), "other-pod/live", 120);
+    this.repository.claimForReplay(List.of(expiredSaga.getSagaId()), "other-pod/crashed", -60);
+
+    this.eventTaskScheduler.findAndProcessUncompletedSagas();
+
+    assertThat(this.repository.findById(freeSaga.getSagaId()).orElseThrow().getRetryCount()).isEqualTo(1);
+    assertThat(this.repository.findById(expiredSaga.getSagaId()).orElseThrow().getRetryCount()).isEqualTo(1);
+    final var stillLeased = this.repository.findById(leasedSaga.getSagaId()).orElseThrow();
+    assertThat(stillLeased.getRetryCount()).isNull();
+    assertThat(stillLeased.getReplayOwner()).isEqualTo("other-pod/live");
+    assertThat(this.repository.findAllByReplayOwner("other-pod/crashed")).isEmpty();
+  }
+
+  @Test
+  public void findAndProcessUncompletedSagas_givenSagasReplayedInThisRun_shouldLeaveThemToTheNextRun() {
+    final var saga = this.repository.save(this.getSaga(STARTED.toString(), LocalDateTime.now().minusMinutes(5)));
+
+    this.eventTaskScheduler.findAndProcessUncompletedSagas();
+    this.eventTaskScheduler.findAndProcessUncompletedSagas();
+
+    final var replayedSaga = this.repository.findById(saga.getSagaId()).orElseThrow();
+    assertThat(replayedSaga.getRetryCount()).isEqualTo(1);
+    assertThat(replayedSaga.getReplayOwner()).isNull();
+    assertThat(replayedSaga.getReplayLeaseExpiresAt()).isAfter(LocalDateTime.now());
+  }
+
+  @Test
+  public void findAndProcessUncompletedSagas_givenReplayStillRunningAtDeadline_shouldReturnAndKeepTheLease() throws Exception {
+    final var saga = this.repository.save(this.getSaga(STARTED.toString(), LocalDateTime.now().minusMinutes(5)));
+    final var orchestrator = mock(Orchestrator.class);
+    when(orchestrator.getSagaName()).thenReturn("MACRO_CREATE_SAGA");
+    when(orchestrator.replaySaga(any())).thenReturn(new CompletableFuture<>());
+    final var scheduler = new EventTaskScheduler(this.repository, List.of(orchestrator), this.sagaMetrics);
+    scheduler.setReplayBatchSize(100);
+    scheduler.setReplayMaxDurationInSeconds(1);
+    scheduler.setReplayLeaseInSeconds(120);
+    scheduler.setReplayIntervalInSeconds(50);
+
+    final long start = System.nanoTime();
+    scheduler.findAndProcessUncompletedSagas();
+
+    assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+    final var leasedSaga = this.repository.findById(saga.getSagaId()).orElseThrow();
+    assertThat(leasedSaga.getRetryCount()).isEqualTo(1);
+    assertThat(leasedSaga.getReplayOwner()).isNotNull();
+  }
+
+  private Saga getSaga(final String status, final LocalDateTime createDateTime) {
+    return Saga
+        .builder()
+        .payload(PAYLOAD)
+        .sagaName("MACRO_CREATE_SAGA")
+        .status(status)
+        .sagaState("INITIATED")
+        .createDate(createDateTime)
+        .createUser("MACRO_API")
+        .updateUser("MACRO_API")
+        .updateDate(createDateTime)
+        .build();
+  }
+}
@@ -8,6 +8,7 @@ import ca.bc.gov.educ.api.macro.model.SagaEvent;
 import ca.bc.gov.educ.api.macro.repository.MacroEventRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
 import ca.bc.gov.educ.api.macro.repository.SagaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.After;
 import org.junit.Test;
@@ -19,6 +20,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import static ca.bc.gov.educ.api.macro.constants.SagaStatusEnum.COMPLETED;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -42,9 +44,13 @@ public class PurgeOldSagaRecordsSchedulerTest {
   @Autowired
   PurgeOldSagaRecordsScheduler purgeOldSagaRecordsScheduler;
 
+  @Autowired
+  MeterRegistry meterRegistry;
 
   @After
   public void after() {
+    this.purgeOldSagaRecordsScheduler.setPurgeBatchSize(100);
+    this.purgeOldSagaRecordsScheduler.setPurgeMaxDurationInSeconds(60);
     this.macroEventRepository.deleteAll();
     this.sagaEventRepository.deleteAll();
     this.repository.deleteAll();
@@ -82,6 +88,31 @@ public class PurgeOldSagaRecordsSchedulerTest {
     assertThat(servicesEvents).hasSize(1);
   }
 
+  @Test
+  public void purgeRecordsCreatedBefore_givenTimeBudgetSpentAfterFirstBatch_shouldLeaveTheRestAsBacklog() {
+    final var payload = "{}";
+    final var yesterday = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    for (int i = 0; i < 3; i++) {
+      final var saga = this.repository.save(this.getSaga(payload, yesterday.minusMinutes(i)));
+      this.sagaEventRepository.save(this.getSagaEvent(saga, payload));
+    }
+
+    this.purgeOldSagaRecordsScheduler.setPurgeBatchSize(2);
+    this.purgeOldSagaRecordsScheduler.setPurgeMaxDurationInSeconds(0);
+    this.purgeOldSagaRecordsScheduler.purgeRecordsCreatedBefore(LocalDateTime.now().minusHours(1));
+
+    final var sagas = this.repository.findAll();
+    assertThat(sagas).hasSize(1);
+    assertThat(sagas.get(0).getCreateDate()).isEqualTo(yesterday);
+    assertThat(this.sagaEventRepository.findAll()).hasSize(1);
+    assertThat(this.meterRegistry.get("macro.purge.backlog").tag("table", "MACRO_SAGA").gauge().value()).isEqualTo(1);
+    assertThat(this.meterRegistry.get("macro.purge.rows").tag("table", "MACRO_SAGA").counter().count()).isGreaterThanOrEqualTo(2);
+
+    this.purgeOldSagaRecordsScheduler.setPurgeMaxDurationInSeconds(60);
+    this.purgeOldSagaRecordsScheduler.purgeRecordsCreatedBefore(LocalDateTime.now().minusHours(1));
+    assertThat(this.repository.findAll()).isEmpty();
+    assertThat(this.meterRegistry.get("macro.purge.backlog").tag("table", "MACRO_SAGA").gauge().value()).isZero();
+  }
 
   private Saga getSaga(final String payload, final LocalDateTime createDateTime) {
     return Saga
@@ -0,0 +1,85 @@
+package ca.bc.gov.educ.api.macro.service;
+
+import ca.bc.gov.educ.api.macro.MacroApiResourceApplication;
+import ca.bc.gov.educ.api.macro.constants.EventOutcome;
+import ca.bc.gov.educ.api.macro.constants.EventType;
+import ca.bc.gov.educ.api.macro.constants.SagaEnum;
+import ca.bc.gov.educ.api.macro.model.SagaEvent;
+import ca.bc.gov.educ.api.macro.repository.SagaAdmissionRepository;
+import ca.bc.gov.educ.api.macro.repository.SagaEventRepository;
+import ca.bc.gov.educ.api.macro.repository.SagaRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {MacroApiResourceApplication.class})
+public class SagaServiceTest {
+
+  @Autowired
+  SagaService sagaService;
+
+  @Autowired
+  SagaRepository sagaRepository;
+
+  @Autowired
+  SagaAdmissionRepository sagaAdmissionRepository;
+
+  @SpyBean
+  SagaEventRepository sagaEventRepository;
+
+  @After
+  public void after() {
+    this.sagaAdmissionRepository.deleteAll();
+    this.sagaEventRepository.deleteAll();
+    this.sagaRepository.deleteAll();
+  }
+
+  @Test
+  public void updateAttachedSagaWithEvents_givenEventInsertFailsOnce_shouldRetryFromTheCommittedVersion() {
+    final var created = this.sagaService.createSagaRecordInDB(SagaEnum.MACRO_UPDATE_SAGA.toString(), "Test", "{}", UUID.randomUUID());
+    final var saga = this.sagaService.findDetachedSagaById(created.getSagaId()).orElseThrow();
+    final var version = saga.getVersion();
+    saga.setSagaState(EventType.UPDATE_MACRO.toString());
+    final var sagaEvent = SagaEvent.builder()
+        .createDate(LocalDateTime.now())
+        .createUser("Test")
+        .updateDate(LocalDateTime.now())
+        .updateUser("Test")
+        .saga(saga)
+        .sagaEventOutcome(EventOutcome.INITIATE_SUCCESS.toString())
+        .sagaEventState(EventType.INITIATED.toString())
+        .sagaStepNumber(1)
+        .sagaEventResponse(" ")
+        .build();
+    final var failOnce = new AtomicBoolean(true);
+    doThrow(new DataAccessResourceFailureException("connection reset")).when(this.sagaEventRepository).save(argThat((SagaEvent event) -> failOnce.getAndSet(false)));
+
+    this.sagaService.updateAttachedSagaWithEvents(saga, sagaEvent);
+
+    verify(this.sagaEventRepository, times(2)).save(any(SagaEvent.class));
+    final var updated = this.sagaRepository.findById(saga.getSagaId()).orElseThrow();
+    assertThat(updated.getSagaState()).isEqualTo(EventType.UPDATE_MACRO.toString());
+    assertThat(updated.getVersion()).isEqualTo(version + 1);
+    assertThat(saga.getVersion()).isEqualTo(updated.getVersion());
+    assertThat(this.sagaEventRepository.findBySaga(updated)).hasSize(1);
+  }
+}
@@ -30,7 +30,9 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 
+import static ca.bc.gov.educ.api.macro.constants.EventStatus.DB_COMMITTED;
 import static ca.bc.gov.educ.api.macro.constants.EventStatus.MESSAGE_PUBLISHED;
 import static ca.bc.gov.educ.api.macro.constants.EventType.CREATE_MACRO;
 import static ca.bc.gov.educ.api.macro.constants.EventType.UPDATE_MACRO;
@@ -38,8 +40,8 @@ import static ca.bc.gov.educ.api.macro.constants.TopicsEnum.MACRO_CREATE_SAGA_TO
 import static ca.bc.gov.educ.api.macro.constants.TopicsEnum.MACRO_UPDATE_SAGA_TOPIC;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -72,6 +74,7 @@ public class EventHandlerDelegatorServiceTest {
 
   @After
   public void after() {
+    reset(this.messagePublisher);
     this.macroEventRepository.deleteAll();
     this.macroRepository.deleteAll();
   }
@@ -103,7 +106,49 @@ public class EventHandlerDelegatorServiceTest {
     assertThat(macro.getMacroTypeCode()).isEqualTo(payload.getMacroTypeCode());
     assertThat(macro.getMacroCode()).isEqualTo(payload.getMacroCode());
     assertThat(macro.getMacroText()).isEqualTo(payload.getMacroText());
+    final var macroEvent = this.macroEventRepository.findBySagaIdAndEventType(event.getSagaId(), CREATE_MACRO.toString());
+    assertThat(macroEvent).isPresent();
+    assertThat(macroEvent.get().getEventStatus()).isEqualTo(MESSAGE_PUBLISHED.toString());
+  }
 
+  @Test
+  public void handleEvent_givenCreateMacroEventAndNatsDoesNotAcknowledge_shouldKeepResponseInOutbox() throws Exception {
+    doThrow(new TimeoutException()).when(this.messagePublisher).flush(any());
+    final var payload = this.getMacroPayloadFromJsonString(null);
+    final var event = Event.builder()
+        .eventType(CREATE_MACRO)
+        .replyTo(MACRO_CREATE_SAGA_TOPIC.toString())
+        .eventPayload(JsonUtil.getJsonStringFromObject(payload))
+        .sagaId(UUID.randomUUID())
+        .build();
+    final Message message = NatsMessageImpl.builder()
+        .connection(this.connection)
+        .data(JsonUtil.getJsonBytesFromObject(event))
+        .SID("SID")
+        .build();
+    this.eventHandlerDelegatorService.handleEvent(event, message);
+    final var macroEvent = this.macroEventRepository.findBySagaIdAndEventType(event.getSagaId(), CREATE_MACRO.toString());
+    assertThat(macroEvent).isPresent();
+    assertThat(macroEvent.get().getEventStatus()).isEqualTo(DB_COMMITTED.toString());
+  }
+
+  @Test
+  public void handleEvent_givenOtherPendingEvent_shouldRelayOnlyTheEventJustWritten() throws JsonProcessingException {
+    final var pendingEvent = this.macroEventRepository.save(MacroEvent.builder()
+        .createDate(LocalDateTime.now()).updateDate(LocalDateTime.now()).createUser("TEST").updateUser("TEST")
+        .eventType(CREATE_MACRO.toString()).eventOutcome(EventOutcome.MACRO_CREATED.toString()).eventStatus(DB_COMMITTED.toString()).eventPayload("{}")
+        .sagaId(UUID.randomUUID()).replyChannel(MACRO_CREATE_SAGA_TOPIC.toString()).build());
+    final var event = Event.builder()
+        .eventType(CREATE_MACRO)
+        .replyTo(MACRO_CREATE_SAGA_TOPIC.toString())
+        .eventPayload(JsonUtil.getJsonStringFromObject(this.getMacroPayloadFromJsonString(null)))
+        .sagaId(UUID.randomUUID())
+        .build();
+    this.eventHandlerDelegatorService.handleEvent(event, null);
+    verify(this.messagePublisher, times(1)).dispatchMessage(eq(MACRO_CREATE_SAGA_TOPIC.toString()), any());
+    assertThat(this.macroEventRepository.findBySagaIdAndEventType(event.getSagaId(), CREATE_MACRO.toString()).orElseThrow().getEventStatus())
+        .isEqualTo(MESSAGE_PUBLISHED.toString());
+    assertThat(this.macroEventRepository.findById(pendingEvent.getEventId()).orElseThrow().getEventStatus()).isEqualTo(DB_COMMITTED.toString());
   }
 
   @Test
@@ -139,6 +184,29 @@ public class EventHandlerDelegatorServiceTest {
 
   }
 
+  @Test
+  public void handleEvent_givenCreateMacroEventForExistingMacroCodes_shouldRespondMacroAlreadyExists() throws JsonProcessingException {
+    this.createMacroEntities();
+    final var payload = this.getMacroPayloadFromJsonString(null);
+    final var event = Event.builder()
+        .eventType(CREATE_MACRO)
+        .replyTo(MACRO_CREATE_SAGA_TOPIC.toString())
+        .eventPayload(JsonUtil.getJsonStringFromObject(payload))
+        .sagaId(UUID.randomUUID())
+        .build();
+    final Message message = NatsMessageImpl.builder()
+        .connection(this.connection)
+        .data(JsonUtil.getJsonBytesFromObject(event))
+        .SID("SID")
+        .replyTo(MACRO_CREATE_SAGA_TOPIC.toString())
+        .build();
+    this.eventHandlerDelegatorService.handleEvent(event, message);
+    verify(this.messagePublisher, atLeastOnce()).dispatchMessage(any(), this.eventCaptor.capture());
+    final var replyEvent = JsonUtil.getJsonObjectFromString(Event.class, new String(this.eventCaptor.getValue()));
+    assertThat(replyEvent.getEventOutcome()).isEqualTo(EventOutcome.MACRO_ALREADY_EXISTS);
+    assertThat(this.macroRepository.findAll()).hasSize(1);
+  }
+
   @Test
   public void handleEvent_givenUpdateMacroEvent_shouldRespondToNats() throws JsonProcessingException {
     MacroEntity savedEntity = createMacroEntities();
@@ -172,6 +240,31 @@ public class EventHandlerDelegatorServiceTest {
 
   }
 
+  @Test
+  public void handleEvent_givenUpdateMacroEventWithStaleVersion_shouldRespondMacroVersionConflict() throws JsonProcessingException {
+    MacroEntity savedEntity = createMacroEntities();
+    final var payload = mapper.toStructure(savedEntity);
+    payload.setMacroText("Changed Text");
+    payload.setVersion(savedEntity.getVersion() + 1);
+    final var event = Event.builder()
+      .eventType(UPDATE_MACRO)
+      .replyTo(MACRO_UPDATE_SAGA_TOPIC.toString())
+      .eventPayload(JsonUtil.getJsonStringFromObject(payload))
+      .sagaId(UUID.randomUUID())
+      .build();
+    final Message message = NatsMessageImpl.builder()
+      .connection(this.connection)
+      .data(JsonUtil.getJsonBytesFromObject(event))
+      .SID("SID")
+      .replyTo(MACRO_UPDATE_SAGA_TOPIC.toString())
+      .build();
+    this.eventHandlerDelegatorService.handleEvent(event, message);
+    verify(this.messagePublisher, atLeastOnce()).dispatchMessage(any(), this.eventCaptor.capture());
+    final var replyEvent = JsonUtil.getJsonObjectFromString(Event.class, new String(this.eventCaptor.getValue()));
+    assertThat(replyEvent.getEventOutcome()).isEqualTo(EventOutcome.MACRO_VERSION_CONFLICT);
+    assertThat(this.service.getMacro(savedEntity.getMacroId())).get().extracting(MacroEntity::getMacroText).isEqualTo("hello");
+  }
+
   @Test
   public void handleEvent_givenUpdateMacroEventWithInvalidMacroId_shouldRespondToNats() throws JsonProcessingException {
     final var payload = getMacroPayloadFromJsonString(UUID.randomUUID().toString());
@@ -0,0 +1,82 @@
+package ca.bc.gov.educ.api.macro.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedExecutorTest {
+
+  @Test
+  public void execute_givenMoreTasksThanMaxConcurrency_shouldRunOneAtATimeAndReportQueuedAndActive() throws InterruptedException {
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var delegate = Executors.newCachedThreadPool();
+    final var executor = new BoundedExecutor("test", delegate, 1, meterRegistry);
+    final var release = new CountDownLatch(1);
+    final var done = new CountDownLatch(3);
+    for (int i = 0; i < 3; i++) {
+      executor.execute(() -> {
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        done.countDown();
+      });
+    }
+
+    waitUntil(() -> meterRegistry.get("macro.executor.queued").tag("name", "test").gauge().value() == 2);
+    assertThat(meterRegistry.get("macro.executor.active").tag("name", "test").gauge().value()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    waitUntil(() -> meterRegistry.get("macro.executor.active").tag("name", "test").gauge().value() == 0);
+    assertThat(meterRegistry.get("macro.executor.queued").tag("name", "test").gauge().value()).isZero();
+    assertThat(meterRegistry.get("macro.executor.wait").tag("name", "test").timer().count()).isEqualTo(3);
+    executor.shutdown();
+  }
+
+  @Test
+  public void execute_givenTwoExecutorsSharingPermits_shouldRunOneTaskAtATimeAcrossBoth() throws InterruptedException {
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var permits = new Semaphore(1);
+    final var first = new BoundedExecutor("first", Executors.newCachedThreadPool(), permits, meterRegistry);
+    final var second = new BoundedExecutor("second", Executors.newCachedThreadPool(), permits, meterRegistry);
+    final var release = new CountDownLatch(1);
+    final var done = new CountDownLatch(2);
+    final Runnable task = () -> {
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      done.countDown();
+    };
+    first.execute(task);
+    waitUntil(() -> meterRegistry.get("macro.executor.active").tag("name", "first").gauge().value() == 1);
+    second.execute(task);
+
+    waitUntil(() -> meterRegistry.get("macro.executor.queued").tag("name", "second").gauge().value() == 1);
+    assertThat(meterRegistry.get("macro.executor.active").tag("name", "second").gauge().value()).isZero();
+
+    release.countDown();
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    waitUntil(() -> permits.availablePermits() == 1);
+    first.shutdown();
+    second.shutdown();
+  }
+
+  private void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+}